@@ -1,42 +1,174 @@
 package base;
 
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.ITestContext;
 import org.testng.annotations.*;
 import pages.LoginPage;
+import standin.StandInServer;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 
+// Suite-end reports: per-command WebDriver latency, page/postback timings and per-test time budgets vs. earlier runs;
+// PageScheduler orders each class's tests so consecutive ones share a clean page
+@Listeners({DriverMetricsReporter.class, PagePerfReporter.class, TimeBudgetListener.class, PageScheduler.class})
 public class BaseTest {
 
-    public WebDriver driver;
-
-    // Credentials & URL
-    public String baseUrl  = "https://qeaskillhub.cognizant.com/LoginPage?logout=true";
+    // Credentials & URL (-Dstandin.mode=record|replay points the suite at the local stand-in)
+    public String baseUrl  = StandInServer.resolve("https://qeaskillhub.cognizant.com/LoginPage?logout=true");
     public String username = "admin_user";
     public String password = "testadmin";
 
-    @BeforeClass(alwaysRun = true)
-    public void setUpClass() {
+    // Max browsers open at once across all threads and browser profiles (-Dbrowsers.max=N)
+    public static final int MAX_BROWSERS =
+            Integer.getInteger("browsers.max", Runtime.getRuntime().availableProcessors());
+
+    // That cap, shared by the profile pools; a pool at the cap closes another pool's idle browser
+    private static final Semaphore BROWSER_CAP = DriverPool.cap(MAX_BROWSERS);
+
+    // Spare browsers started in the background ahead of demand (-Dbrowsers.warm=N, 0 = on demand only)
+    public static final int WARM_BROWSERS = Integer.getInteger("browsers.warm", 1);
+
+    // One pool per browser profile (usually just one per run); each thread leases its own logged-in browser
+    private static final Map<BrowserProfile, DriverPool> POOLS = new ConcurrentHashMap<>();
+
+    // Forms-auth ticket from the suite's first login; each new browser gets it and its own session
+    private static volatile SessionCache session;
+
+    /** Driver leased by the current thread (safe under parallel classes/methods/data providers). */
+    public WebDriver getDriver() {
+        return pool().acquire();
+    }
+
+    /** Browser profile for this test class (headed / lean / configured; see BrowserProfile). */
+    public BrowserProfile browserProfile() {
+        return BrowserProfile.forClass(getClass());
+    }
+
+    /** Wait profile for this test class; override to use a page-specific timeout. */
+    public Waits.Profile waitProfile() {
+        return Waits.Profile.DEFAULT;
+    }
+
+    /** Named explicit waits and zero-timeout probes for the current thread's driver. */
+    public Waits waits() {
+        return new Waits(getDriver(), waitProfile());
+    }
 
-        driver = new ChromeDriver();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().window().maximize();
+    /**
+     * Cookies of the current thread's signed-in browser (its own ASP.NET session), for HTTP-level
+     * clients (see http.WebFormsClient).
+     */
+    public Set<Cookie> sessionCookies() {
+        return getDriver().manage().getCookies();
+    }
 
-        // Open login page ONCE per class
+    /** Opens the login page and signs in through the form (always a real, fresh login). */
+    public void login(WebDriver driver) {
+        // Drop the cached ticket first so ?logout=true doesn't sign out the other browsers
+        if (driver.getCurrentUrl().startsWith("http")) {
+            driver.manage().deleteAllCookies();
+        }
+        PagePerf.Mark perf = PagePerf.mark(driver);
         driver.get(baseUrl);
+        perf.record("Login.load");
 
-        // Login ONCE per class
         LoginPage lp = new LoginPage(driver);
         lp.setUserName(username);
         lp.setPassword(password);
         lp.clickLoginButton();
     }
 
-    @AfterClass(alwaysRun = true)
-    public void tearDownClass() {
-        if (driver != null) {
-            driver.quit();
+    /** Starts a new browser with this class's profile and signs it in from the session cache. */
+    public WebDriver newLoggedInDriver() {
+        return newLoggedInDriver(browserProfile());
+    }
+
+    /** Starts a new browser with the given profile and signs it in (own session); used by the pools. */
+    public WebDriver newLoggedInDriver(BrowserProfile profile) {
+        WebDriver driver = newBrowser(profile);
+        session.signIn(driver);
+        return driver;
+    }
+
+    /** Starts a new, not signed-in browser with the given profile (e.g. for load.LoadRunner's users). */
+    public WebDriver newBrowser(BrowserProfile profile) {
+        // No implicit wait: pages synchronise through Waits, so absence checks return instantly
+        ChromeOptions options = profile.options();
+        if (PostbackSync.BIDI) {
+            options.enableBiDi();   // event-driven postback detection (PostbackSync)
+        }
+        ChromeDriver chrome = DriverFactory.chrome(options);
+        profile.apply(chrome);
+        RequestInterceptor.install(chrome);     // block / locally serve non-essential requests (NetworkRules)
+        return DriverMetrics.instrument(chrome);
+    }
+
+    private DriverPool pool() {
+        BrowserProfile profile = browserProfile();
+        DriverPool p = POOLS.get(profile);
+        if (p == null) {
+            synchronized (BaseTest.class) {
+                p = POOLS.get(profile);
+                if (p == null) {
+                    if (session == null) {
+                        session = new SessionCache(baseUrl, this::login);
+                    }
+                    DriverPool created = new DriverPool(() -> newLoggedInDriver(profile), BROWSER_CAP,
+                            Duration.ofMinutes(5));
+                    created.reclaimWith(() -> {
+                        for (DriverPool other : POOLS.values()) {
+                            if (other != created && other.closeIdle()) return true;
+                        }
+                        return false;
+                    });
+                    created.keepWarm(WARM_BROWSERS);
+                    POOLS.put(profile, created);
+                    p = created;
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Takes the suite XML's browser.profile parameter, if any, then starts the first browser
+     * (and login) in the background while TestNG prepares the tests.
+     */
+    @BeforeSuite(alwaysRun = true)
+    public void warmUpBrowsers(ITestContext context) {
+        BrowserProfile.setSuiteProfile(context.getSuite().getParameter(BrowserProfile.PROPERTY));
+        pool();
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void acquireDriver(Method method, Object[] params) {
+        DriverMetrics.startTest(DriverMetrics.testId(getClass(), method.getName(), params));
+        getDriver();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseDriver() {
+        DriverPool p = POOLS.get(browserProfile());
+        if (p != null) {
+            p.release();
+        }
+        DriverMetrics.endTest();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        for (DriverPool p : POOLS.values()) {
+            p.quitAll();
         }
+        DriverFactory.stopService();
+        StandInServer.stopSuiteServer();
     }
 }
@@ -0,0 +1,154 @@
+package base;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How browsers are launched: full-fidelity headed Chrome for debugging, or a lean profile for CI.
+ *
+ * Built-in profiles:
+ *   headed  visible, maximized window, everything on (default)
+ *   lean    headless, fixed 1920x1080 viewport, no extensions / GPU / images / animations
+ *
+ * Which profile a test class gets (first match wins):
+ *   1. -Dbrowser.profile=NAME                       whole run
+ *   2. class.<fully.qualified.TestClass>=NAME        in the config file, one class
+ *   3. <parameter name="browser.profile"> in the suite XML
+ *   4. profile=NAME                                  in the config file
+ *   5. headed
+ *
+ * Config file: -Dbrowser.config=path, else browser-profiles.properties on the test classpath
+ * (optional). It can also define or adjust profiles: NAME.headless, NAME.window (WxH or
+ * "maximize"), NAME.extensions, NAME.gpu, NAME.images, NAME.animations (true/false).
+ */
+public class BrowserProfile {
+
+    public static final String PROPERTY = "browser.profile";
+
+    private static final Properties CONFIG = loadConfig();
+    private static final Map<String, BrowserProfile> BY_NAME = new ConcurrentHashMap<>();
+    private static volatile String suiteProfile;
+
+    // Runs before any page script: no CSS transitions/animations, no jQuery effects
+    private static final String NO_ANIMATIONS_JS =
+            "document.addEventListener('DOMContentLoaded', function () {" +
+            "  var s = document.createElement('style');" +
+            "  s.textContent = '*, *::before, *::after { transition: none !important; animation: none !important;" +
+            "    scroll-behavior: auto !important; }';" +
+            "  document.head.appendChild(s);" +
+            "  if (window.jQuery) window.jQuery.fx.off = true;" +
+            "});";
+
+    public final String name;
+    public final boolean headless;
+    public final Dimension window;          // null = maximize
+    public final boolean extensions;
+    public final boolean gpu;
+    public final boolean images;
+    public final boolean animations;
+
+    private BrowserProfile(String name) {
+        boolean lean = name.equals("lean");
+        this.name = name;
+        this.headless = flag(name, "headless", lean);
+        this.window = window(CONFIG.getProperty(name + ".window", lean ? "1920x1080" : "maximize"));
+        this.extensions = flag(name, "extensions", !lean);
+        this.gpu = flag(name, "gpu", !lean);
+        this.images = flag(name, "images", !lean);
+        this.animations = flag(name, "animations", !lean);
+    }
+
+    /** A profile by name (built-in or defined in the config file). */
+    public static BrowserProfile named(String name) {
+        return BY_NAME.computeIfAbsent(name.trim().toLowerCase(), BrowserProfile::new);
+    }
+
+    /** The profile a test class runs with (see class comment for the order of precedence). */
+    public static BrowserProfile forClass(Class<?> testClass) {
+        String name = System.getProperty(PROPERTY);
+        if (name == null) name = CONFIG.getProperty("class." + testClass.getName());
+        if (name == null) name = suiteProfile;
+        if (name == null) name = CONFIG.getProperty("profile", "headed");
+        return named(name);
+    }
+
+    /** Suite-wide default from the suite XML's browser.profile parameter (null = none). */
+    public static void setSuiteProfile(String name) {
+        suiteProfile = name;
+    }
+
+    /** Launch options for this profile. */
+    public ChromeOptions options() {
+        ChromeOptions options = new ChromeOptions();
+        if (headless) options.addArguments("--headless=new");
+        if (window != null) options.addArguments("--window-size=" + window.getWidth() + "," + window.getHeight());
+        if (!extensions) options.addArguments("--disable-extensions");
+        if (!gpu) options.addArguments("--disable-gpu");
+        if (!images) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        if (!animations) options.addArguments("--force-prefers-reduced-motion");
+        return options;
+    }
+
+    /** Settings applied once the browser is up (window, in-page animation switch). */
+    public void apply(WebDriver driver) {
+        if (window == null) {
+            driver.manage().window().maximize();
+        } else if (!headless) {
+            driver.manage().window().setSize(window);
+        }
+        if (!animations && driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.<String, Object>singletonMap("source", NO_ANIMATIONS_JS));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    // ----- Config -----
+
+    private static boolean flag(String profile, String key, boolean fallback) {
+        String v = CONFIG.getProperty(profile + "." + key);
+        return v == null ? fallback : Boolean.parseBoolean(v.trim());
+    }
+
+    private static Dimension window(String spec) {
+        if (spec.trim().equalsIgnoreCase("maximize")) return null;
+        String[] wh = spec.trim().toLowerCase().split("x");
+        if (wh.length != 2) throw new IllegalArgumentException("Window size must be WxH or maximize: " + spec);
+        return new Dimension(Integer.parseInt(wh[0].trim()), Integer.parseInt(wh[1].trim()));
+    }
+
+    private static Properties loadConfig() {
+        Properties p = new Properties();
+        String path = System.getProperty("browser.config");
+        try (InputStream in = path != null
+                ? Files.newInputStream(Paths.get(path))
+                : BrowserProfile.class.getResourceAsStream("/browser-profiles.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read browser profile config " + path, e);
+        }
+        return p;
+    }
+}
@@ -0,0 +1,162 @@
+package base;
+
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.service.DriverFinder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Starts Chrome sessions on one long-lived chromedriver process.
+ *
+ * - Driver binary: -Dwebdriver.chrome.driver if set; otherwise resolved once through Selenium
+ *   Manager and remembered in -Ddriver.cache.dir (default target/driver-cache), so later runs
+ *   start without Selenium Manager and work offline. A cached path that no longer exists is
+ *   resolved again.
+ * - chromedriver: started once and shared by every browser (one process, many sessions);
+ *   quitting a browser leaves it running, stopService() ends it at suite end.
+ */
+public class DriverFactory {
+
+    public static final Path CACHE_DIR = Paths.get(System.getProperty("driver.cache.dir", "target/driver-cache"));
+
+    private static final Path CHROME_PATHS = CACHE_DIR.resolve("chrome.properties");
+
+    private static SharedService service;           // guarded by DriverFactory.class
+    private static Properties binaries;             // driver / browser paths, guarded by DriverFactory.class
+
+    private DriverFactory() { }
+
+    /** A new Chrome session on the shared chromedriver. */
+    public static ChromeDriver chrome(ChromeOptions options) {
+        SharedService s;
+        synchronized (DriverFactory.class) {
+            Properties paths = binaries();
+            String browser = paths.getProperty("browser");
+            if (browser != null) {
+                options.setBinary(browser);     // the Chrome Selenium Manager picked (e.g. a downloaded one)
+            }
+            s = service(paths.getProperty("driver"));
+        }
+        return new ChromeDriver(s, options);
+    }
+
+    /** Stops the shared chromedriver (browsers must be quit first). Safe to call more than once. */
+    public static synchronized void stopService() {
+        if (service != null) {
+            service.shutdown();
+            service = null;
+        }
+    }
+
+    // ----- chromedriver -----
+
+    private static SharedService service(String driverPath) {
+        if (service == null || !service.isRunning()) {
+            try {
+                SharedService s = (SharedService) new SharedService.Builder()
+                        .usingDriverExecutable(new File(driverPath))
+                        .usingAnyFreePort()
+                        .build();
+                s.start();
+                service = s;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start chromedriver " + driverPath, e);
+            }
+        }
+        return service;
+    }
+
+    /** ChromeDriverService that outlives its sessions: ChromeDriver.quit() stops it, we don't let it. */
+    static class SharedService extends ChromeDriverService {
+
+        SharedService(File executable, int port, Duration timeout, List<String> args, Map<String, String> env)
+                throws IOException {
+            super(executable, port, timeout, args, env);
+        }
+
+        @Override
+        public void stop() {
+            // Shared by every browser; see shutdown()
+        }
+
+        @Override
+        public void close() {
+            // Same as stop()
+        }
+
+        void shutdown() {
+            super.stop();
+        }
+
+        static class Builder extends ChromeDriverService.Builder {
+            @Override
+            protected ChromeDriverService createDriverService(File exe, int port, Duration timeout,
+                                                              List<String> args, Map<String, String> env) {
+                try {
+                    return new SharedService(exe, port, timeout, args, env);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    // ----- Binary resolution -----
+
+    private static Properties binaries() {
+        if (binaries != null) return binaries;
+
+        Properties paths = new Properties();
+        String explicit = System.getProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY);
+        if (explicit != null) {
+            paths.setProperty("driver", explicit);
+        } else if (Files.isRegularFile(CHROME_PATHS)) {
+            try (InputStream in = Files.newInputStream(CHROME_PATHS)) {
+                paths.load(in);
+            } catch (IOException e) {
+                paths.clear();
+            }
+        }
+        if (!executable(paths.getProperty("driver"))) {
+            paths = resolve();
+        }
+        binaries = paths;
+        return paths;
+    }
+
+    /** Asks Selenium Manager (downloads if needed) and remembers the answer for later runs. */
+    private static Properties resolve() {
+        DriverFinder finder = new DriverFinder(ChromeDriverService.createDefaultService(), new ChromeOptions());
+        Properties paths = new Properties();
+        paths.setProperty("driver", finder.getDriverPath());
+        if (finder.hasBrowserPath()) {
+            paths.setProperty("browser", finder.getBrowserPath());
+        }
+        try {
+            Files.createDirectories(CACHE_DIR);
+            try (OutputStream out = Files.newOutputStream(CHROME_PATHS)) {
+                paths.store(out, "Resolved by Selenium Manager; delete to resolve again");
+            }
+        } catch (IOException e) {
+            // Cache is an optimisation only
+        }
+        return paths;
+    }
+
+    private static boolean executable(String path) {
+        return path != null && new File(path).canExecute();
+    }
+}
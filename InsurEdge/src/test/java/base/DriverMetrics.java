@@ -0,0 +1,146 @@
+package base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Call-level latency for every WebDriver command.
+ *
+ * instrument() wraps a driver in an EventFiringDecorator with this listener; each command
+ * (driver.get, element.click, executeScript, ...) is timed and recorded under the running test
+ * (set by BaseTest) and the page-object method that issued it. DriverMetricsReporter publishes
+ * the results at the end of the suite. Disable with -Dmetrics.driver=false.
+ */
+public class DriverMetrics implements WebDriverListener {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("metrics.driver", "true"));
+
+    /** Bucket for commands issued outside a test method (suite setup, background threads). */
+    public static final String UNATTRIBUTED = "(unattributed)";
+
+    /** Page-object tag for commands issued directly from test code. */
+    public static final String NO_PAGE = "(test code)";
+
+    // test id -> metrics
+    private static final Map<String, TestMetrics> TESTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+
+    // Start times of in-flight commands on this thread (a stack, in case calls ever nest)
+    private final ThreadLocal<Deque<Long>> inFlight = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<Deque<String>> callers = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /** Per-test latency, by command and by page-object method. */
+    public static class TestMetrics {
+        public final Map<String, LatencyStats> byCommand = new ConcurrentHashMap<>();
+        public final Map<String, LatencyStats> byPageMethod = new ConcurrentHashMap<>();
+
+        void record(String command, String pageMethod, long nanos, boolean error) {
+            byCommand.computeIfAbsent(command, k -> new LatencyStats()).record(nanos, error);
+            byPageMethod.computeIfAbsent(pageMethod, k -> new LatencyStats()).record(nanos, error);
+        }
+    }
+
+    // ----- Wiring -----
+
+    /** Returns the driver wrapped with command timing (or unchanged when disabled). */
+    public static WebDriver instrument(WebDriver driver) {
+        return ENABLED ? new EventFiringDecorator<>(new DriverMetrics()).decorate(driver) : driver;
+    }
+
+    /** Attributes this thread's commands to a test until endTest(). */
+    public static void startTest(String testId) {
+        CURRENT_TEST.set(testId);
+    }
+
+    public static void endTest() {
+        CURRENT_TEST.remove();
+    }
+
+    /** Test this thread's commands are attributed to, or UNATTRIBUTED. */
+    public static String currentTest() {
+        String test = CURRENT_TEST.get();
+        return test == null ? UNATTRIBUTED : test;
+    }
+
+    /** Stable id for one test invocation: Class.method or Class.method(param, ...). */
+    public static String testId(Class<?> testClass, String methodName, Object[] params) {
+        String id = testClass.getSimpleName() + "." + methodName;
+        return params == null || params.length == 0 ? id : id + Arrays.toString(params).replace('[', '(').replace(']', ')');
+    }
+
+    /** Everything recorded so far, keyed by test id. */
+    public static Map<String, TestMetrics> all() {
+        return TESTS;
+    }
+
+    // ----- WebDriverListener -----
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) return;
+        callers.get().push(pageMethod());
+        inFlight.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method, true);
+    }
+
+    private void finish(Object target, Method method, boolean error) {
+        if (method.getDeclaringClass() == Object.class || inFlight.get().isEmpty()) return;
+        long nanos = System.nanoTime() - inFlight.get().pop();
+        String caller = callers.get().pop();
+
+        TESTS.computeIfAbsent(currentTest(), k -> new TestMetrics())
+                .record(commandName(target, method), caller, nanos, error);
+    }
+
+    // ----- Tags -----
+
+    /** e.g. driver.get, element.click, Navigation.to, Options.deleteAllCookies */
+    static String commandName(Object target, Method method) {
+        String kind;
+        if (target instanceof WebDriver) kind = "driver";
+        else if (target instanceof WebElement) kind = "element";
+        else kind = method.getDeclaringClass().getSimpleName();
+        return kind + "." + method.getName();
+    }
+
+    /** Innermost page-object frame on the stack, e.g. AuthorizePolicyPage.selectMainCategory. */
+    private static String pageMethod() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String cls = frame.getClassName();
+            if (!cls.startsWith("pages.")) continue;
+
+            String simple = cls.substring("pages.".length());
+            int inner = simple.indexOf('$');
+            if (inner >= 0) simple = simple.substring(0, inner);
+
+            // lambda$selectMainCategory$0 -> selectMainCategory
+            String name = frame.getMethodName();
+            if (name.startsWith("lambda$")) {
+                name = name.substring("lambda$".length());
+                int end = name.indexOf('$');
+                if (end >= 0) name = name.substring(0, end);
+            }
+            return simple + "." + name;
+        }
+        return NO_PAGE;
+    }
+}
@@ -0,0 +1,185 @@
+package base;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import org.openqa.selenium.json.Json;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Publishes DriverMetrics at the end of the suite, next to TestNG's own reports:
+ *
+ *   driver-metrics.html  Extent (Spark) dashboard: one entry per test with its status and
+ *                        p50/p95/p99/count tables by command and by page-object method,
+ *                        plus a suite-wide totals entry.
+ *   driver-metrics.json  the same numbers (and ms histograms) for CI trend tooling.
+ */
+public class DriverMetricsReporter implements IReporter {
+
+    public static final String HTML_FILE = "driver-metrics.html";
+    public static final String JSON_FILE = "driver-metrics.json";
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        Map<String, DriverMetrics.TestMetrics> metrics = DriverMetrics.all();
+        if (metrics.isEmpty()) return;
+
+        Path dir = Paths.get(outputDirectory);
+        ExtentReports extent = new ExtentReports();
+        ExtentSparkReporter spark = new ExtentSparkReporter(dir.resolve(HTML_FILE).toString());
+        spark.config().setDocumentTitle("InsurEdge - WebDriver call latency");
+        spark.config().setReportName("WebDriver call latency");
+        extent.attachReporter(spark);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        List<Object> tests = new ArrayList<>();
+
+        for (ITestResult result : results(suites)) {
+            String id = DriverMetrics.testId(result.getTestClass().getRealClass(),
+                    result.getMethod().getMethodName(), result.getParameters());
+            DriverMetrics.TestMetrics m = metrics.get(id);
+            if (m == null) continue;
+
+            ExtentTest test = extent.createTest(id)
+                    .assignCategory(result.getTestClass().getRealClass().getSimpleName());
+            test.getModel().setStartTime(new Date(result.getStartMillis()));
+            test.getModel().setEndTime(new Date(result.getEndMillis()));
+            addTables(test, m);
+            test.log(status(result), "Test " + statusName(result));
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("test", id);
+            entry.put("status", statusName(result));
+            entry.put("durationMs", result.getEndMillis() - result.getStartMillis());
+            entry.put("commands", toJson(m.byCommand));
+            entry.put("pageMethods", toJson(m.byPageMethod));
+            tests.add(entry);
+        }
+
+        DriverMetrics.TestMetrics totals = totals(metrics);
+        ExtentTest suite = extent.createTest("Suite totals").assignCategory("Suite");
+        addTables(suite, totals);
+        suite.pass("All tests, including commands outside test methods");
+        extent.flush();
+
+        json.put("suite", toJson(totals.byCommand));
+        json.put("suitePageMethods", toJson(totals.byPageMethod));
+        json.put("tests", tests);
+        try {
+            Files.write(dir.resolve(JSON_FILE), new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed writing " + JSON_FILE + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ----- Helpers -----
+
+    static List<ITestResult> results(List<ISuite> suites) {
+        List<ITestResult> all = new ArrayList<>();
+        for (ISuite suite : suites) {
+            for (ISuiteResult sr : suite.getResults().values()) {
+                ITestContext ctx = sr.getTestContext();
+                all.addAll(ctx.getPassedTests().getAllResults());
+                all.addAll(ctx.getFailedTests().getAllResults());
+                all.addAll(ctx.getFailedButWithinSuccessPercentageTests().getAllResults());
+                all.addAll(ctx.getSkippedTests().getAllResults());
+            }
+        }
+        all.sort(Comparator.comparingLong(ITestResult::getStartMillis));
+        return all;
+    }
+
+    private static DriverMetrics.TestMetrics totals(Map<String, DriverMetrics.TestMetrics> metrics) {
+        DriverMetrics.TestMetrics totals = new DriverMetrics.TestMetrics();
+        for (DriverMetrics.TestMetrics m : metrics.values()) {
+            merge(totals.byCommand, m.byCommand);
+            merge(totals.byPageMethod, m.byPageMethod);
+        }
+        return totals;
+    }
+
+    private static void merge(Map<String, LatencyStats> into, Map<String, LatencyStats> from) {
+        for (Map.Entry<String, LatencyStats> e : from.entrySet()) {
+            into.computeIfAbsent(e.getKey(), k -> new LatencyStats()).addAll(e.getValue());
+        }
+    }
+
+    private static void addTables(ExtentTest test, DriverMetrics.TestMetrics m) {
+        test.info(MarkupHelper.createTable(table("Command", m.byCommand)));
+        test.info(MarkupHelper.createTable(table("Page-object method", m.byPageMethod)));
+    }
+
+    /** Header row + one row per key, slowest total first. */
+    private static String[][] table(String keyHeader, Map<String, LatencyStats> stats) {
+        List<Map.Entry<String, LatencyStats>> rows = new ArrayList<>(stats.entrySet());
+        rows.sort((a, b) -> Double.compare(b.getValue().totalMs(), a.getValue().totalMs()));
+
+        String[][] cells = new String[rows.size() + 1][];
+        cells[0] = new String[]{keyHeader, "Calls", "Errors", "p50 ms", "p95 ms", "p99 ms", "Max ms", "Total ms"};
+        for (int i = 0; i < rows.size(); i++) {
+            LatencyStats s = rows.get(i).getValue();
+            cells[i + 1] = new String[]{rows.get(i).getKey(), String.valueOf(s.count()), String.valueOf(s.errors()),
+                    ms(s.percentileMs(50)), ms(s.percentileMs(95)), ms(s.percentileMs(99)), ms(s.maxMs()),
+                    ms(s.totalMs())};
+        }
+        return cells;
+    }
+
+    static Map<String, Object> toJson(Map<String, LatencyStats> stats) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyStats> e : new TreeMap<>(stats).entrySet()) {
+            LatencyStats s = e.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", s.count());
+            row.put("errors", s.errors());
+            row.put("p50Ms", round(s.percentileMs(50)));
+            row.put("p95Ms", round(s.percentileMs(95)));
+            row.put("p99Ms", round(s.percentileMs(99)));
+            row.put("maxMs", round(s.maxMs()));
+            row.put("totalMs", round(s.totalMs()));
+            row.put("histogramMs", s.histogram());
+            out.put(e.getKey(), row);
+        }
+        return out;
+    }
+
+    private static Status status(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS: return Status.PASS;
+            case ITestResult.SKIP:    return Status.SKIP;
+            default:                  return Status.FAIL;
+        }
+    }
+
+    static String statusName(ITestResult result) {
+        return status(result).toString().toLowerCase();
+    }
+
+    private static String ms(double v) {
+        return String.format("%.1f", v);
+    }
+
+    static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}
@@ -0,0 +1,242 @@
+package base;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe pool of WebDriver sessions.
+ *
+ * Each thread leases one driver at a time (bound via ThreadLocal), so parallel="classes",
+ * parallel="methods" and parallel data providers never share a browser. Released drivers go
+ * back to an idle queue and are reused by the next thread, and at most maxDrivers browsers
+ * are ever open at once.
+ *
+ * Pools can share one cap (a Semaphore of browsers that may still be opened, see cap()). A pool
+ * at the shared cap waits for its own browsers to come back or for a permit to be freed, and
+ * asks reclaimWith()'s callback to close an idle browser of another pool.
+ *
+ * With keepWarm(n), up to n spare browsers are started on background threads ahead of demand
+ * (within the same cap), so a thread that needs a browser usually finds a ready, logged-in one
+ * instead of paying for a cold start.
+ */
+public class DriverPool {
+
+    private final Supplier<WebDriver> factory;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private volatile BooleanSupplier reclaim = () -> false;
+
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private final Set<WebDriver> all = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<WebDriver> current = new ThreadLocal<>();
+
+    private final AtomicInteger warming = new AtomicInteger();    // background starts in flight
+    private volatile int spares;
+    private ExecutorService warmer;                               // created by keepWarm(), guarded by this
+
+    public DriverPool(Supplier<WebDriver> factory, int maxDrivers, Duration acquireTimeout) {
+        this(factory, cap(maxDrivers), acquireTimeout);
+    }
+
+    /** A pool opening browsers against a cap that other pools may share (see cap()). */
+    public DriverPool(Supplier<WebDriver> factory, Semaphore cap, Duration acquireTimeout) {
+        this.factory = factory;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = cap;
+    }
+
+    /** A cap of at most maxDrivers open browsers, to share between pools. */
+    public static Semaphore cap(int maxDrivers) {
+        if (maxDrivers < 1) {
+            throw new IllegalArgumentException("maxDrivers must be >= 1 but was " + maxDrivers);
+        }
+        return new Semaphore(maxDrivers);
+    }
+
+    /** Returns the driver leased by the current thread, leasing (or creating) one if needed. */
+    public WebDriver acquire() {
+        WebDriver driver = current.get();
+        if (driver != null) return driver;
+
+        driver = idle.poll();
+        if (driver == null && warming.get() > 0) {
+            // A browser is already starting in the background; it is closer than a new one
+            driver = awaitWarming();
+        }
+        if (driver == null) {
+            driver = permits.tryAcquire() ? create() : awaitFree();
+        }
+
+        current.set(driver);
+        topUp();
+        return driver;
+    }
+
+    /**
+     * Called when this pool is at a shared cap; it should close an idle browser of another pool
+     * (returning its permit) and return true, or return false if there is none.
+     */
+    public void reclaimWith(BooleanSupplier reclaim) {
+        this.reclaim = reclaim;
+    }
+
+    /** Quits one idle browser, freeing its place under the cap; false if none is idle. */
+    public boolean closeIdle() {
+        WebDriver driver = idle.poll();
+        if (driver == null) return false;
+        quit(driver);
+        return true;
+    }
+
+    /** Keeps up to 'spares' idle browsers started ahead of demand (0 = start on demand only). */
+    public void keepWarm(int spares) {
+        this.spares = spares;
+        topUp();
+    }
+
+    /** Returns the driver leased by the current thread, or null if it holds none. */
+    public WebDriver current() {
+        return current.get();
+    }
+
+    /** Hands the current thread's driver back to the pool for reuse by other threads. */
+    public void release() {
+        WebDriver driver = current.get();
+        if (driver == null) return;
+        current.remove();
+        idle.offer(driver);
+    }
+
+    /** Quits the current thread's driver instead of reusing it (e.g. after the session died). */
+    public void discard() {
+        WebDriver driver = current.get();
+        if (driver == null) return;
+        current.remove();
+        quit(driver);
+    }
+
+    /** Quits every browser this pool has opened. Safe to call more than once. */
+    public void quitAll() {
+        spares = 0;
+        ExecutorService starting;
+        synchronized (this) {
+            starting = warmer;
+        }
+        if (starting != null) {
+            starting.shutdown();
+            try {
+                starting.awaitTermination(1, TimeUnit.MINUTES);   // don't leak a browser still starting
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        idle.clear();
+        List<WebDriver> open = new ArrayList<>(all);
+        for (WebDriver driver : open) {
+            quit(driver);
+        }
+    }
+
+    /** Number of browsers currently open (leased + idle). */
+    public int size() {
+        return all.size();
+    }
+
+    private WebDriver create() {
+        try {
+            WebDriver driver = factory.get();
+            all.add(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** Starts background browsers until 'spares' are idle or starting (never beyond the cap). */
+    private synchronized void topUp() {
+        while (idle.size() + warming.get() < spares && permits.tryAcquire()) {
+            if (warmer == null || warmer.isShutdown()) {
+                warmer = Executors.newCachedThreadPool(r -> {
+                    Thread t = new Thread(r, "browser-warmup");
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            warming.incrementAndGet();
+            warmer.execute(() -> {
+                boolean started = false;
+                try {
+                    idle.offer(create());
+                    started = true;
+                } catch (RuntimeException e) {
+                    // Permit already returned; the next acquire() starts one on demand and reports the error
+                } finally {
+                    warming.decrementAndGet();
+                }
+                // A lease may have raced this start (it saw it still "warming"): refill for that one
+                if (started && spares > 0) topUp();
+            });
+        }
+    }
+
+    /** Cap reached: waits for another thread to hand a browser back, or for a permit to free up. */
+    private WebDriver awaitFree() {
+        long deadline = System.nanoTime() + acquireTimeout.toNanos();
+        try {
+            while (true) {
+                WebDriver driver = idle.poll(100, TimeUnit.MILLISECONDS);
+                if (driver != null) return driver;
+                // A discarded browser, or another pool's idle one closed for this pool
+                if (permits.tryAcquire() || (reclaim.getAsBoolean() && permits.tryAcquire())) return create();
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("No browser became free within " + acquireTimeout
+                            + " (" + all.size() + " open in this pool)");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free browser", e);
+        }
+    }
+
+    /** Waits for a background start to land in the idle queue; null if none is pending any more. */
+    private WebDriver awaitWarming() {
+        try {
+            while (true) {
+                WebDriver driver = idle.poll(100, TimeUnit.MILLISECONDS);
+                if (driver != null || warming.get() == 0) return driver != null ? driver : idle.poll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser to start", e);
+        }
+    }
+
+    private void quit(WebDriver driver) {
+        if (!all.remove(driver)) return;
+        PostbackSync.release(driver);
+        RequestInterceptor.release(driver);
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // Browser already gone — nothing to clean up
+        } finally {
+            permits.release();
+        }
+    }
+}
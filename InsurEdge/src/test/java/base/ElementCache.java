@@ -0,0 +1,76 @@
+package base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Page-scoped cache of resolved WebElement handles, so repeated use of the same locator costs
+ * no extra findElement round trip.
+ *
+ * Handles are dropped when:
+ * - the document changes (navigation, postback or partial update seen by PostbackSync), and
+ * - a use fails with StaleElementReferenceException (read/act re-find once and retry).
+ *
+ * One instance per page object; page objects are per thread, so this is not synchronised.
+ */
+public class ElementCache {
+
+    private final Waits waits;
+    private final PostbackSync document;
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private long generation;
+
+    public ElementCache(Waits waits) {
+        this.waits = waits;
+        this.document = PostbackSync.of(waits.driver);
+        this.generation = document.generation();
+    }
+
+    /** Cached handle, or waits for presence (page profile timeout) and caches it. */
+    public WebElement get(By locator) {
+        sync();
+        WebElement element = elements.get(locator);
+        if (element == null) {
+            element = waits.present(locator);
+            elements.put(locator, element);
+        }
+        return element;
+    }
+
+    /** Applies a read to the element, re-finding it once if the cached handle went stale. */
+    public <T> T read(By locator, Function<WebElement, T> read) {
+        try {
+            return read.apply(get(locator));
+        } catch (StaleElementReferenceException e) {
+            elements.remove(locator);
+            return read.apply(get(locator));
+        }
+    }
+
+    /** Performs an action on the element, re-finding it once if the cached handle went stale. */
+    public void act(By locator, Consumer<WebElement> action) {
+        read(locator, e -> {
+            action.accept(e);
+            return null;
+        });
+    }
+
+    /** Drops every handle (e.g. after a client-side re-render the cache cannot see). */
+    public void invalidate() {
+        elements.clear();
+    }
+
+    private void sync() {
+        long current = document.generation();
+        if (current != generation) {
+            elements.clear();
+            generation = current;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package base;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency samples for one metric (e.g. one WebDriver command): count, errors, exact percentiles
+ * and a power-of-two millisecond histogram. Thread-safe; samples are kept in a growable array
+ * since a UI suite records thousands of calls, not millions.
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[64];   // nanos
+    private int count;
+    private int errors;
+    private long totalNanos;
+
+    public synchronized void record(long nanos, boolean error) {
+        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+        samples[count++] = nanos;
+        totalNanos += nanos;
+        if (error) errors++;
+    }
+
+    /** Adds every sample of another instance (used for suite-wide totals). */
+    public void addAll(LatencyStats other) {
+        long[] theirs;
+        int theirErrors;
+        synchronized (other) {
+            theirs = Arrays.copyOf(other.samples, other.count);
+            theirErrors = other.errors;
+        }
+        synchronized (this) {
+            for (long n : theirs) record(n, false);
+            errors += theirErrors;
+        }
+    }
+
+    public synchronized int count()  { return count; }
+    public synchronized int errors() { return errors; }
+
+    public synchronized double totalMs() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    /** Nearest-rank percentile in milliseconds (p in 0..100); 0 when empty. */
+    public synchronized double percentileMs(double p) {
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)] / 1_000_000.0;
+    }
+
+    public double maxMs() {
+        return percentileMs(100);
+    }
+
+    /** Bucket upper bound in ms ("1", "2", "4", ... ">4096") -> sample count; empty buckets omitted. */
+    public synchronized Map<String, Integer> histogram() {
+        int[] buckets = new int[14];
+        for (int i = 0; i < count; i++) {
+            long ms = samples[i] / 1_000_000;
+            int b = 0;
+            while (b < buckets.length - 1 && ms >= (1L << b)) b++;
+            buckets[b]++;
+        }
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int b = 0; b < buckets.length; b++) {
+            if (buckets[b] == 0) continue;
+            out.put(b == buckets.length - 1 ? ">" + (1L << (b - 1)) : String.valueOf(1L << b), buckets[b]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,35 @@
+package base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the page a test starts on, for PageScheduler. The state needed is always the page
+ * as PageState.ensure() leaves it: freshly rendered, at its defaults (blank Create Policy form,
+ * Authorize with default filters on page 1).
+ *
+ * On a class it applies to every test method; a method-level annotation overrides it. Tests
+ * that only read the page (or don't drive the browser at all) declare leaves = UNTOUCHED, so
+ * the next test on the same page can start without a reload.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface NeedsPage {
+
+    /** What a test leaves in the browser when it ends. */
+    enum Leaves {
+        /** Still the clean page it started on (no input, no postback). */
+        UNTOUCHED,
+        /** The same page, edited or posted back; the next test reloads it. */
+        CHANGED,
+        /** Some other page or an unknown state. */
+        ELSEWHERE
+    }
+
+    /** PageState name of the page (e.g. CreatePolicyTests.PAGE). */
+    String value();
+
+    Leaves leaves() default Leaves.CHANGED;
+}
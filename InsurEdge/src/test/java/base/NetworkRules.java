@@ -0,0 +1,124 @@
+package base;
+
+import org.openqa.selenium.bidi.network.UrlPattern;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Which browser requests RequestInterceptor blocks, serves from the local asset cache, or lets through.
+ *
+ * Rules are regular expressions over the full URL, read from -Dnetwork.rules=path or else
+ * network-rules.properties on the test classpath:
+ *
+ *   block.<name>=<regex>   fail the request (analytics, fonts, images, ...)
+ *   cache.<name>=<regex>   versioned static asset: fetched once, then served from disk
+ *   scope=<url> <url> ...  the only requests the browser pauses for the rules, as host,
+ *                          host/path or /path (any host), e.g. cdn.jsdelivr.net or
+ *                          /ScriptResource.axd; without it every request is paused
+ *
+ * Block rules win over cache rules; anything unmatched goes to the server as usual.
+ * Without a rules file nothing is intercepted.
+ */
+public class NetworkRules {
+
+    public enum Action { BLOCK, CACHE, PASS }
+
+    /** A rule's verdict for one URL. */
+    public static class Decision {
+        public final Action action;
+        public final String rule;      // e.g. "block.fonts"; null for PASS
+
+        Decision(Action action, String rule) {
+            this.action = action;
+            this.rule = rule;
+        }
+    }
+
+    private static final Decision PASS = new Decision(Action.PASS, null);
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final List<Action> actions = new ArrayList<>();
+    private final List<UrlPattern> scope = new ArrayList<>();
+
+    private NetworkRules(Properties p) {
+        // Block rules first (they win), each group in name order for predictable matching
+        for (String prefix : new String[] {"block.", "cache."}) {
+            for (String key : new TreeSet<>(p.stringPropertyNames())) {
+                if (!key.startsWith(prefix)) continue;
+                String regex = p.getProperty(key).trim();
+                if (regex.isEmpty()) continue;
+                names.add(key);
+                patterns.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+                actions.add(prefix.equals("block.") ? Action.BLOCK : Action.CACHE);
+            }
+        }
+        for (String url : p.getProperty("scope", "").trim().split("\\s+")) {
+            if (!url.isEmpty()) scope.add(urlPattern(url));
+        }
+    }
+
+    /** "host", "host/path" or "/path" as a BiDi URL pattern (omitted parts match anything). */
+    static UrlPattern urlPattern(String url) {
+        String rest = url;
+        UrlPattern pattern = new UrlPattern();
+        int scheme = rest.indexOf("://");
+        if (scheme >= 0) {
+            pattern.protocol(rest.substring(0, scheme));
+            rest = rest.substring(scheme + 3);
+        }
+        int slash = rest.indexOf('/');
+        String host = slash < 0 ? rest : rest.substring(0, slash);
+        if (!host.isEmpty()) pattern.hostname(host);
+        if (slash >= 0 && slash < rest.length() - 1) pattern.pathname(rest.substring(slash));
+        return pattern;
+    }
+
+    /** Rules from -Dnetwork.rules or the classpath file (empty if neither exists). */
+    public static NetworkRules load() {
+        Properties p = new Properties();
+        String path = System.getProperty("network.rules");
+        try (InputStream in = path != null
+                ? Files.newInputStream(Paths.get(path))
+                : NetworkRules.class.getResourceAsStream("/network-rules.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read network rules " + path, e);
+        }
+        return new NetworkRules(p);
+    }
+
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /** URL patterns to intercept (empty = every request). */
+    public List<UrlPattern> scope() {
+        return Collections.unmodifiableList(scope);
+    }
+
+    /** Rule names in matching order. */
+    public List<String> names() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /** First matching rule's action, or PASS. */
+    public Decision decide(String url) {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matcher(url).matches()) {
+                return new Decision(actions.get(i), names.get(i));
+            }
+        }
+        return PASS;
+    }
+}
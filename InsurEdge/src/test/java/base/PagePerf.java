@@ -0,0 +1,370 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Front-end timings of page transitions and postbacks, recorded under the running test.
+ *
+ * Usage: mark() right before the action, record(step) once the page (or partial update) is
+ * ready. Waits.postback/select, PageState.ensure and the login do this for the page objects,
+ * with steps such as "Authorize.search", "Authorize.mainCategory", "AuthorizePolicy.load".
+ *
+ * Each sample holds:
+ *   - wall time from the action to "ready", as the test sees it (the step's latency);
+ *   - Navigation Timing of a new document (first byte, DOMContentLoaded, load), or, for a
+ *     partial UpdatePanel postback, the async request's time to first byte;
+ *   - Resource Timing since the mark (count, bytes, slowest resource);
+ *   - CDP Performance.getMetrics deltas (script, layout, style, task time) and DOM node count.
+ *
+ * Samples are logged to the test's TestNG output and published by PagePerfReporter. Tests
+ * assert with assertPercentile(step, p, ms) or assertThresholds(step), which reads limits such
+ * as "Authorize.search.p95=800" from -Dperf.thresholds=path or perf-thresholds.properties on the
+ * test classpath (-Dperf.Authorize.search.p95=... overrides one).
+ *
+ * Capturing costs a few script/CDP round trips per step, so it is off by default and only runs
+ * inside tests in the "perf" group (the perf gate); -Dperf.capture=true turns it on everywhere.
+ */
+public class PagePerf {
+
+    /** Test group whose tests capture even without -Dperf.capture=true. */
+    public static final String GROUP = "perf";
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("perf.capture", "false"));
+
+    private static final Properties THRESHOLDS = loadThresholds();
+
+    // test id -> samples, step -> suite-wide latency
+    private static final Map<String, TestPerf> TESTS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyStats> SUITE = new ConcurrentHashMap<>();
+
+    // Drivers with the CDP Performance domain enabled (false = no CDP, don't retry)
+    private static final Map<WebDriver, Boolean> CDP = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // CDP metrics reported as deltas (seconds of main-thread time) and as-is
+    private static final String[] CDP_DURATIONS = {"TaskDuration", "ScriptDuration", "LayoutDuration", "RecalcStyleDuration"};
+    private static final String[] CDP_GAUGES = {"Nodes", "JSHeapUsedSize"};
+
+    // Tags the document and returns its clock; entries after it belong to the coming step
+    private static final String MARK_JS =
+            "window.__perfMark = arguments[0];" +
+            "if (performance.setResourceTimingBufferSize) performance.setResourceTimingBufferSize(1000);" +
+            "return performance.now();";
+
+    // Same document: resources since the mark, the async postback's first byte from its XHR.
+    // New document: its navigation entry (all times relative to navigation start) and resources.
+    private static final String CAPTURE_JS =
+            "var same = window.__perfMark === arguments[0], since = same ? arguments[1] : 0;" +
+            "var out = {document: !same, resources: 0, transferBytes: 0, slowest: null, slowestMs: 0};" +
+            "if (!same) {" +
+            "  var n = performance.getEntriesByType('navigation')[0];" +
+            "  if (n) {" +
+            "    out.ttfbMs = n.responseStart - n.startTime;" +
+            "    out.domContentLoadedMs = n.domContentLoadedEventEnd > 0 ? n.domContentLoadedEventEnd - n.startTime : null;" +
+            "    out.loadMs = n.loadEventEnd > 0 ? n.loadEventEnd - n.startTime : null;" +
+            "    out.transferBytes += n.transferSize || 0;" +
+            "  }" +
+            "}" +
+            "var rs = performance.getEntriesByType('resource');" +
+            "for (var i = 0; i < rs.length; i++) {" +
+            "  var r = rs[i];" +
+            "  if (r.startTime < since) continue;" +
+            "  out.resources++;" +
+            "  out.transferBytes += r.transferSize || 0;" +
+            "  var d = r.responseEnd - r.startTime;" +
+            "  if (d > out.slowestMs) { out.slowestMs = d; out.slowest = r.name; }" +
+            "  if (same && out.ttfbMs == null && r.initiatorType === 'xmlhttprequest') out.ttfbMs = r.responseStart - r.startTime;" +
+            "}" +
+            "return out;";
+
+    private PagePerf() { }
+
+    // ----- Capture -----
+
+    /** Starts measuring a step on this driver; call right before the action. */
+    public static Mark mark(WebDriver driver) {
+        if (!capturing()) return Mark.NONE;
+        Map<String, Double> cdp = cdpMetrics(driver);
+        String token = Long.toString(System.nanoTime(), 36);
+        double pageNow;
+        try {
+            pageNow = ((Number) ((JavascriptExecutor) driver).executeScript(MARK_JS, token)).doubleValue();
+        } catch (WebDriverException | ClassCastException | NullPointerException e) {
+            pageNow = -1;    // no document yet (about:blank, mid-navigation): browser-side numbers only for a new one
+        }
+        return new Mark(driver, token, pageNow, cdp);
+    }
+
+    /** Whether steps are measured now: -Dperf.capture=true, or the running test is in the perf group. */
+    public static boolean capturing() {
+        if (ENABLED) return true;
+        ITestResult test = Reporter.getCurrentTestResult();
+        return test != null && Arrays.asList(test.getMethod().getGroups()).contains(GROUP);
+    }
+
+    /** One step being measured. */
+    public static class Mark {
+        static final Mark NONE = new Mark(null, null, 0, null);
+
+        private final WebDriver driver;
+        private final String token;
+        private final double pageNow;
+        private final Map<String, Double> cdpBefore;
+        private final long startNanos = System.nanoTime();
+
+        Mark(WebDriver driver, String token, double pageNow, Map<String, Double> cdpBefore) {
+            this.driver = driver;
+            this.token = token;
+            this.pageNow = pageNow;
+            this.cdpBefore = cdpBefore;
+        }
+
+        /** Ends the step (the page is ready) and records it under the running test; null when disabled. */
+        public Sample record(String step) {
+            if (driver == null) return null;
+            long nanos = System.nanoTime() - startNanos;
+            Sample s = new Sample(step, nanos / 1_000_000.0);
+            capturePage(s);
+            captureCdp(s);
+            add(s, nanos);
+            return s;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void capturePage(Sample s) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeScript(CAPTURE_JS, token, Math.max(0, pageNow));
+                if (!(result instanceof Map)) return;
+                Map<String, Object> m = (Map<String, Object>) result;
+                s.newDocument = Boolean.TRUE.equals(m.get("document"));
+                s.ttfbMs = number(m.get("ttfbMs"));
+                s.domContentLoadedMs = number(m.get("domContentLoadedMs"));
+                s.loadMs = number(m.get("loadMs"));
+                s.resources = (int) orZero(number(m.get("resources")));
+                s.transferBytes = (long) orZero(number(m.get("transferBytes")));
+                s.slowestResource = (String) m.get("slowest");
+                s.slowestResourceMs = orZero(number(m.get("slowestMs")));
+            } catch (WebDriverException e) {
+                // Page went away in between; the wall time still counts
+            }
+        }
+
+        private void captureCdp(Sample s) {
+            if (cdpBefore == null) return;
+            Map<String, Double> after = cdpMetrics(driver);
+            if (after == null) return;
+            for (String name : CDP_DURATIONS) {
+                Double a = after.get(name);
+                if (a == null) continue;
+                double before = cdpBefore.getOrDefault(name, 0.0);
+                // Counters restart with a new renderer; then everything since is the step's
+                s.cdp.put(name + "Ms", (a >= before ? a - before : a) * 1000);
+            }
+            for (String name : CDP_GAUGES) {
+                if (after.containsKey(name)) s.cdp.put(name, after.get(name));
+            }
+        }
+    }
+
+    /** What one step cost. Browser-side fields are null when the browser couldn't tell. */
+    public static class Sample {
+        public final String step;
+        public final double wallMs;
+        public boolean newDocument;             // full load / postback rather than a partial update
+        public Double ttfbMs;                   // request to first response byte
+        public Double domContentLoadedMs;       // new document only, from navigation start
+        public Double loadMs;                   // new document only, null if not reached yet
+        public int resources;
+        public long transferBytes;
+        public String slowestResource;
+        public double slowestResourceMs;
+        public final Map<String, Double> cdp = new LinkedHashMap<>();
+
+        Sample(String step, double wallMs) {
+            this.step = step;
+            this.wallMs = wallMs;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("step", step);
+            m.put("wallMs", round(wallMs));
+            m.put("newDocument", newDocument);
+            m.put("ttfbMs", ttfbMs == null ? null : round(ttfbMs));
+            m.put("domContentLoadedMs", domContentLoadedMs == null ? null : round(domContentLoadedMs));
+            m.put("loadMs", loadMs == null ? null : round(loadMs));
+            m.put("resources", resources);
+            m.put("transferBytes", transferBytes);
+            m.put("slowestResource", slowestResource);
+            m.put("slowestResourceMs", round(slowestResourceMs));
+            Map<String, Object> cdpOut = new LinkedHashMap<>();
+            for (Map.Entry<String, Double> e : cdp.entrySet()) cdpOut.put(e.getKey(), round(e.getValue()));
+            m.put("cdp", cdpOut);
+            return m;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("perf ").append(step).append(' ')
+                    .append(String.format("%.0f ms", wallMs))
+                    .append(newDocument ? " (page load" : " (partial update");
+            if (ttfbMs != null) sb.append(String.format(", first byte %.0f ms", ttfbMs));
+            if (domContentLoadedMs != null) sb.append(String.format(", DOMContentLoaded %.0f ms", domContentLoadedMs));
+            sb.append(String.format(", %d resources, %.1f KB", resources, transferBytes / 1024.0));
+            for (Map.Entry<String, Double> e : cdp.entrySet()) {
+                sb.append(", ").append(e.getKey()).append(' ').append(String.format("%.0f", e.getValue()));
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    /** Samples of one test, in order, plus wall-time stats per step. */
+    public static class TestPerf {
+        public final List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+        public final Map<String, LatencyStats> bySteps = new ConcurrentHashMap<>();
+    }
+
+    // ----- Results -----
+
+    /** Everything recorded so far, keyed by test id (DriverMetrics.testId). */
+    public static Map<String, TestPerf> all() {
+        return TESTS;
+    }
+
+    /** Suite-wide wall-time stats per step. */
+    public static Map<String, LatencyStats> suite() {
+        return SUITE;
+    }
+
+    /** Wall-time stats of a step in the running test (empty if it never ran). */
+    public static LatencyStats currentTest(String step) {
+        TestPerf t = TESTS.get(DriverMetrics.currentTest());
+        LatencyStats s = t == null ? null : t.bySteps.get(step);
+        return s == null ? new LatencyStats() : s;
+    }
+
+    // ----- Assertions -----
+
+    /** Fails the test unless the step ran in it and its p-th percentile wall time is within maxMs. */
+    public static void assertPercentile(String step, double p, double maxMs) {
+        LatencyStats s = currentTest(step);
+        Assert.assertTrue(s.count() > 0, "No performance samples for " + step + " in this test");
+        double actual = s.percentileMs(p);
+        Assert.assertTrue(actual <= maxMs, String.format("%s p%s = %.0f ms over %d samples, threshold %.0f ms",
+                step, fmt(p), actual, s.count(), maxMs));
+    }
+
+    /** Checks every configured threshold of a step (e.g. Authorize.search.p95) against this test's samples. */
+    public static void assertThresholds(String step) {
+        Map<Double, Double> limits = thresholds(step);
+        Assert.assertFalse(limits.isEmpty(), "No performance thresholds configured for " + step);
+        for (Map.Entry<Double, Double> e : limits.entrySet()) {
+            assertPercentile(step, e.getKey(), e.getValue());
+        }
+    }
+
+    /** Percentile -> max ms configured for a step, from the thresholds file and -Dperf.&lt;step&gt;.pN. */
+    public static Map<Double, Double> thresholds(String step) {
+        Map<Double, Double> out = new LinkedHashMap<>();
+        String prefix = step + ".p";
+        for (String key : THRESHOLDS.stringPropertyNames()) {
+            if (key.startsWith(prefix)) put(out, key.substring(prefix.length()), THRESHOLDS.getProperty(key));
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("perf." + prefix)) put(out, key.substring(("perf." + prefix).length()), System.getProperty(key));
+        }
+        return out;
+    }
+
+    // ----- Internals -----
+
+    private static void add(Sample s, long nanos) {
+        TestPerf test = TESTS.computeIfAbsent(DriverMetrics.currentTest(), k -> new TestPerf());
+        test.samples.add(s);
+        test.bySteps.computeIfAbsent(s.step, k -> new LatencyStats()).record(nanos, false);
+        SUITE.computeIfAbsent(s.step, k -> new LatencyStats()).record(nanos, false);
+        Reporter.log(s.toString());
+    }
+
+    /** Current CDP Performance metrics by name; null without CDP. Enables the domain on first use. */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> cdpMetrics(WebDriver driver) {
+        if (!(driver instanceof HasCdp) || Boolean.FALSE.equals(CDP.get(driver))) return null;
+        HasCdp cdp = (HasCdp) driver;
+        try {
+            if (CDP.get(driver) == null) {
+                cdp.executeCdpCommand("Performance.enable", Collections.<String, Object>emptyMap());
+                CDP.put(driver, true);
+            }
+            Object metrics = cdp.executeCdpCommand("Performance.getMetrics", Collections.<String, Object>emptyMap()).get("metrics");
+            Map<String, Double> out = new LinkedHashMap<>();
+            if (metrics instanceof List) {
+                for (Object o : (List<Object>) metrics) {
+                    Map<String, Object> m = (Map<String, Object>) o;
+                    out.put(String.valueOf(m.get("name")), ((Number) m.get("value")).doubleValue());
+                }
+            }
+            return out;
+        } catch (WebDriverException e) {
+            CDP.put(driver, false);
+            return null;
+        }
+    }
+
+    private static void put(Map<Double, Double> out, String percentile, String ms) {
+        try {
+            out.put(Double.parseDouble(percentile), Double.parseDouble(ms.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad performance threshold p" + percentile + "=" + ms, e);
+        }
+    }
+
+    private static Properties loadThresholds() {
+        Properties p = new Properties();
+        String path = System.getProperty("perf.thresholds");
+        try (InputStream in = path != null
+                ? Files.newInputStream(Paths.get(path))
+                : PagePerf.class.getResourceAsStream("/perf-thresholds.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance thresholds " + path, e);
+        }
+        return p;
+    }
+
+    private static Double number(Object o) {
+        return o instanceof Number ? ((Number) o).doubleValue() : null;
+    }
+
+    private static double orZero(Double d) {
+        return d == null ? 0 : d;
+    }
+
+    private static String fmt(double p) {
+        return p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}
@@ -0,0 +1,65 @@
+package base;
+
+import org.openqa.selenium.json.Json;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes PagePerf at the end of the suite as page-performance.json, next to TestNG's reports:
+ * suite-wide wall-time percentiles per step (Authorize.search, AuthorizePolicy.load, ...) and,
+ * per test, every sample with its Navigation/Resource Timing and CDP numbers, for CI trend tooling.
+ */
+public class PagePerfReporter implements IReporter {
+
+    public static final String JSON_FILE = "page-performance.json";
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        Map<String, PagePerf.TestPerf> perf = PagePerf.all();
+        if (perf.isEmpty()) return;
+
+        List<Object> tests = new ArrayList<>();
+        for (ITestResult result : DriverMetricsReporter.results(suites)) {
+            String id = DriverMetrics.testId(result.getTestClass().getRealClass(),
+                    result.getMethod().getMethodName(), result.getParameters());
+            PagePerf.TestPerf p = perf.get(id);
+            if (p != null) tests.add(entry(id, DriverMetricsReporter.statusName(result), p));
+        }
+        PagePerf.TestPerf outside = perf.get(DriverMetrics.UNATTRIBUTED);
+        if (outside != null) tests.add(entry(DriverMetrics.UNATTRIBUTED, null, outside));
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("steps", DriverMetricsReporter.toJson(PagePerf.suite()));
+        json.put("tests", tests);
+        try {
+            Files.write(Paths.get(outputDirectory).resolve(JSON_FILE),
+                    new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed writing " + JSON_FILE + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Object> entry(String id, String status, PagePerf.TestPerf p) {
+        List<Object> samples = new ArrayList<>();
+        synchronized (p.samples) {
+            for (PagePerf.Sample s : p.samples) samples.add(s.toMap());
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("test", id);
+        if (status != null) entry.put("status", status);
+        entry.put("steps", DriverMetricsReporter.toJson(p.bySteps));
+        entry.put("samples", samples);
+        return entry;
+    }
+}
@@ -0,0 +1,170 @@
+package base;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders the test methods of each class so consecutive tests share page state, cutting the
+ * reloads cleanState() has to do (PageState.ensure() is a no-op on a clean page).
+ *
+ * Tests declare their page with @NeedsPage. A test starts for free when the previous one left
+ * its page UNTOUCHED; otherwise ensure() loads it. Greedy order, among the methods whose
+ * dependencies have already run:
+ *
+ *   1. UNTOUCHED tests on the page left clean   (free, and the page stays clean)
+ *   2. other tests on that page                 (free, the last use of this copy)
+ *   3. tests without @NeedsPage                 (they don't use the clean page anyway)
+ *   4. otherwise a load is due: an UNTOUCHED test first, so the new copy is reused
+ *
+ * Ties keep declaration order. dependsOnMethods / dependsOnGroups are respected, and classes
+ * keep their order (each runs its @BeforeClass/@AfterClass once). The page loads saved per
+ * class are logged to the TestNG Reporter.
+ *
+ * The interceptor sees a data-provider method once, but it runs once per row, and unless it is
+ * UNTOUCHED every row after the first reloads its page. The row count isn't known before the
+ * provider runs, so page loads can't be counted for such a class; its methods keep declaration
+ * order.
+ *
+ * System properties:
+ *   page.schedule   reorder methods (default true; false keeps declaration order)
+ */
+public class PageScheduler implements IMethodInterceptor {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("page.schedule", "true"));
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ENABLED || methods.size() < 2) return methods;
+
+        Map<Class<?>, List<IMethodInstance>> byClass = new LinkedHashMap<>();
+        for (IMethodInstance m : methods) {
+            byClass.computeIfAbsent(m.getMethod().getRealClass(), k -> new ArrayList<>()).add(m);
+        }
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        for (Map.Entry<Class<?>, List<IMethodInstance>> e : byClass.entrySet()) {
+            if (dataDriven(e.getValue())) {
+                ordered.addAll(e.getValue());
+                continue;
+            }
+            List<IMethodInstance> scheduled = schedule(e.getValue());
+            int before = loads(e.getValue());
+            int after = loads(scheduled);
+            if (after < before) {
+                Reporter.log("Page scheduler: " + e.getKey().getName() + " needs " + after
+                        + " page loads instead of " + before);
+            }
+            ordered.addAll(scheduled);
+        }
+        return ordered;
+    }
+
+    /** One class's methods in page-sharing order. */
+    static List<IMethodInstance> schedule(List<IMethodInstance> methods) {
+        List<IMethodInstance> pending = new ArrayList<>(methods);
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        String clean = null;   // page the previous test left clean, null if none
+
+        while (!pending.isEmpty()) {
+            IMethodInstance next = pick(ready(pending), clean);
+            pending.remove(next);
+            ordered.add(next);
+            clean = leftClean(next.getMethod());
+        }
+        return ordered;
+    }
+
+    /** Page loads cleanState() would do running the methods in this order, one invocation each. */
+    static int loads(List<IMethodInstance> methods) {
+        int loads = 0;
+        String clean = null;
+        for (IMethodInstance m : methods) {
+            NeedsPage need = need(m.getMethod());
+            if (need != null && !need.value().equals(clean)) loads++;
+            clean = leftClean(m.getMethod());
+        }
+        return loads;
+    }
+
+    /** Whether any of the methods takes a data provider (an unknown number of invocations). */
+    static boolean dataDriven(List<IMethodInstance> methods) {
+        for (IMethodInstance m : methods) {
+            if (m.getMethod().isDataDriven()) return true;
+        }
+        return false;
+    }
+
+    private static IMethodInstance pick(List<IMethodInstance> ready, String clean) {
+        IMethodInstance onPage = null;
+        IMethodInstance noPage = null;
+        IMethodInstance untouched = null;
+        for (IMethodInstance m : ready) {
+            NeedsPage need = need(m.getMethod());
+            if (need == null) {
+                if (noPage == null) noPage = m;
+                continue;
+            }
+            boolean keepsPage = need.leaves() == NeedsPage.Leaves.UNTOUCHED;
+            if (need.value().equals(clean)) {
+                if (keepsPage) return m;
+                if (onPage == null) onPage = m;
+            } else if (keepsPage && untouched == null) {
+                untouched = m;
+            }
+        }
+        if (onPage != null) return onPage;
+        if (noPage != null) return noPage;
+        return untouched != null ? untouched : ready.get(0);
+    }
+
+    /** Pending methods that depend on no other pending method (all of them on a cycle, TestNG reports it). */
+    private static List<IMethodInstance> ready(List<IMethodInstance> pending) {
+        List<IMethodInstance> ready = new ArrayList<>();
+        for (IMethodInstance m : pending) {
+            boolean blocked = false;
+            for (IMethodInstance other : pending) {
+                if (other != m && dependsOn(m.getMethod(), other.getMethod())) {
+                    blocked = true;
+                    break;
+                }
+            }
+            if (!blocked) ready.add(m);
+        }
+        return ready.isEmpty() ? pending : ready;
+    }
+
+    private static boolean dependsOn(ITestNGMethod m, ITestNGMethod other) {
+        String qualified = other.getRealClass().getName() + "." + other.getMethodName();
+        for (String dep : m.getMethodsDependedUpon()) {
+            if (dep.equals(qualified) || qualified.matches(dep)) return true;
+        }
+        List<String> groups = Arrays.asList(other.getGroups());
+        for (String group : m.getGroupsDependedUpon()) {
+            if (groups.contains(group)) return true;
+        }
+        return false;
+    }
+
+    /** The page a method leaves clean, or null. */
+    private static String leftClean(ITestNGMethod m) {
+        NeedsPage need = need(m);
+        return need != null && need.leaves() == NeedsPage.Leaves.UNTOUCHED ? need.value() : null;
+    }
+
+    /** @NeedsPage of the method, else of its class, else null. */
+    static NeedsPage need(ITestNGMethod m) {
+        NeedsPage onMethod = m.getConstructorOrMethod().getMethod().getAnnotation(NeedsPage.class);
+        if (onMethod != null) return onMethod;
+        Class<?> cls = m.getRealClass();
+        return cls.getAnnotation(NeedsPage.class);
+    }
+}
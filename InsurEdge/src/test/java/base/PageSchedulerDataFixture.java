@@ -0,0 +1,27 @@
+package base;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test class run by PageSchedulerTest (not by the suite). Without the data provider, the
+ * scheduler would move both UNTOUCHED reads ahead of edit.
+ */
+@NeedsPage("Create")
+public class PageSchedulerDataFixture {
+
+    @DataProvider
+    public Object[][] rows() {
+        return new Object[][] {{"Life"}, {"Auto"}, {"Home"}};
+    }
+
+    @Test public void edit() { }
+
+    @Test
+    @NeedsPage(value = "Create", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readLabels() { }
+
+    @Test(dataProvider = "rows")
+    @NeedsPage(value = "Create", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readRows(String mainCategory) { }
+}
@@ -0,0 +1,42 @@
+package base;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test class run by PageSchedulerTest (not by the suite). Greedy order alone would start with
+ * the UNTOUCHED tests, but two of them wait for others: readAfterEdit for edit (method),
+ * readAfterSetup for the "setup" group.
+ */
+@NeedsPage("Create")
+public class PageSchedulerFixture {
+
+    static final List<String> RAN = Collections.synchronizedList(new ArrayList<>());
+
+    @Test public void edit() { RAN.add("edit"); }
+    @Test(groups = "setup") public void seed() { RAN.add("seed"); }
+    @Test public void submit() { RAN.add("submit"); }
+
+    @Test(dependsOnMethods = "edit")
+    @NeedsPage(value = "Create", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readAfterEdit() { RAN.add("readAfterEdit"); }
+
+    @Test(dependsOnGroups = "setup")
+    @NeedsPage(value = "Create", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readAfterSetup() { RAN.add("readAfterSetup"); }
+
+    @Test
+    @NeedsPage(value = "Create", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readLabels() { RAN.add("readLabels"); }
+
+    @Test
+    @NeedsPage(value = "Create", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readOptions() { RAN.add("readOptions"); }
+
+    @Test
+    @NeedsPage(value = "Authorize", leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void readGrid() { RAN.add("readGrid"); }
+}
@@ -0,0 +1,95 @@
+package base;
+
+import org.testng.Assert;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static base.PageSchedulerFixture.RAN;
+
+/** PageScheduler on a small in-process TestNG run of PageSchedulerFixture (no browser). */
+public class PageSchedulerTest {
+
+    /** Records the method list it is handed, unchanged. */
+    static class Capture implements IMethodInterceptor {
+        final List<IMethodInstance> seen = new ArrayList<>();
+
+        @Override
+        public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+            seen.clear();
+            seen.addAll(methods);
+            return methods;
+        }
+    }
+
+    @Test
+    public void keepsDependenciesAndSavesLoads() {
+        Capture before = new Capture();
+        Capture after = new Capture();
+        RAN.clear();
+        Assert.assertEquals(runFixture(PageSchedulerFixture.class, before, new PageScheduler(), after), 0,
+                "Scheduled fixture run failed: " + RAN);
+        Assert.assertEquals(RAN.size(), 8, "Not every method ran: " + RAN);
+        assertBefore(RAN, "edit", "readAfterEdit");
+        assertBefore(RAN, "seed", "readAfterSetup");
+
+        List<String> scheduled = names(after.seen);
+        Assert.assertEquals(scheduled, RAN, "TestNG must run the scheduled order");
+        Assert.assertTrue(PageScheduler.loads(after.seen) < PageScheduler.loads(before.seen),
+                "No page loads saved: " + names(before.seen) + " -> " + scheduled);
+    }
+
+    @Test
+    public void methodAnnotationOverridesTheClass() {
+        Capture capture = new Capture();
+        runFixture(PageSchedulerFixture.class, capture);
+
+        for (IMethodInstance m : capture.seen) {
+            NeedsPage need = PageScheduler.need(m.getMethod());
+            String name = m.getMethod().getMethodName();
+            Assert.assertNotNull(need, name);
+            if (name.equals("readGrid")) Assert.assertEquals(need.value(), "Authorize");
+            else Assert.assertEquals(need.value(), "Create", name);
+            Assert.assertEquals(need.leaves() == NeedsPage.Leaves.UNTOUCHED, name.startsWith("read"), name);
+        }
+    }
+
+    @Test
+    public void dataProviderClassKeepsDeclarationOrder() {
+        Capture before = new Capture();
+        Capture after = new Capture();
+        Assert.assertEquals(runFixture(PageSchedulerDataFixture.class, before, new PageScheduler(), after), 0);
+
+        Assert.assertTrue(PageScheduler.dataDriven(before.seen));
+        Assert.assertNotEquals(names(PageScheduler.schedule(before.seen)), names(before.seen),
+                "The fixture would be reordered without its data provider");
+        Assert.assertEquals(names(after.seen), names(before.seen));
+    }
+
+    /** Runs a fixture class in-process with just these interceptors, in order; returns the TestNG status. */
+    private static int runFixture(Class<?> fixture, IMethodInterceptor... interceptors) {
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setTestClasses(new Class<?>[] {fixture});
+        for (IMethodInterceptor i : interceptors) testng.addListener(i);
+        testng.run();
+        return testng.getStatus();
+    }
+
+    private static void assertBefore(List<String> order, String first, String then) {
+        Assert.assertTrue(order.indexOf(first) >= 0 && order.indexOf(first) < order.indexOf(then),
+                first + " must run before " + then + ": " + order);
+    }
+
+    private static List<String> names(List<IMethodInstance> methods) {
+        List<String> names = new ArrayList<>();
+        for (IMethodInstance m : methods) names.add(m.getMethod().getMethodName());
+        return names;
+    }
+}
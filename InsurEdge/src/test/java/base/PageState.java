@@ -0,0 +1,99 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which page a browser is on and whether it is still exactly as first rendered, so
+ * per-test setup can skip navigation and resets when nothing changed.
+ *
+ * After ensure() loads a page it tags the window with the page name. The tag disappears with
+ * any navigation or ASP.NET postback (new document), and the probe also checks that no form
+ * control differs from its rendered default and no modal is open. One script call decides:
+ *
+ *   clean               -> nothing to do
+ *   dirty / elsewhere   -> driver.get(page URL), a fresh render is already at defaults
+ *   URL not known yet   -> open through the menu once and remember the URL for the suite
+ *
+ * Loads are timed as PagePerf step "<page>.load" (e.g. AuthorizePolicy.load).
+ */
+public class PageState {
+
+    /** What ensure() had to do. */
+    public enum Action { NONE, LOADED_URL, VIA_MENU }
+
+    // page name -> URL learned from the first menu navigation (same app for every browser)
+    private static final Map<String, String> URLS = new ConcurrentHashMap<>();
+
+    private static final String MARK_JS = "window.__pageState = arguments[0];";
+
+    // True when this document was tagged for the page, no modal is shown and every
+    // visible control still holds its rendered default (hidden inputs are script-owned)
+    private static final String CLEAN_JS =
+            "if (window.__pageState !== arguments[0]) return false;" +
+            "var modals = document.querySelectorAll('.modal');" +
+            "for (var i = 0; i < modals.length; i++) {" +
+            "  if (getComputedStyle(modals[i]).display !== 'none') return false;" +
+            "}" +
+            "var els = document.querySelectorAll('input, select, textarea');" +
+            "for (var j = 0; j < els.length; j++) {" +
+            "  var el = els[j];" +
+            "  if (el.tagName === 'SELECT') {" +
+            "    var def = 0;" +
+            "    for (var k = 0; k < el.options.length; k++) { if (el.options[k].defaultSelected) { def = k; break; } }" +
+            "    if (el.options.length > 0 && el.selectedIndex !== def) return false;" +
+            "  } else if (el.type === 'checkbox' || el.type === 'radio') {" +
+            "    if (el.checked !== el.defaultChecked) return false;" +
+            "  } else if (!/^(hidden|submit|button|image|reset)$/.test(el.type)) {" +
+            "    if (el.value !== el.defaultValue) return false;" +
+            "  }" +
+            "}" +
+            "return true;";
+
+    private PageState() { }
+
+    /**
+     * Leaves the driver on a freshly rendered, untouched copy of the page.
+     *
+     * @param page       name identifying the page (also the window tag)
+     * @param viaMenu    opens the page through the app's navigation (first time only)
+     * @param waitReady  waits for the page's key elements after a load
+     */
+    public static Action ensure(WebDriver driver, String page, Runnable viaMenu, Runnable waitReady) {
+        String url = URLS.get(page);
+        if (url != null && isClean(driver, page)) {
+            return Action.NONE;
+        }
+
+        PagePerf.Mark perf = PagePerf.mark(driver);
+        Action action;
+        if (url != null) {
+            driver.get(url);
+            action = Action.LOADED_URL;
+        } else {
+            viaMenu.run();
+            action = Action.VIA_MENU;
+        }
+        PostbackSync.of(driver).documentChanged();
+        waitReady.run();
+        perf.record(page + ".load");
+        if (url == null) {
+            URLS.putIfAbsent(page, driver.getCurrentUrl());
+        }
+        ((JavascriptExecutor) driver).executeScript(MARK_JS, page);
+        return action;
+    }
+
+    /** True if the current document is the page as ensure() left it (one script call). */
+    public static boolean isClean(WebDriver driver, String page) {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(CLEAN_JS, page));
+    }
+
+    /** URL learned for a page, or null before its first menu navigation. */
+    public static String urlOf(String page) {
+        return URLS.get(page);
+    }
+}
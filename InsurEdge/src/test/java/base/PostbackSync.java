@@ -0,0 +1,226 @@
+package base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.BrowsingContextInspector;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signals exactly when an ASP.NET postback has finished.
+ *
+ * Usage: arm() before the action that posts back, then await() on the returned ticket.
+ *
+ * - Full postbacks (new document): with WebDriver BiDi enabled (see BaseTest), the browser's
+ *   DOMContentLoaded event for the top-level window wakes the waiting thread directly — no polling.
+ * - Partial updates (UpdatePanel): arm() hooks Sys.WebForms.PageRequestManager's endRequest;
+ *   a BiDi network event for the async post ("X-MicrosoftAjax" request) wakes the waiter, which
+ *   then confirms endRequest has run.
+ * - Without BiDi (-Dpostback.bidi=false or an unsupported driver) the same in-page token is
+ *   polled every Waits.POLLING instead.
+ *
+ * A ticket only completes for a newer document or an endRequest after arm(), so callers never
+ * act on the pre-postback DOM (no "element present but about to go stale" races).
+ *
+ * A detector holds its driver and BiDi listeners until release(driver), which whoever quits
+ * the browser calls first (DriverPool).
+ */
+public class PostbackSync {
+
+    /** Enable BiDi on new browsers and use its events here (-Dpostback.bidi, default true). */
+    public static final boolean BIDI = Boolean.parseBoolean(System.getProperty("postback.bidi", "true"));
+
+    private static final Map<WebDriver, PostbackSync> BY_DRIVER = new ConcurrentHashMap<>();
+    private static final AtomicLong TOKENS = new AtomicLong();
+
+    // Tags the document and (once per document) hooks PageRequestManager.endRequest
+    private static final String ARM_JS =
+            "window.__postbackToken = arguments[0];" +
+            "var S = window.Sys;" +
+            "if (S && S.WebForms && S.WebForms.PageRequestManager && !window.__postbackHooked) {" +
+            "  S.WebForms.PageRequestManager.getInstance().add_endRequest(function () {" +
+            "    window.__postbackEnded = window.__postbackToken;" +
+            "  });" +
+            "  window.__postbackHooked = true;" +
+            "}";
+
+    // 'reloaded' = a new, parsed document; 'updated' = partial postback finished; null = still waiting
+    private static final String STATE_JS =
+            "if (window.__postbackToken !== arguments[0])" +
+            "  return document.readyState === 'loading' ? null : 'reloaded';" +
+            "return window.__postbackEnded === arguments[0] ? 'updated' : null;";
+
+    private final WebDriver driver;
+    private final Object lock = new Object();
+    private long events;            // BiDi signals seen (guarded by lock)
+    private final boolean bidi;
+    private BrowsingContextInspector contexts;     // BiDi subscriptions, null without BiDi
+    private Network network;
+
+    // Bumped whenever the DOM may have been replaced (load, partial update, finished postback, navigation)
+    private final AtomicLong generation = new AtomicLong();
+
+    private PostbackSync(WebDriver driver) {
+        this.driver = driver;
+        this.bidi = BIDI && driver instanceof HasBiDi && subscribe();
+    }
+
+    /** The detector for a driver (created, and subscribed to BiDi events, on first use). */
+    public static PostbackSync of(WebDriver driver) {
+        return BY_DRIVER.computeIfAbsent(driver, PostbackSync::new);
+    }
+
+    /** Forgets a driver that is about to quit and drops its BiDi listeners. */
+    public static void release(WebDriver driver) {
+        PostbackSync sync = BY_DRIVER.remove(driver);
+        if (sync != null) sync.unsubscribe();
+    }
+
+    /** True when the element's onchange submits the form (ASP.NET AutoPostBack). */
+    public static boolean autoPostsBack(WebElement element) {
+        String onchange = element.getAttribute("onchange");
+        return onchange != null && onchange.contains("__doPostBack");
+    }
+
+    /** Changes whenever the page's DOM may have been replaced; element caches compare against it. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Records a navigation this class could not observe itself (e.g. driver.get without BiDi). */
+    public void documentChanged() {
+        generation.incrementAndGet();
+    }
+
+    /** Marks the current document; call right before the action that posts back. */
+    public Ticket arm() {
+        long token = TOKENS.incrementAndGet();
+        long seen;
+        synchronized (lock) {
+            seen = events;
+        }
+        ((JavascriptExecutor) driver).executeScript(ARM_JS, token);
+        return new Ticket(token, seen);
+    }
+
+    /** One armed postback. */
+    public class Ticket {
+        private final long token;
+        private final long eventsAtArm;
+
+        Ticket(long token, long eventsAtArm) {
+            this.token = token;
+            this.eventsAtArm = eventsAtArm;
+        }
+
+        /** Blocks until the postback finished; false if nothing happened within the timeout. */
+        public boolean await(Duration timeout) {
+            boolean done = awaitState(timeout);
+            if (done) documentChanged();
+            return done;
+        }
+
+        private boolean awaitState(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            if (!bidi) return pollState(timeout);
+
+            if (!waitForEvent(eventsAtArm, deadline)) {
+                // Out of time; one last look covers a signal that raced the subscription
+                return state() != null;
+            }
+            // A load means the new document is parsed; an async response still needs endRequest to run
+            return state() != null
+                    || pollState(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        }
+
+        private boolean waitForEvent(long seen, long deadline) {
+            synchronized (lock) {
+                while (events == seen) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) return false;
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(lock, left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        private boolean pollState(Duration timeout) {
+            try {
+                new WebDriverWait(driver, timeout, Waits.POLLING)
+                        .ignoring(WebDriverException.class)
+                        .until(d -> state());
+                return true;
+            } catch (org.openqa.selenium.TimeoutException e) {
+                return false;
+            }
+        }
+
+        private String state() {
+            try {
+                return (String) ((JavascriptExecutor) driver).executeScript(STATE_JS, token);
+            } catch (WebDriverException e) {
+                return null;   // document was swapping out mid-call
+            }
+        }
+    }
+
+    // ----- BiDi -----
+
+    private boolean subscribe() {
+        try {
+            String window = driver.getWindowHandle();   // BiDi context id of the top-level window
+            contexts = new BrowsingContextInspector(driver);
+            contexts.onDomContentLoaded(nav -> {
+                if (window.equals(nav.getBrowsingContextId())) signal();
+            });
+            network = new Network(driver);
+            network.onResponseCompleted(response -> {
+                if (window.equals(response.getBrowsingContextId()) && isAsyncPostback(response)) signal();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            // Driver started without BiDi (webSocketUrl) support: fall back to polling
+            return false;
+        }
+    }
+
+    private void unsubscribe() {
+        try {
+            if (contexts != null) contexts.close();
+            if (network != null) network.close();
+        } catch (RuntimeException ignored) {
+            // Browser already gone — its connection is closing anyway
+        }
+    }
+
+    private static boolean isAsyncPostback(ResponseDetails response) {
+        for (Header h : response.getRequest().getHeaders()) {
+            if (h.getName().equalsIgnoreCase("X-MicrosoftAjax")) return true;
+        }
+        return false;
+    }
+
+    private void signal() {
+        generation.incrementAndGet();
+        synchronized (lock) {
+            events++;
+            lock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.BytesValue;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.bidi.network.ProvideResponseParameters;
+import org.openqa.selenium.bidi.network.RequestData;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Browser-side request interception over WebDriver BiDi, driven by NetworkRules.
+ *
+ * - block rules: the request fails at once (analytics beacons, web fonts, images).
+ * - cache rules: versioned static assets (jQuery, Bootstrap, ScriptResource.axd, ...) are
+ *   fetched once per machine, stored in -Dnetwork.cache.dir (default target/asset-cache) and
+ *   answered from there; the server never sees them again. The download runs in the
+ *   background: requests for an asset still downloading go to the server as usual.
+ * - everything else continues untouched. Only URLs in the rules' scope are paused at all, so
+ *   the ASP.NET pages and postbacks don't wait on the interceptor.
+ *
+ * Needs a BiDi-enabled driver (see BaseTest / -Dpostback.bidi); -Dnetwork.intercept=false
+ * turns it off. A request is always released, even if handling it fails. The browser's
+ * listener and intercept are kept until release(driver), which whoever quits the browser
+ * calls first (DriverPool), as for PostbackSync.
+ */
+public class RequestInterceptor {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("network.intercept", "true"));
+    public static final Path CACHE_DIR = Paths.get(System.getProperty("network.cache.dir", "target/asset-cache"));
+
+    private static final NetworkRules RULES = NetworkRules.load();
+    private static final Asset MISSING = new Asset(null, null);
+
+    // URL -> asset, done once loaded (MISSING = not cacheable, e.g. not a plain 200); shared by every browser
+    private static final Map<String, CompletableFuture<Asset>> ASSETS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> HITS = new ConcurrentHashMap<>();
+
+    // Unwrapped driver -> its BiDi network module (request listener + intercept)
+    private static final Map<WebDriver, Network> BY_DRIVER = new ConcurrentHashMap<>();
+
+    private static volatile HttpClient http;
+
+    private RequestInterceptor() { }
+
+    /** Starts intercepting the browser's requests; false when disabled, rule-less or without BiDi. */
+    public static boolean install(WebDriver driver) {
+        if (!ENABLED || RULES.isEmpty() || !(driver instanceof HasBiDi)) return false;
+        Network network = null;
+        try {
+            network = new Network(driver);
+            Network events = network;
+            network.onBeforeRequestSent(event -> {
+                if (event.isBlocked()) handle(events, event.getRequest());
+            });
+            AddInterceptParameters intercept = new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT);
+            if (!RULES.scope().isEmpty()) intercept.urlPatterns(RULES.scope());
+            network.addIntercept(intercept);
+            BY_DRIVER.put(unwrap(driver), network);
+            return true;
+        } catch (RuntimeException e) {
+            // Driver started without BiDi (webSocketUrl) support: load everything normally
+            close(network);
+            return false;
+        }
+    }
+
+    /** Drops the listener and intercept of a browser that is about to quit (the driver may be instrumented). */
+    public static void release(WebDriver driver) {
+        close(BY_DRIVER.remove(unwrap(driver)));
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver) driver = ((WrapsDriver) driver).getWrappedDriver();
+        return driver;
+    }
+
+    private static void close(Network network) {
+        if (network == null) return;
+        try {
+            network.close();
+        } catch (RuntimeException ignored) {
+            // Browser already gone; its connection is closing anyway
+        }
+    }
+
+    /** Requests handled per rule so far (blocked or served from cache), suite-wide. */
+    public static Map<String, Long> counts() {
+        Map<String, Long> out = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> e : HITS.entrySet()) out.put(e.getKey(), e.getValue().get());
+        return out;
+    }
+
+    private static void handle(Network network, RequestData request) {
+        String id = request.getRequestId();
+        try {
+            NetworkRules.Decision d = RULES.decide(request.getUrl());
+            if (d.action == NetworkRules.Action.BLOCK) {
+                network.failRequest(id);
+                count(d.rule);
+                return;
+            }
+            if (d.action == NetworkRules.Action.CACHE && "GET".equalsIgnoreCase(request.getMethod())) {
+                Asset asset = cached(request.getUrl());
+                if (asset != null) {
+                    network.provideResponse(new ProvideResponseParameters(id)
+                            .statusCode(200)
+                            .reasonPhrase("OK")
+                            .headers(Arrays.asList(
+                                    header("Content-Type", asset.contentType),
+                                    header("Cache-Control", "public, max-age=31536000")))
+                            .body(new BytesValue(BytesValue.Type.BASE64, Base64.getEncoder().encodeToString(asset.body))));
+                    count(d.rule);
+                    return;
+                }
+            }
+            network.continueRequest(new ContinueRequestParameters(id));
+        } catch (RuntimeException e) {
+            // Never leave the page waiting on a paused request
+            try {
+                network.continueRequest(new ContinueRequestParameters(id));
+            } catch (RuntimeException ignored) {
+                // Request already answered or the browser is gone
+            }
+        }
+    }
+
+    private static Header header(String name, String value) {
+        return new Header(name, new BytesValue(BytesValue.Type.STRING, value));
+    }
+
+    private static void count(String rule) {
+        HITS.computeIfAbsent(rule, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    // ----- Asset cache -----
+
+    private static final class Asset {
+        final byte[] body;
+        final String contentType;
+
+        Asset(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+    }
+
+    /**
+     * The asset if it is loaded, else null (the request then goes to the server). The first
+     * request for a URL reads it from disk or starts one background download; the BiDi callback
+     * never waits on the network.
+     */
+    private static Asset cached(String url) {
+        CompletableFuture<Asset> asset = ASSETS.get(url);
+        if (asset == null) {
+            CompletableFuture<Asset> loading = new CompletableFuture<>();
+            asset = ASSETS.putIfAbsent(url, loading);
+            if (asset == null) {
+                asset = loading;
+                try {
+                    load(url, loading);
+                } catch (RuntimeException e) {
+                    loading.complete(MISSING);      // e.g. not a URL the HTTP client accepts
+                }
+            }
+        }
+        Asset a = asset.getNow(null);
+        return a == MISSING ? null : a;
+    }
+
+    /** Disk, else one direct download (only plain 200 responses are kept). */
+    private static void load(String url, CompletableFuture<Asset> into) {
+        String key = sha256(url);
+        Path body = CACHE_DIR.resolve(key + ".body");
+        Path type = CACHE_DIR.resolve(key + ".type");
+        if (Files.isRegularFile(body) && Files.isRegularFile(type)) {
+            try {
+                into.complete(new Asset(Files.readAllBytes(body),
+                        new String(Files.readAllBytes(type), StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                into.complete(MISSING);
+            }
+            return;
+        }
+        client().sendAsync(
+                HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null || response.statusCode() != 200) return MISSING;    // redirect to login, 404, ...
+                    String contentType = response.headers().firstValue("Content-Type").orElse("application/octet-stream");
+                    try {
+                        Files.createDirectories(CACHE_DIR);
+                        Files.write(body, response.body());
+                        Files.write(type, contentType.getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        // Served from memory for this run; downloaded again next time
+                    }
+                    return new Asset(response.body(), contentType);
+                })
+                .thenAccept(into::complete);
+    }
+
+    private static HttpClient client() {
+        HttpClient c = http;
+        if (c == null) {
+            synchronized (RequestInterceptor.class) {
+                c = http;
+                if (c == null) {
+                    c = HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NEVER)
+                            .connectTimeout(Duration.ofSeconds(10))
+                            .build();
+                    http = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    private static String sha256(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
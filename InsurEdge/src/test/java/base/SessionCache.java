@@ -0,0 +1,93 @@
+package base;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.function.Consumer;
+
+/**
+ * Forms-authentication ticket cache shared by every browser in the suite.
+ *
+ * The first browser logs in through the real LoginPage form and its .ASPXAUTH ticket is kept.
+ * Later browsers get only that ticket, never the ASP.NET_SessionId: the server starts a new
+ * session for each of them, so pooled browsers don't queue on one session-state lock or share
+ * Session-scoped data. If the server rejects the ticket (we land back on the login page), the
+ * browser falls back to its own real login and the cached ticket is refreshed from it.
+ */
+public class SessionCache {
+
+    /** Forms-authentication cookie; the only cookie shared between browsers. */
+    public static final String TICKET = ".ASPXAUTH";
+
+    private final String loginUrl;        // login page without query (no ?logout=true)
+    private final String loginPath;       // e.g. "/LoginPage" — where rejected sessions land
+    private final Consumer<WebDriver> formLogin;
+
+    private Cookie ticket;                // guarded by this
+    private String landingUrl;            // page shown right after a successful login
+
+    public SessionCache(String baseUrl, Consumer<WebDriver> formLogin) {
+        URI uri = URI.create(baseUrl);
+        this.loginPath = uri.getPath();
+        this.loginUrl = uri.getScheme() + "://" + uri.getAuthority() + loginPath;
+        this.formLogin = formLogin;
+    }
+
+    /** Signs the given browser in with its own session, reusing the cached ticket when still accepted. */
+    public void signIn(WebDriver driver) {
+        Cookie cached;
+        String landing;
+        synchronized (this) {
+            if (ticket == null) {
+                // First browser of the suite: real login, others wait for the ticket
+                loginAndCapture(driver);
+                return;
+            }
+            cached = ticket;
+            landing = landingUrl;
+        }
+
+        if (inject(driver, cached, landing)) return;
+
+        synchronized (this) {
+            // Only re-login if nobody refreshed the ticket while we were trying the old one
+            if (ticket == cached) {
+                loginAndCapture(driver);
+                return;
+            }
+            cached = ticket;
+            landing = landingUrl;
+        }
+        if (!inject(driver, cached, landing)) {
+            formLogin.accept(driver);
+        }
+    }
+
+    private void loginAndCapture(WebDriver driver) {
+        formLogin.accept(driver);
+        if (isOnLoginPage(driver)) {
+            throw new IllegalStateException("Login failed: still on " + driver.getCurrentUrl());
+        }
+        Cookie captured = driver.manage().getCookieNamed(TICKET);
+        if (captured == null) {
+            throw new IllegalStateException("Login set no " + TICKET + " cookie on " + driver.getCurrentUrl());
+        }
+        ticket = captured;
+        landingUrl = driver.getCurrentUrl();
+    }
+
+    private boolean inject(WebDriver driver, Cookie cached, String landing) {
+        // Cookies can only be added for the domain currently loaded
+        driver.get(loginUrl);
+        driver.manage().deleteAllCookies();
+        driver.manage().addCookie(cached);
+        driver.get(landing);
+        return !isOnLoginPage(driver);
+    }
+
+    private boolean isOnLoginPage(WebDriver driver) {
+        String path = URI.create(driver.getCurrentUrl()).getPath();
+        return path != null && path.equalsIgnoreCase(loginPath);
+    }
+}
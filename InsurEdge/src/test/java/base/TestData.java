@@ -0,0 +1,43 @@
+package base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** Rows and scratch directories for the offline unit tests (no browser, no network). */
+public final class TestData {
+
+    private TestData() { }
+
+    /** One grid or sheet row, cells in column order. */
+    public static List<String> row(String... cells) {
+        return Arrays.asList(cells);
+    }
+
+    /** Rows written one per line with '|' between cells, e.g. table("Road Safe | Auto | 250000"). */
+    public static List<List<String>> table(String... lines) {
+        List<List<String>> rows = new ArrayList<>(lines.length);
+        for (String line : lines) rows.add(row(line.trim().split("\\s*\\|\\s*", -1)));
+        return rows;
+    }
+
+    /** A new empty directory under java.io.tmpdir; remove it with deleteRecursively. */
+    public static Path tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    public static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path p : paths) Files.delete(p);
+    }
+}
@@ -0,0 +1,282 @@
+package base;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.xml.XmlSuite;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-method and per-class time budgets derived from earlier TestNG runs.
+ *
+ * The baseline is read from previous testng-results.xml files (duration-ms of every passed
+ * test method, and of every method of a class for the class total) before this run overwrites
+ * them. A step is over budget when it takes longer than baseline * (1 + tolerance) + slack.
+ * Over-budget steps are logged to the TestNG Reporter and, with -Dbudget.fail=true, the test
+ * that blew a method or class budget is failed. time-budget-summary.html (slowest steps and
+ * classes against their budgets) is written next to emailable-report.html.
+ *
+ * System properties:
+ *   budget.baseline   comma-separated results files  (default: testng-results.xml in the output dir;
+ *                     with several files the median duration is used)
+ *   budget.tolerance  allowed slowdown as a fraction (default 0.25)
+ *   budget.slackMs    absolute allowance so tiny steps don't flap (default 500)
+ *   budget.fail       fail over-budget tests instead of only flagging them (default false)
+ *   budget.top        rows in the slowest-steps table (default 25)
+ */
+public class TimeBudgetListener implements ISuiteListener, IInvokedMethodListener, IReporter {
+
+    public static final String SUMMARY_FILE = "time-budget-summary.html";
+
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("budget.tolerance", "0.25"));
+    private static final long SLACK_MS = Long.getLong("budget.slackMs", 500);
+    private static final boolean FAIL = Boolean.getBoolean("budget.fail");
+    private static final int TOP = Integer.getInteger("budget.top", 25);
+
+    // Baseline, in ms: "tests.X.method(params)" and "tests.X"
+    private final Map<String, Long> methodBaseline = new ConcurrentHashMap<>();
+    private final Map<String, Long> classBaseline = new ConcurrentHashMap<>();
+    private volatile boolean baselineLoaded;
+
+    // This run
+    private final List<Step> steps = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicLong> classTotals = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> classFlagged = new ConcurrentHashMap<>();
+
+    /** One executed test or configuration method. */
+    static class Step {
+        final String key;
+        final String className;
+        final boolean config;
+        final long durationMs;
+        final Long baselineMs;
+        final int status;
+
+        Step(String key, String className, boolean config, long durationMs, Long baselineMs, int status) {
+            this.key = key;
+            this.className = className;
+            this.config = config;
+            this.durationMs = durationMs;
+            this.baselineMs = baselineMs;
+            this.status = status;
+        }
+    }
+
+    // ----- Baseline -----
+
+    @Override
+    public void onStart(ISuite suite) {
+        // Several suites may share one listener; results files are only overwritten at the very end
+        synchronized (this) {
+            if (baselineLoaded) return;
+            baselineLoaded = true;
+        }
+        String spec = System.getProperty("budget.baseline");
+        List<File> files = new ArrayList<>();
+        if (spec == null) {
+            files.add(new File(new File(suite.getOutputDirectory()).getParentFile(), "testng-results.xml"));
+        } else {
+            for (String f : spec.split(",")) {
+                if (!f.trim().isEmpty()) files.add(new File(f.trim()));
+            }
+        }
+        loadBaseline(files, methodBaseline, classBaseline);
+    }
+
+    /** Fills method and class baselines (median over the files that have a value). */
+    static void loadBaseline(List<File> files, Map<String, Long> methods, Map<String, Long> classes) {
+        Map<String, List<Long>> methodRuns = new HashMap<>();
+        Map<String, List<Long>> classRuns = new HashMap<>();
+
+        for (File file : files) {
+            if (!file.isFile()) continue;
+            Document doc;
+            try {
+                doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+            } catch (Exception e) {
+                Reporter.log("Time budgets: skipping unreadable baseline " + file + ": " + e.getMessage());
+                continue;
+            }
+            NodeList classNodes = doc.getElementsByTagName("class");
+            for (int c = 0; c < classNodes.getLength(); c++) {
+                Element cls = (Element) classNodes.item(c);
+                String className = cls.getAttribute("name");
+                NodeList methodNodes = cls.getElementsByTagName("test-method");
+                long classTotal = 0;
+                boolean allPassed = true;
+                for (int m = 0; m < methodNodes.getLength(); m++) {
+                    Element method = (Element) methodNodes.item(m);
+                    long ms = Long.parseLong(method.getAttribute("duration-ms"));
+                    boolean passed = "PASS".equals(method.getAttribute("status"));
+                    classTotal += ms;
+                    allPassed &= passed;
+                    if (passed && !"true".equals(method.getAttribute("is-config"))) {
+                        String key = key(className, method.getAttribute("name"), params(method));
+                        methodRuns.computeIfAbsent(key, k -> new ArrayList<>()).add(ms);
+                    }
+                }
+                // A class total is only a fair budget if the whole class ran through
+                if (allPassed && methodNodes.getLength() > 0) {
+                    classRuns.computeIfAbsent(className, k -> new ArrayList<>()).add(classTotal);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Long>> e : methodRuns.entrySet()) methods.put(e.getKey(), median(e.getValue()));
+        for (Map.Entry<String, List<Long>> e : classRuns.entrySet()) classes.put(e.getKey(), median(e.getValue()));
+    }
+
+    private static List<String> params(Element method) {
+        List<String> values = new ArrayList<>();
+        NodeList params = method.getElementsByTagName("value");
+        for (int i = 0; i < params.getLength(); i++) values.add(params.item(i).getTextContent().trim());
+        return values;
+    }
+
+    // ----- Budgets -----
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        String className = result.getTestClass().getRealClass().getName();
+        List<String> params = new ArrayList<>();
+        for (Object p : result.getParameters()) params.add(String.valueOf(p));
+        String key = key(className, result.getMethod().getMethodName(), params);
+        // End time may not be stamped yet when after-invocation listeners run
+        long end = result.getEndMillis() >= result.getStartMillis() ? result.getEndMillis() : System.currentTimeMillis();
+        long ms = end - result.getStartMillis();
+        boolean config = !method.isTestMethod();
+        Long baseline = config ? null : methodBaseline.get(key);
+
+        steps.add(new Step(key, className, config, ms, baseline, result.getStatus()));
+        long classTotal = classTotals.computeIfAbsent(className, k -> new AtomicLong()).addAndGet(ms);
+        if (config) return;
+
+        if (baseline != null && ms > budget(baseline)) {
+            overBudget(result, String.format("%s took %d ms, budget %d ms (baseline %d ms)",
+                    key, ms, budget(baseline), baseline));
+        }
+        // Flag the test that pushes its class over budget (once per class)
+        Long classBase = classBaseline.get(className);
+        if (classBase != null && classTotal > budget(classBase) && classFlagged.putIfAbsent(className, true) == null) {
+            overBudget(result, String.format("class %s has taken %d ms so far, budget %d ms (baseline %d ms)",
+                    className, classTotal, budget(classBase), classBase));
+        }
+    }
+
+    static long budget(long baselineMs) {
+        return (long) (baselineMs * (1 + TOLERANCE)) + SLACK_MS;
+    }
+
+    private static void overBudget(ITestResult result, String message) {
+        Reporter.log("Time budget exceeded: " + message);
+        if (FAIL && result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Time budget exceeded: " + message));
+        }
+    }
+
+    // ----- Summary -----
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        List<Step> slowest = new ArrayList<>(steps);
+        slowest.sort((a, b) -> Long.compare(b.durationMs, a.durationMs));
+        slowest = slowest.subList(0, Math.min(TOP, slowest.size()));
+
+        List<Map.Entry<String, AtomicLong>> classes = new ArrayList<>(classTotals.entrySet());
+        classes.sort((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()));
+
+        StringBuilder html = new StringBuilder();
+        html.append("<html><head><meta charset=\"UTF-8\"><title>Time budgets</title><style>")
+                .append("body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:3px 8px}td.n{text-align:right}")
+                .append("tr.over{background:#fdd}</style></head><body>");
+        html.append("<h2>Time budgets</h2><p>Budget = baseline &times; ").append(1 + TOLERANCE)
+                .append(" + ").append(SLACK_MS).append(" ms; baseline from ").append(methodBaseline.size())
+                .append(" methods / ").append(classBaseline.size()).append(" classes of earlier runs.</p>");
+
+        html.append("<h3>Classes</h3><table><tr><th>Class</th><th>Duration ms</th><th>Baseline ms</th>")
+                .append("<th>Budget ms</th><th>Change</th></tr>");
+        for (Map.Entry<String, AtomicLong> e : classes) {
+            row(html, e.getKey(), null, e.getValue().get(), classBaseline.get(e.getKey()));
+        }
+        html.append("</table>");
+
+        html.append("<h3>Slowest ").append(slowest.size()).append(" steps</h3><table><tr><th>Step</th>")
+                .append("<th>Status</th><th>Duration ms</th><th>Baseline ms</th><th>Budget ms</th><th>Change</th></tr>");
+        for (Step s : slowest) {
+            row(html, s.key + (s.config ? " [config]" : ""), statusName(s.status), s.durationMs, s.baselineMs);
+        }
+        html.append("</table></body></html>");
+
+        try {
+            Path out = Paths.get(outputDirectory, SUMMARY_FILE);
+            Files.createDirectories(out.getParent());
+            Files.write(out, html.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed writing " + SUMMARY_FILE + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void row(StringBuilder html, String name, String status, long ms, Long baseline) {
+        boolean over = baseline != null && ms > budget(baseline);
+        html.append(over ? "<tr class=\"over\">" : "<tr>").append("<td>").append(escape(name)).append("</td>");
+        if (status != null) html.append("<td>").append(status).append("</td>");
+        html.append("<td class=\"n\">").append(ms).append("</td>");
+        if (baseline == null) {
+            html.append("<td class=\"n\">-</td><td class=\"n\">-</td><td class=\"n\">new</td></tr>");
+            return;
+        }
+        html.append("<td class=\"n\">").append(baseline).append("</td>")
+                .append("<td class=\"n\">").append(budget(baseline)).append("</td>")
+                .append("<td class=\"n\">").append(baseline == 0 ? "-" : String.format("%+.0f%%", 100.0 * (ms - baseline) / baseline))
+                .append("</td></tr>");
+    }
+
+    // ----- Helpers -----
+
+    /** tests.CreatePolicyTests.createPolicy or tests.X.method(param, ...) for data-driven invocations. */
+    static String key(String className, String method, List<String> params) {
+        String key = className + "." + method;
+        return params.isEmpty() ? key : key + "(" + String.join(", ", params) + ")";
+    }
+
+    private static long median(List<Long> values) {
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    private static String statusName(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS: return "PASS";
+            case ITestResult.FAILURE: return "FAIL";
+            case ITestResult.SKIP:    return "SKIP";
+            default:                  return String.valueOf(status);
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,174 @@
+package base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Condition-driven wait policy (replaces the global implicit wait).
+ *
+ * - Named explicit waits: present / visible / clickable / invisible / stale / until(name, condition).
+ * - Zero-timeout probes: isPresent / isDisplayed / findAll return immediately, so "element is
+ *   absent" checks cost one round trip instead of a 10 s implicit wait.
+ * - Per-page profiles: each page gets its own timeout, overridable with -Dwait.&lt;profile&gt;.seconds.
+ */
+public class Waits {
+
+    /** Timeout profiles per page. */
+    public enum Profile {
+        DEFAULT("default", 12),
+        LOGIN("login", 10),
+        CREATE_POLICY("createPolicy", 12),
+        AUTHORIZE("authorize", 15);
+
+        public final String key;
+        public final Duration timeout;
+
+        Profile(String key, int defaultSeconds) {
+            this.key = key;
+            this.timeout = Duration.ofSeconds(Integer.getInteger("wait." + key + ".seconds", defaultSeconds));
+        }
+    }
+
+    public static final Duration POLLING = Duration.ofMillis(Integer.getInteger("wait.polling.ms", 100));
+
+    public final WebDriver driver;
+    public final Profile profile;
+
+    public Waits(WebDriver driver, Profile profile) {
+        this.driver = driver;
+        this.profile = profile;
+    }
+
+    // ----- Named explicit waits -----
+
+    /** Waits (profile timeout) until the condition returns non-null/true; name shows up in timeouts. */
+    public <T> T until(String name, Function<WebDriver, T> condition) {
+        return newWait(profile.timeout).withMessage(name).until(condition);
+    }
+
+    public WebElement present(By locator) {
+        return until("presence of " + locator, ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    public WebElement visible(By locator) {
+        return until("visibility of " + locator, ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    public WebElement clickable(By locator) {
+        return until("clickability of " + locator, ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    public void invisible(By locator) {
+        until("invisibility of " + locator, ExpectedConditions.invisibilityOfElementLocated(locator));
+    }
+
+    public void stale(WebElement element) {
+        until("staleness of " + element, ExpectedConditions.stalenessOf(element));
+    }
+
+    /**
+     * Waits for a postback/full reload that detaches the given element. Returns false (instead of
+     * throwing) if nothing reloaded within the profile timeout, e.g. client-side validation blocked it.
+     */
+    public boolean postback(WebElement anchor) {
+        try {
+            stale(anchor);
+            PostbackSync.of(driver).documentChanged();
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs an action that posts back and returns as soon as the postback (full or partial) has
+     * finished, signalled by PostbackSync rather than polled. False if nothing happened in time.
+     */
+    public boolean postback(Runnable action) {
+        return postback(null, action);
+    }
+
+    /** Like postback(action), and records its timings as PagePerf step 'step' (null = don't). */
+    public boolean postback(String step, Runnable action) {
+        PostbackSync.Ticket ticket = PostbackSync.of(driver).arm();
+        PagePerf.Mark perf = step == null ? null : PagePerf.mark(driver);
+        action.run();
+        boolean done = ticket.await(profile.timeout);
+        if (perf != null && done) perf.record(step);
+        return done;
+    }
+
+    /**
+     * Changes a &lt;select&gt; and, if it is an AutoPostBack control and the value really changed,
+     * waits for the resulting postback (no change event fires when the option was already selected).
+     */
+    public void select(WebElement element, Consumer<Select> choice) {
+        select(null, element, choice);
+    }
+
+    /** Like select(element, choice), recording the postback (if any) as PagePerf step 'step'. */
+    public void select(String step, WebElement element, Consumer<Select> choice) {
+        Select select = new Select(element);
+        if (!PostbackSync.autoPostsBack(element)) {
+            choice.accept(select);
+            return;
+        }
+        String before = element.getAttribute("value");
+        PostbackSync.Ticket ticket = PostbackSync.of(driver).arm();
+        PagePerf.Mark perf = step == null ? null : PagePerf.mark(driver);
+        choice.accept(select);
+        try {
+            if (Objects.equals(before, element.getAttribute("value"))) return;
+        } catch (StaleElementReferenceException e) {
+            // Already posting back
+        }
+        if (ticket.await(profile.timeout) && perf != null) perf.record(step);
+    }
+
+    // ----- Zero-timeout probes (no implicit wait anywhere, so these never block) -----
+
+    public List<WebElement> findAll(By locator) {
+        return driver.findElements(locator);
+    }
+
+    public boolean isPresent(By locator) {
+        return !driver.findElements(locator).isEmpty();
+    }
+
+    public boolean isDisplayed(By locator) {
+        try {
+            List<WebElement> els = driver.findElements(locator);
+            return !els.isEmpty() && els.get(0).isDisplayed();
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    /** Like isPresent, but gives the element a bounded chance to appear first. */
+    public boolean isPresentWithin(By locator, Duration timeout) {
+        try {
+            newWait(timeout).until(ExpectedConditions.presenceOfElementLocated(locator));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private WebDriverWait newWait(Duration timeout) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout, POLLING);
+        wait.ignoring(StaleElementReferenceException.class);
+        return wait;
+    }
+}
@@ -0,0 +1,44 @@
+package bench;
+
+import base.PostbackSync;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.URL;
+
+/**
+ * One headless browser per benchmark trial, parked on the local page fixture
+ * (src/test/resources/bench/policy-fixture.html) so results are free of network noise.
+ */
+@State(Scope.Benchmark)
+public class BenchFixture {
+
+    public WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void openFixture() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--disable-gpu", "--disable-extensions");
+        driver = new ChromeDriver(options);
+
+        URL fixture = BenchFixture.class.getResource("/bench/policy-fixture.html");
+        if (fixture == null) {
+            throw new IllegalStateException("Benchmark fixture not found on classpath");
+        }
+        driver.get(fixture.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void closeBrowser() {
+        if (driver != null) {
+            PostbackSync.release(driver);
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+import pages.CreatePolicyPage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling the Create Policy text fields: CreatePolicyPage's clear()+sendKeys() per field versus
+ * setting all three values (and firing input/change) in one script call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputBenchmark {
+
+    private static final String SET_VALUES_JS =
+            "for (var i = 0; i < arguments.length; i += 2) {" +
+            "  var e = arguments[i]; e.value = arguments[i + 1];" +
+            "  e.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "  e.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "}";
+
+    private CreatePolicyPage cp;
+    private JavascriptExecutor js;
+    private WebElement name, sumAssured, premium;
+    private int n;
+
+    @Setup
+    public void resolve(BenchFixture fx) {
+        cp = new CreatePolicyPage(fx.driver);
+        js = (JavascriptExecutor) fx.driver;
+        name = fx.driver.findElement(cp.txtPolicyName);
+        sumAssured = fx.driver.findElement(cp.txtSumAssured);
+        premium = fx.driver.findElement(cp.txtPremium);
+    }
+
+    @Benchmark
+    public void sendKeysPerField() {
+        n++;
+        cp.setPolicyName("Bench_" + n);
+        cp.setSumAssured("500000");
+        cp.setPremium("5000");
+    }
+
+    @Benchmark
+    public Object scriptedFill() {
+        n++;
+        return js.executeScript(SET_VALUES_JS, name, "Bench_" + n, sumAssured, "500000", premium, "5000");
+    }
+}
@@ -0,0 +1,75 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import pages.CreatePolicyPage;
+import pages.SlideBarMenuPage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findElement cost per locator style: the absolute XPaths used by SlideBarMenuPage and the
+ * //input[@id=...] XPaths used by LoginPage versus plain id / CSS equivalents.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+
+    /** Sidebar "Authorize" link: page-object absolute XPath vs CSS. */
+    @State(Scope.Benchmark)
+    public static class SidebarLocator {
+        @Param({"absoluteXPath", "css"})
+        public String style;
+        public By by;
+
+        @Setup
+        public void pick(BenchFixture fx) {
+            by = style.equals("absoluteXPath")
+                    ? new SlideBarMenuPage(fx.driver).linkPolicyAuthorize
+                    : By.cssSelector("#tables-nav > li:nth-child(2) > a");
+        }
+    }
+
+    /** Policy Name field: XPath-on-id (LoginPage style) vs By.id (CreatePolicyPage) vs CSS. */
+    @State(Scope.Benchmark)
+    public static class FieldLocator {
+        @Param({"idXPath", "id", "css"})
+        public String style;
+        public By by;
+
+        @Setup
+        public void pick(BenchFixture fx) {
+            if (style.equals("idXPath")) {
+                by = By.xpath("//input[@id='ContentPlaceHolder_Admin_txtPolicyName']");
+            } else if (style.equals("css")) {
+                by = By.cssSelector("#ContentPlaceHolder_Admin_txtPolicyName");
+            } else {
+                by = new CreatePolicyPage(fx.driver).txtPolicyName;
+            }
+        }
+    }
+
+    @Benchmark
+    public WebElement findSidebarLink(BenchFixture fx, SidebarLocator locator) {
+        return fx.driver.findElement(locator.by);
+    }
+
+    @Benchmark
+    public WebElement findFormField(BenchFixture fx, FieldLocator locator) {
+        return fx.driver.findElement(locator.by);
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.support.ui.Select;
+import pages.AuthorizePolicyPage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthorizePolicyPage builds "new Select(findElement(...))" on every call; compare that with
+ * reusing one resolved Select for the same select-then-read sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectBenchmark {
+
+    private AuthorizePolicyPage ap;
+    private Select status;
+    private boolean flip;
+
+    @Setup
+    public void resolve(BenchFixture fx) {
+        ap = new AuthorizePolicyPage(fx.driver);
+        status = new Select(fx.driver.findElement(ap.ddlStatus));
+    }
+
+    private String nextOption() {
+        flip = !flip;
+        return flip ? "Approved" : "Pending";
+    }
+
+    @Benchmark
+    public String pageObjectSelectPerCall() {
+        ap.selectStatus(nextOption());
+        return ap.getSelectedStatus();
+    }
+
+    @Benchmark
+    public String reusedSelect() {
+        status.selectByVisibleText(nextOption());
+        return status.getFirstSelectedOption().getText();
+    }
+}
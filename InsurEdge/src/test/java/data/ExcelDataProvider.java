@@ -1,55 +1,67 @@
 package data;
 
 import org.testng.annotations.DataProvider;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
-import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
 public class ExcelDataProvider {
 
+    // Excel under src/test/resources/testdata
+    public static final String POLICY_MODULE_DATA = "/testdata/PolicyModuleData.xlsx";
+
     @DataProvider(name = "mainCategoryDP")
-    public static Object[][] mainCategoryDP() {
-        // Excel under src/test/resources/testdata
-        String resourcePath = "/testdata/PolicyModuleData.xlsx";
+    public static Iterator<Object[]> mainCategoryDP() {
         String sheetName = "Authorize_MainCategory_Filter";
-        return readSheetFromClasspath(resourcePath, sheetName);
+        return columns(POLICY_MODULE_DATA, sheetName, "MainCategory");
     }
 
-    private static Object[][] readSheetFromClasspath(String resourcePath, String sheetName) {
-        List<Object[]> rows = new ArrayList<>();
-
-        try (InputStream is = ExcelDataProvider.class.getResourceAsStream(resourcePath);
-             Workbook wb = new XSSFWorkbook(is)) {
-
-            Sheet sheet = wb.getSheet(sheetName);
-            if (sheet == null) {
-                throw new RuntimeException("Sheet not found: " + sheetName);
-            }
-
-            Iterator<Row> it = sheet.iterator();
-            if (!it.hasNext()) return new Object[0][0]; // no data
-            Row header = it.next(); // skip header
-            int cols = header.getLastCellNum();
-            DataFormatter fmt = new DataFormatter();
+    /**
+     * The given columns (by header name) of a sheet as TestNG rows. Served from the WorkbookCache
+     * snapshot when one is already built; otherwise streamed so the first test starts right away,
+     * while the snapshot is built in the background for later providers and runs.
+     */
+    public static Iterator<Object[]> columns(String resourcePath, String sheetName, String... columns) {
+        if (WorkbookCache.isWarm(resourcePath)) {
+            return WorkbookCache.sheet(resourcePath, sheetName).rows(columns);
+        }
+        WorkbookCache.warmInBackground(resourcePath);
+        return streamColumns(resourcePath, sheetName, columns);
+    }
 
-            while (it.hasNext()) {
-                Row r = it.next();
+    /**
+     * Streams the given columns (by header name) of a sheet as TestNG rows.
+     * Rows are parsed lazily as TestNG asks for them; rows where every requested column is blank are skipped.
+     * Bypasses WorkbookCache, so memory stays flat for any sheet size.
+     */
+    public static Iterator<Object[]> streamColumns(String resourcePath, String sheetName, final String... columns) {
+        StreamingSheetReader reader = StreamingSheetReader.open(resourcePath, sheetName);
 
-                // read first column only: MainCategory
-                String mainCategory = fmt.formatCellValue(r.getCell(0)).trim();
-                if (mainCategory.isEmpty()) continue;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED), false)
+                .map(row -> pick(row, columns, sheetName))
+                .filter(ExcelDataProvider::hasAnyValue)
+                .iterator();
+    }
 
-                rows.add(new Object[]{ mainCategory });
+    private static Object[] pick(Map<String, String> row, String[] columns, String sheetName) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String v = row.get(columns[i]);
+            if (v == null) {
+                throw new RuntimeException("Column not found: " + columns[i] + " in sheet " + sheetName);
             }
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed reading Excel from classpath: " + e.getMessage(), e);
+            values[i] = v;
         }
+        return values;
+    }
 
-        return rows.toArray(new Object[0][0]);
+    private static boolean hasAnyValue(Object[] values) {
+        for (Object v : values) {
+            if (!((String) v).isEmpty()) return true;
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
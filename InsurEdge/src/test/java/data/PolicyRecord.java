@@ -0,0 +1,56 @@
+package data;
+
+import java.util.Objects;
+
+/**
+ * One policy as entered on the Create Policy form.
+ *
+ * Amounts are kept as the text typed into the form, so negative tests can use invalid input
+ * ("-1", "abc"). A null subCategory means "first real option", matching the tests' selectByIndex(1);
+ * a null field is left untouched when filling.
+ */
+public class PolicyRecord {
+
+    public final String mainCategory;
+    public final String subCategory;
+    public final String policyName;
+    public final String sumAssured;
+    public final String premium;
+    public final Integer tenure;
+
+    public PolicyRecord(String mainCategory, String subCategory, String policyName,
+                        String sumAssured, String premium, Integer tenure) {
+        this.mainCategory = mainCategory;
+        this.subCategory = subCategory;
+        this.policyName = policyName;
+        this.sumAssured = sumAssured;
+        this.premium = premium;
+        this.tenure = tenure;
+    }
+
+    /** Same policy under another name (e.g. a unique, timestamped one). */
+    public PolicyRecord withPolicyName(String name) {
+        return new PolicyRecord(mainCategory, subCategory, name, sumAssured, premium, tenure);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PolicyRecord)) return false;
+        PolicyRecord p = (PolicyRecord) o;
+        return Objects.equals(mainCategory, p.mainCategory) && Objects.equals(subCategory, p.subCategory)
+                && Objects.equals(policyName, p.policyName) && Objects.equals(sumAssured, p.sumAssured)
+                && Objects.equals(premium, p.premium) && Objects.equals(tenure, p.tenure);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mainCategory, subCategory, policyName, sumAssured, premium, tenure);
+    }
+
+    @Override
+    public String toString() {
+        return "PolicyRecord{" + mainCategory + " / " + subCategory + ", name=" + policyName
+                + ", sumAssured=" + sumAssured + ", premium=" + premium + ", tenure=" + tenure + "}";
+    }
+}
@@ -0,0 +1,107 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Endless supplies of PolicyRecords for bulk seeding (http.PolicySeeder).
+ *
+ * - fromSheet: rows of an Excel sheet (columns MainCategory, SubCategory, PolicyName,
+ *   SumAssured, Premium, Tenure; only MainCategory is required), repeated in order.
+ * - generated: valid random policies over the given main categories, reproducible per seed.
+ *
+ * Policy names here are only a base; the seeder makes each created name unique.
+ */
+public class PolicySource {
+
+    private PolicySource() { }
+
+    /** The sheet's rows as records, cycling forever. */
+    public static Iterator<PolicyRecord> fromSheet(String resourcePath, String sheetName) {
+        SheetData sheet = WorkbookCache.sheet(resourcePath, sheetName);
+        List<PolicyRecord> records = new ArrayList<>();
+        for (int r = 0; r < sheet.rowCount(); r++) {
+            String main = sheet.value(r, "MainCategory");
+            if (main.isEmpty()) continue;
+            String tenure = optional(sheet, r, "Tenure");
+            records.add(new PolicyRecord(main, optional(sheet, r, "SubCategory"),
+                    orDefault(optional(sheet, r, "PolicyName"), "Seed"),
+                    orDefault(optional(sheet, r, "SumAssured"), "500000"),
+                    orDefault(optional(sheet, r, "Premium"), "5000"),
+                    tenure == null ? 5 : (int) Double.parseDouble(tenure)));
+        }
+        if (records.isEmpty()) {
+            throw new RuntimeException("No policies found in sheet " + sheetName);
+        }
+        return cycle(records);
+    }
+
+    /** Random valid policies (first Sub Category option, round amounts, common tenures). */
+    public static Iterator<PolicyRecord> generated(List<String> mainCategories, long seed) {
+        if (mainCategories.isEmpty()) {
+            throw new IllegalArgumentException("No main categories to generate policies for");
+        }
+        final List<String> categories = new ArrayList<>(mainCategories);
+        final Random random = new Random(seed);
+        final int[] tenures = {5, 10, 15, 20};
+        return new Iterator<PolicyRecord>() {
+            private int n;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public synchronized PolicyRecord next() {
+                String main = categories.get(n++ % categories.size());
+                long sum = 100_000L * (1 + random.nextInt(50));
+                return new PolicyRecord(main, null, "Seed", String.valueOf(sum),
+                        String.valueOf(sum / 100), tenures[random.nextInt(tenures.length)]);
+            }
+        };
+    }
+
+    /**
+     * Main categories listed in the Authorize filter sheet (what the load test searches for).
+     * Policies are generated over the Create Policy page's own options instead
+     * (http.PolicySeeder.mainCategories()), which need not match the filter's.
+     */
+    public static List<String> filterCategories() {
+        List<String> categories = new ArrayList<>();
+        Iterator<Object[]> rows = WorkbookCache.sheet(ExcelDataProvider.POLICY_MODULE_DATA,
+                "Authorize_MainCategory_Filter").rows("MainCategory");
+        while (rows.hasNext()) categories.add((String) rows.next()[0]);
+        return Collections.unmodifiableList(categories);
+    }
+
+    private static Iterator<PolicyRecord> cycle(final List<PolicyRecord> records) {
+        return new Iterator<PolicyRecord>() {
+            private int n;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public synchronized PolicyRecord next() {
+                return records.get(n++ % records.size());
+            }
+        };
+    }
+
+    private static String optional(SheetData sheet, int row, String header) {
+        int col = sheet.columnIndex(header);
+        if (col < 0) return null;
+        String v = sheet.value(row, col).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null ? fallback : value;
+    }
+}
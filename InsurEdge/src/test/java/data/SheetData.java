@@ -0,0 +1,171 @@
+package data;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * One sheet held in columnar, dictionary-encoded form: each column stores its distinct values
+ * once plus an int code per row. Immutable and safe to share between parallel data providers.
+ */
+public class SheetData {
+
+    private final String name;
+    private final List<String> headers;
+    private final String[][] dictionaries;   // [column][code] -> value
+    private final int[][] codes;             // [column][row]  -> code
+    private final int rowCount;
+
+    private SheetData(String name, List<String> headers, String[][] dictionaries, int[][] codes, int rowCount) {
+        this.name = name;
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        this.dictionaries = dictionaries;
+        this.codes = codes;
+        this.rowCount = rowCount;
+    }
+
+    /** Drains a streaming reader into columnar form. */
+    static SheetData build(String name, StreamingSheetReader reader) {
+        List<Map<String, Integer>> lookups = new ArrayList<>();
+        List<List<String>> dicts = new ArrayList<>();
+        List<int[]> cols = new ArrayList<>();
+        int rows = 0;
+
+        while (reader.hasNext()) {
+            Map<String, String> row = reader.next();
+            List<String> header = reader.header();
+            while (cols.size() < header.size()) {
+                lookups.add(new HashMap<String, Integer>());
+                dicts.add(new ArrayList<String>());
+                cols.add(new int[16]);
+            }
+            for (int c = 0; c < header.size(); c++) {
+                String v = row.get(header.get(c));
+                if (v == null) v = "";
+                Integer code = lookups.get(c).get(v);
+                if (code == null) {
+                    code = dicts.get(c).size();
+                    dicts.get(c).add(v);
+                    lookups.get(c).put(v, code);
+                }
+                int[] col = cols.get(c);
+                if (rows == col.length) {
+                    col = Arrays.copyOf(col, col.length * 2);
+                    cols.set(c, col);
+                }
+                col[rows] = code;
+            }
+            rows++;
+        }
+
+        List<String> header = reader.header();
+        String[][] dictionaries = new String[header.size()][];
+        int[][] codes = new int[header.size()][];
+        for (int c = 0; c < header.size(); c++) {
+            dictionaries[c] = c < dicts.size() ? dicts.get(c).toArray(new String[0]) : new String[0];
+            codes[c] = c < cols.size() ? Arrays.copyOf(cols.get(c), rows) : new int[rows];
+        }
+        return new SheetData(name, header, dictionaries, codes, rows);
+    }
+
+    // ----- Binary form -----
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeUTF(name);
+        out.writeInt(rowCount);
+        out.writeInt(headers.size());
+        for (int c = 0; c < headers.size(); c++) {
+            out.writeUTF(headers.get(c));
+            out.writeInt(dictionaries[c].length);
+            for (String v : dictionaries[c]) out.writeUTF(v);
+            for (int r = 0; r < rowCount; r++) out.writeInt(codes[c][r]);
+        }
+    }
+
+    static SheetData read(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        int rowCount = in.readInt();
+        int colCount = in.readInt();
+        List<String> headers = new ArrayList<>(colCount);
+        String[][] dictionaries = new String[colCount][];
+        int[][] codes = new int[colCount][];
+        for (int c = 0; c < colCount; c++) {
+            headers.add(in.readUTF());
+            String[] dict = new String[in.readInt()];
+            for (int i = 0; i < dict.length; i++) dict[i] = in.readUTF();
+            dictionaries[c] = dict;
+            int[] col = new int[rowCount];
+            for (int r = 0; r < rowCount; r++) col[r] = in.readInt();
+            codes[c] = col;
+        }
+        return new SheetData(name, headers, dictionaries, codes, rowCount);
+    }
+
+    // ----- Access -----
+
+    public String getName()          { return name; }
+    public List<String> getHeaders() { return headers; }
+    public int rowCount()            { return rowCount; }
+
+    /** Column index of a header name, or -1. */
+    public int columnIndex(String header) {
+        return headers.indexOf(header);
+    }
+
+    public String value(int row, int col) {
+        return dictionaries[col][codes[col][row]];
+    }
+
+    public String value(int row, String header) {
+        return value(row, requireColumn(header));
+    }
+
+    /** The given columns as TestNG rows, skipping rows where every requested column is blank. */
+    public Iterator<Object[]> rows(String... columns) {
+        final int[] idx = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) idx[i] = requireColumn(columns[i]);
+
+        return new Iterator<Object[]>() {
+            private int row = skipBlank(0);
+
+            @Override
+            public boolean hasNext() {
+                return row < rowCount;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Object[] values = new Object[idx.length];
+                for (int i = 0; i < idx.length; i++) values[i] = value(row, idx[i]);
+                row = skipBlank(row + 1);
+                return values;
+            }
+
+            private int skipBlank(int from) {
+                for (int r = from; r < rowCount; r++) {
+                    for (int c : idx) {
+                        if (!value(r, c).isEmpty()) return r;
+                    }
+                }
+                return rowCount;
+            }
+        };
+    }
+
+    private int requireColumn(String header) {
+        int c = columnIndex(header);
+        if (c < 0) {
+            throw new RuntimeException("Column not found: " + header + " in sheet " + name);
+        }
+        return c;
+    }
+}
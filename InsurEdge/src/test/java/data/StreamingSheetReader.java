@@ -0,0 +1,218 @@
+package data;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams the rows of one .xlsx sheet with POI's SAX/event API instead of building an XSSFWorkbook DOM.
+ *
+ * The first row is the header; every later row is returned as header name -> formatted cell text.
+ * Parsing runs on a background thread that hands rows over through a small bounded queue, so
+ * memory stays flat for any sheet size and the first row is available as soon as it is parsed.
+ */
+public class StreamingSheetReader implements Iterator<Map<String, String>>, AutoCloseable {
+
+    private static final int QUEUE_SIZE = 256;
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Thread parser;
+    private volatile boolean closed;
+    private volatile List<String> header = Collections.emptyList();
+    private Object next;
+
+    private StreamingSheetReader(final String resourcePath, final String sheetName) {
+        parser = new Thread(() -> parse(resourcePath, sheetName), "xlsx-stream-" + sheetName);
+        parser.setDaemon(true);
+    }
+
+    /** Starts streaming the given sheet of a classpath workbook (e.g. "/testdata/PolicyModuleData.xlsx"). */
+    public static StreamingSheetReader open(String resourcePath, String sheetName) {
+        StreamingSheetReader reader = new StreamingSheetReader(resourcePath, sheetName);
+        reader.parser.start();
+        return reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reading Excel rows", e);
+            }
+        }
+        if (next instanceof Throwable) {
+            Throwable t = (Throwable) next;
+            next = END;
+            throw new RuntimeException("Failed reading Excel from classpath: " + t.getMessage(), t);
+        }
+        return next != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Map<String, String> row = (Map<String, String>) next;
+        next = null;
+        return row;
+    }
+
+    /** Header names from row 1 (blank names kept as ""); valid once hasNext() has been called. */
+    public List<String> header() {
+        return header;
+    }
+
+    /** Names of all sheets in a classpath workbook, in workbook order. */
+    public static List<String> sheetNames(String resourcePath) {
+        List<String> names = new ArrayList<>();
+        try (OPCPackage pkg = openPackage(resourcePath)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            while (sheets.hasNext()) {
+                // Only the name is needed; close the sheet's stream unread
+                sheets.next().close();
+                names.add(sheets.getSheetName());
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed reading Excel from classpath: " + e.getMessage(), e);
+        }
+        return names;
+    }
+
+    /** Stops the background parser (e.g. when a consumer abandons the iterator early). */
+    @Override
+    public void close() {
+        closed = true;
+        parser.interrupt();
+        queue.clear();
+    }
+
+    // ----- Background parsing -----
+
+    private void parse(String resourcePath, String sheetName) {
+        try (OPCPackage pkg = openPackage(resourcePath)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            boolean found = false;
+            while (sheets.hasNext() && !found) {
+                try (InputStream sheet = sheets.next()) {
+                    if (!sheetName.equals(sheets.getSheetName())) continue;
+                    found = true;
+
+                    XMLReader xml = XMLHelper.newXMLReader();
+                    xml.setContentHandler(new XSSFSheetXMLHandler(
+                            styles, null, strings, new RowHandler(), new DataFormatter(), false));
+                    xml.parse(new InputSource(sheet));
+                }
+            }
+            if (!found) {
+                throw new RuntimeException("Sheet not found: " + sheetName);
+            }
+            put(END);
+        } catch (StopParsing stop) {
+            // Consumer closed the reader — nothing left to hand over
+        } catch (Throwable t) {
+            if (!closed) {
+                queue.clear();
+                queue.offer(t);
+            }
+        }
+    }
+
+    /** Opens straight from disk when possible (zip is read lazily), else from the classpath stream. */
+    private static OPCPackage openPackage(String resourcePath) throws Exception {
+        URL url = StreamingSheetReader.class.getResource(resourcePath);
+        if (url == null) {
+            throw new RuntimeException("Resource not found on classpath: " + resourcePath);
+        }
+        if ("file".equals(url.getProtocol())) {
+            return OPCPackage.open(new File(url.toURI()), PackageAccess.READ);
+        }
+        try (InputStream is = url.openStream()) {
+            return OPCPackage.open(is);
+        }
+    }
+
+    private void put(Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            throw new StopParsing();
+        }
+        if (closed) throw new StopParsing();
+    }
+
+    /** Thrown inside the SAX callbacks to abort parsing once the consumer has gone away. */
+    private static class StopParsing extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StopParsing() {
+            super(null, null, false, false);
+        }
+    }
+
+    /** Collects each row's cells and maps them to the header names from row 1. */
+    private class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private List<String> names;
+        private final List<String> cells = new ArrayList<>();
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = new CellReference(cellReference).getCol();
+            while (cells.size() <= col) cells.add("");
+            cells.set(col, formattedValue == null ? "" : formattedValue.trim());
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (names == null) {
+                names = new ArrayList<>(cells);
+                header = Collections.unmodifiableList(names);
+                return;
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                if (name.isEmpty()) continue;
+                row.put(name, i < cells.size() ? cells.get(i) : "");
+            }
+            put(Collections.unmodifiableMap(row));
+        }
+    }
+}
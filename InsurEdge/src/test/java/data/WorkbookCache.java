@@ -0,0 +1,176 @@
+package data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses each test-data workbook once and serves every data provider from a compact snapshot.
+ *
+ * Snapshots live in memory for the rest of the JVM and on disk (-Dtestdata.cache.dir, default
+ * target/testdata-cache) across runs. Disk snapshots are keyed by the SHA-256 of the workbook
+ * bytes, so they are rebuilt only when the workbook content changes. Until a snapshot exists,
+ * ExcelDataProvider streams rows straight from the workbook and builds it here in the background.
+ */
+public class WorkbookCache {
+
+    public static final Path CACHE_DIR = Paths.get(System.getProperty("testdata.cache.dir", "target/testdata-cache"));
+
+    private static final int MAGIC = 0x49455742;   // "IEWB"
+    private static final int VERSION = 1;
+
+    // resource path -> sheets; classpath resources don't change within a run, so no re-hash here
+    private static final Map<String, Map<String, SheetData>> MEMORY = new ConcurrentHashMap<>();
+
+    // resource paths with a background build started (at most one per workbook)
+    private static final Set<String> WARMING = ConcurrentHashMap.newKeySet();
+
+    /** Returns one sheet of a classpath workbook (e.g. "/testdata/PolicyModuleData.xlsx"). */
+    public static SheetData sheet(String resourcePath, String sheetName) {
+        SheetData sheet = workbook(resourcePath).get(sheetName);
+        if (sheet == null) {
+            throw new RuntimeException("Sheet not found: " + sheetName);
+        }
+        return sheet;
+    }
+
+    /** All sheets of a classpath workbook by name, in workbook order. */
+    public static Map<String, SheetData> workbook(String resourcePath) {
+        Map<String, SheetData> cached = MEMORY.get(resourcePath);
+        if (cached != null) return cached;
+
+        synchronized (WorkbookCache.class) {
+            cached = MEMORY.get(resourcePath);
+            if (cached != null) return cached;
+
+            Path file = snapshotFile(resourcePath);
+            Map<String, SheetData> sheets = Files.isRegularFile(file) ? load(file) : null;
+            if (sheets == null) {
+                sheets = parse(resourcePath);
+                save(file, sheets);
+            }
+            MEMORY.put(resourcePath, sheets);
+            return sheets;
+        }
+    }
+
+    /** True if workbook() can answer from memory or a disk snapshot of the current content, without parsing. */
+    public static boolean isWarm(String resourcePath) {
+        return MEMORY.containsKey(resourcePath) || Files.isRegularFile(snapshotFile(resourcePath));
+    }
+
+    /** Builds the workbook's snapshot on a daemon thread, once; failures only leave the cache cold. */
+    public static void warmInBackground(final String resourcePath) {
+        if (MEMORY.containsKey(resourcePath) || !WARMING.add(resourcePath)) return;
+        Thread t = new Thread(() -> {
+            try {
+                workbook(resourcePath);
+            } catch (RuntimeException ignored) {
+                // Cache is an optimisation only; the next caller of workbook() sees the error
+            } finally {
+                WARMING.remove(resourcePath);
+            }
+        }, "workbook-cache-" + baseName(resourcePath));
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // ----- Build / persist -----
+
+    static Map<String, SheetData> parse(String resourcePath) {
+        Map<String, SheetData> sheets = new LinkedHashMap<>();
+        for (String name : StreamingSheetReader.sheetNames(resourcePath)) {
+            try (StreamingSheetReader reader = StreamingSheetReader.open(resourcePath, name)) {
+                sheets.put(name, SheetData.build(name, reader));
+            }
+        }
+        return Collections.unmodifiableMap(sheets);
+    }
+
+    /** Reads a snapshot file; returns null (forcing a rebuild) if it is unreadable or from another version. */
+    static Map<String, SheetData> load(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            int count = in.readInt();
+            Map<String, SheetData> sheets = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                SheetData sheet = SheetData.read(in);
+                sheets.put(sheet.getName(), sheet);
+            }
+            return Collections.unmodifiableMap(sheets);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Best-effort write (temp file + atomic move); a read-only disk only costs a re-parse next run. */
+    static void save(Path file, Map<String, SheetData> sheets) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "wb", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sheets.size());
+                for (SheetData sheet : sheets.values()) sheet.write(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Drop snapshots of older versions of the same workbook
+            String prefix = file.getFileName().toString();
+            prefix = prefix.substring(0, prefix.lastIndexOf('-') + 1);
+            try (DirectoryStream<Path> old = Files.newDirectoryStream(file.getParent(), prefix + "*.bin")) {
+                for (Path p : old) {
+                    if (!p.equals(file)) Files.deleteIfExists(p);
+                }
+            }
+        } catch (IOException ignored) {
+            // Cache is an optimisation only
+        }
+    }
+
+    // ----- Helpers -----
+
+    private static Path snapshotFile(String resourcePath) {
+        return CACHE_DIR.resolve(baseName(resourcePath) + "-" + hash(resourcePath) + ".bin");
+    }
+
+    private static String hash(String resourcePath) {
+        try (InputStream is = WorkbookCache.class.getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                throw new RuntimeException("Resource not found on classpath: " + resourcePath);
+            }
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[8192];
+            for (int n; (n = is.read(buf)) > 0; ) sha.update(buf, 0, n);
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed hashing " + resourcePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String baseName(String resourcePath) {
+        String name = resourcePath.substring(resourcePath.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
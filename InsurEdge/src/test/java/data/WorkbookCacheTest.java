@@ -0,0 +1,137 @@
+package data;
+
+import base.TestData;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/** Workbook snapshots written and read back, against the real PolicyModuleData.xlsx (no browser). */
+public class WorkbookCacheTest {
+
+    private Path dir;
+    private Map<String, SheetData> parsed;
+
+    @BeforeClass
+    public void parseWorkbook() throws IOException {
+        dir = TestData.tempDir("workbook-cache");
+        parsed = WorkbookCache.parse(ExcelDataProvider.POLICY_MODULE_DATA);
+        Assert.assertFalse(parsed.isEmpty(), "No sheets parsed");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDir() throws IOException {
+        TestData.deleteRecursively(dir);
+    }
+
+    @Test
+    public void sheetWrittenThenReadIsEqual() throws IOException {
+        for (SheetData sheet : parsed.values()) {
+            byte[] bytes = bytes(sheet);
+            SheetData read = SheetData.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+            assertSameSheet(read, sheet);
+            Assert.assertEquals(bytes(read), bytes, sheet.getName() + ": snapshot not stable");
+        }
+    }
+
+    @Test
+    public void workbookSnapshotRoundTrip() {
+        Path file = dir.resolve("PolicyModuleData-abc.bin");
+        WorkbookCache.save(file, parsed);
+        Map<String, SheetData> loaded = WorkbookCache.load(file);
+
+        Assert.assertNotNull(loaded, "Snapshot not readable");
+        Assert.assertEquals(new ArrayList<>(loaded.keySet()), new ArrayList<>(parsed.keySet()), "sheet order");
+        for (SheetData sheet : parsed.values()) assertSameSheet(loaded.get(sheet.getName()), sheet);
+    }
+
+    @Test
+    public void saveReplacesOlderSnapshotsOfTheWorkbook() throws IOException {
+        Path older = dir.resolve("Replaced-old.bin");
+        Files.write(older, new byte[] {1, 2, 3});
+        WorkbookCache.save(dir.resolve("Replaced-new.bin"), parsed);
+        Assert.assertFalse(Files.exists(older));
+        Assert.assertTrue(Files.exists(dir.resolve("Replaced-new.bin")));
+    }
+
+    @Test
+    public void foreignOrTruncatedSnapshotForcesARebuild() throws IOException {
+        Path foreign = dir.resolve("Foreign-x.bin");
+        Files.write(foreign, new byte[] {0, 0, 0, 1, 0, 0, 0, 1});
+        Assert.assertNull(WorkbookCache.load(foreign));
+
+        Path full = dir.resolve("Truncated-y.bin");
+        WorkbookCache.save(full, parsed);
+        byte[] bytes = Files.readAllBytes(full);
+        Path truncated = dir.resolve("Truncated-z.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        Assert.assertNull(WorkbookCache.load(truncated));
+    }
+
+    @Test
+    public void cachedSheetMatchesAFreshParse() {
+        for (SheetData sheet : parsed.values()) {
+            assertSameSheet(WorkbookCache.sheet(ExcelDataProvider.POLICY_MODULE_DATA, sheet.getName()), sheet);
+        }
+        Assert.assertSame(WorkbookCache.workbook(ExcelDataProvider.POLICY_MODULE_DATA),
+                WorkbookCache.workbook(ExcelDataProvider.POLICY_MODULE_DATA));
+        Assert.assertThrows(RuntimeException.class,
+                () -> WorkbookCache.sheet(ExcelDataProvider.POLICY_MODULE_DATA, "NoSuchSheet"));
+    }
+
+    @Test
+    public void streamedColumnsMatchTheSnapshot() {
+        for (SheetData sheet : parsed.values()) {
+            String[] columns = sheet.getHeaders().stream().filter(h -> !h.isEmpty()).toArray(String[]::new);
+            Assert.assertEquals(drain(ExcelDataProvider.streamColumns(ExcelDataProvider.POLICY_MODULE_DATA,
+                    sheet.getName(), columns)), drain(sheet.rows(columns)), sheet.getName());
+        }
+        Assert.assertTrue(WorkbookCache.isWarm(ExcelDataProvider.POLICY_MODULE_DATA));
+    }
+
+    // ----- Helpers -----
+
+    private static List<List<Object>> drain(Iterator<Object[]> rows) {
+        List<List<Object>> all = new ArrayList<>();
+        rows.forEachRemaining(r -> all.add(Arrays.asList(r)));
+        return all;
+    }
+
+    private static byte[] bytes(SheetData sheet) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buf)) {
+            sheet.write(out);
+        }
+        return buf.toByteArray();
+    }
+
+    private static void assertSameSheet(SheetData actual, SheetData expected) {
+        Assert.assertNotNull(actual, "Sheet missing: " + expected.getName());
+        Assert.assertEquals(actual.getName(), expected.getName());
+        Assert.assertEquals(actual.getHeaders(), expected.getHeaders(), expected.getName() + " headers");
+        Assert.assertEquals(cells(actual), cells(expected), expected.getName() + " cells");
+    }
+
+    private static List<List<String>> cells(SheetData sheet) {
+        List<List<String>> rows = new ArrayList<>(sheet.rowCount());
+        for (int r = 0; r < sheet.rowCount(); r++) {
+            List<String> row = new ArrayList<>();
+            for (int c = 0; c < sheet.getHeaders().size(); c++) row.add(sheet.value(r, c));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
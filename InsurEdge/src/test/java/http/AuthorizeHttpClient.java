@@ -0,0 +1,98 @@
+package http;
+
+import org.openqa.selenium.Cookie;
+import pages.AuthorizePolicyPage;
+import pages.GridSnapshot;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authorize Policy filter over plain HTTP: the same form posts the browser sends for
+ * "pick Main Category, click Search" (and pager clicks), with the gvPolicies grid read from
+ * the response HTML. Lets data checks run without a browser round trip per control.
+ *
+ * The page is fetched once; every search posts back from that rendering (its __VIEWSTATE /
+ * __EVENTVALIDATION), so searches don't depend on each other. Each instance signs in with only
+ * the forms ticket and so gets its own ASP.NET session; ASP.NET runs one session's requests one
+ * at a time, so for parallel searches use one instance per thread.
+ * Against the stand-in server (replay) the posts match the browser's recordings, as volatile
+ * view-state fields are ignored when matching.
+ */
+public class AuthorizeHttpClient {
+
+    public static final String MAIN_CATEGORY = "ddlMainCategory";
+    public static final String SEARCH_BUTTON = "btnSearch";
+
+    private final WebFormsClient client;
+    private final String pageUrl;
+    private volatile WebFormsClient.Page initial;
+
+    /** @param pageUrl Authorize page URL (e.g. PageState.urlOf("AuthorizePolicy"))
+     *  @param loginUrl login page, to detect rejected cookies (may be null) */
+    public AuthorizeHttpClient(String pageUrl, Collection<Cookie> cookies, String loginUrl) {
+        URI uri = URI.create(pageUrl);
+        this.client = new WebFormsClient(URI.create(uri.getScheme() + "://" + uri.getAuthority()),
+                WebFormsClient.ticketOnly(cookies), loginUrl);
+        this.pageUrl = pageUrl;
+    }
+
+    /** Main Category options (visible text), without the leading "Select ..." placeholder. */
+    public List<String> mainCategories() {
+        HtmlForm form = initial().form;
+        List<String> texts = form.optionTexts(form.nameOf(MAIN_CATEGORY));
+        return texts.isEmpty() ? texts : new ArrayList<>(texts.subList(1, texts.size()));
+    }
+
+    /** First grid page after filtering by Main Category (visible text) and clicking Search. */
+    public GridSnapshot search(String mainCategory) {
+        return HtmlGrid.parse(searchPage(mainCategory).html, AuthorizePolicyPage.GRID_ID);
+    }
+
+    /** Data rows of every grid page for a Main Category (pager followed by postbacks). */
+    public List<List<String>> searchAllRows(String mainCategory) {
+        WebFormsClient.Page page = searchPage(mainCategory);
+        List<List<String>> rows = new ArrayList<>();
+        while (true) {
+            GridSnapshot snap = HtmlGrid.parse(page.html, AuthorizePolicyPage.GRID_ID);
+            rows.addAll(snap.dataRows());
+            int next = snap.getCurrentPage() + 1;
+            String target = HtmlGrid.pagerTarget(page.html);
+            if (!snap.hasPageLink(next) || target == null) break;
+            page = client.postBack(page, Collections.<String, String>emptyMap(), target, "Page$" + next);
+        }
+        return rows;
+    }
+
+    private WebFormsClient.Page searchPage(String mainCategory) {
+        WebFormsClient.Page page = initial();
+        String ddl = page.form.nameOf(MAIN_CATEGORY);
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(ddl, page.form.optionValue(ddl, mainCategory));
+
+        if (page.form.autoPostsBack(ddl)) {
+            // Server rebuilds Sub Category for the new Main Category before Search is accepted
+            page = client.postBack(page, values, ddl, "");
+        }
+        return client.submit(page, values, page.form.nameOf(SEARCH_BUTTON));
+    }
+
+    private WebFormsClient.Page initial() {
+        WebFormsClient.Page page = initial;
+        if (page == null) {
+            synchronized (this) {
+                page = initial;
+                if (page == null) {
+                    page = client.get(pageUrl);
+                    initial = page;
+                }
+            }
+        }
+        return page;
+    }
+}
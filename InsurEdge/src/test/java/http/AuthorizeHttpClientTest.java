@@ -0,0 +1,133 @@
+package http;
+
+import org.openqa.selenium.Cookie;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import pages.GridSnapshot;
+import standin.RecordingStore;
+import standin.StandInServer;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static http.Fixtures.GRID;
+import static http.Fixtures.MAIN_CATEGORY;
+import static http.Fixtures.PAGE_PATH;
+import static http.Fixtures.SEARCH;
+
+/**
+ * AuthorizeHttpClient (and WebFormsClient under it) against a replaying StandInServer that
+ * serves the recorded Authorize pages. Recordings match on every posted value except view
+ * state, so a wrong field or option value finds no (or the wrong) response.
+ */
+public class AuthorizeHttpClientTest {
+
+    private Path dir;
+    private StandInServer server;
+    private AuthorizeHttpClient client;
+
+    @BeforeClass
+    public void startStandIn() throws Exception {
+        dir = Files.createTempDirectory("standin-http");
+        RecordingStore store = new RecordingStore(dir);
+        Fixtures.recordGet(store, PAGE_PATH, "authorize-default.html");
+        // Life: AutoPostBack, Search, then the pager link to page 2
+        Fixtures.recordPost(store, "authorize-default.html", postBack(MAIN_CATEGORY, "", "1"), "authorize-life.html");
+        Fixtures.recordPost(store, "authorize-life.html", search("1"), "authorize-life.html");
+        Fixtures.recordPost(store, "authorize-life.html", postBack(GRID, "Page$2", null), "authorize-life-p2.html");
+        // Auto: one page
+        Fixtures.recordPost(store, "authorize-default.html", postBack(MAIN_CATEGORY, "", "2"), "authorize-auto.html");
+        Fixtures.recordPost(store, "authorize-auto.html", search("2"), "authorize-auto.html");
+
+        server = new StandInServer(StandInServer.Mode.REPLAY, "https://live.invalid", dir,
+                new HashMap<String, Long>(), 1);
+        server.start(0);
+        client = new AuthorizeHttpClient(server.getLocalOrigin() + PAGE_PATH, Collections.<Cookie>emptyList(),
+                server.getLocalOrigin() + "/LoginPage");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStandIn() throws Exception {
+        if (server != null) server.stop();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Test
+    public void listsMainCategoriesWithoutThePlaceholder() {
+        Assert.assertEquals(client.mainCategories(),
+                Arrays.asList("Life", "Auto", "Owner's Liability", "Travel & Health"));
+    }
+
+    @Test
+    public void searchReturnsTheFirstFilteredPage() {
+        GridSnapshot snap = client.search("Life");
+        Assert.assertEquals(snap.getCurrentPage(), 1);
+        Assert.assertEquals(snap.column(0), Arrays.asList("Family Shield", "Golden Years"));
+    }
+
+    @Test
+    public void searchAllRowsFollowsThePager() {
+        Assert.assertEquals(names(client.searchAllRows("Life")),
+                Arrays.asList("Family Shield", "Golden Years", "Young Start"));
+        Assert.assertEquals(names(client.searchAllRows("Auto")), Collections.singletonList("Road Safe"));
+    }
+
+    @Test
+    public void unknownCategoryFailsBeforePosting() {
+        Assert.assertThrows(RuntimeException.class, () -> client.search("Marine"));
+    }
+
+    @Test
+    public void rejectedSessionIsReported() throws Exception {
+        Path loginDir = Files.createTempDirectory("standin-login");
+        RecordingStore store = new RecordingStore(loginDir);
+        store.save("GET", PAGE_PATH, new byte[0], Fixtures.redirect("/LoginPage?ReturnUrl=%2fAdmin%2fAuthorizePolicy"));
+        store.save("GET", "/LoginPage?ReturnUrl=%2fAdmin%2fAuthorizePolicy", new byte[0],
+                Fixtures.page(200, "authorize-default.html"));
+        StandInServer expired = new StandInServer(StandInServer.Mode.REPLAY, "https://live.invalid", loginDir,
+                new HashMap<String, Long>(), 1);
+        expired.start(0);
+        try {
+            WebFormsClient http = new WebFormsClient(URI.create(expired.getLocalOrigin()),
+                    Collections.<Cookie>emptyList(), expired.getLocalOrigin() + "/LoginPage");
+            Assert.assertThrows(IllegalStateException.class, () -> http.get(expired.getLocalOrigin() + PAGE_PATH));
+            Assert.assertThrows(RuntimeException.class, () -> http.get(expired.getLocalOrigin() + "/NotRecorded"));
+        } finally {
+            expired.stop();
+            Fixtures.deleteRecursively(loginDir);
+        }
+    }
+
+    // ----- Helpers -----
+
+    private static Map<String, String> postBack(String target, String argument, String mainCategory) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (mainCategory != null) values.put(MAIN_CATEGORY, mainCategory);
+        values.put("__EVENTTARGET", target);
+        values.put("__EVENTARGUMENT", argument);
+        return values;
+    }
+
+    private static Map<String, String> search(String mainCategory) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(MAIN_CATEGORY, mainCategory);
+        values.put(SEARCH, "Search");
+        values.put("__EVENTTARGET", "");
+        values.put("__EVENTARGUMENT", "");
+        return values;
+    }
+
+    private static List<String> names(List<List<String>> rows) {
+        return rows.stream().map(r -> r.get(0)).collect(Collectors.toList());
+    }
+}
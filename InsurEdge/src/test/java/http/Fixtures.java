@@ -0,0 +1,89 @@
+package http;
+
+import standin.RecordingStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Recorded Authorize Policy pages (src/test/resources/http) and helpers to serve them from a
+ * stand-in recording directory, for the offline http.* tests.
+ */
+final class Fixtures {
+
+    static final String PAGE_PATH = "/Admin/AuthorizePolicy";
+    static final URI PAGE = URI.create("http://127.0.0.1" + PAGE_PATH);
+
+    static final String MAIN_CATEGORY = "ctl00$ContentPlaceHolder_Admin$ddlMainCategory";
+    static final String SUB_CATEGORY = "ctl00$ContentPlaceHolder_Admin$ddlSubCategory";
+    static final String STATUS = "ctl00$ContentPlaceHolder_Admin$ddlStatus";
+    static final String SEARCH = "ctl00$ContentPlaceHolder_Admin$btnSearch";
+    static final String GRID = "ctl00$ContentPlaceHolder_Admin$gvPolicies";
+
+    private Fixtures() { }
+
+    /** A fixture page, e.g. html("authorize-default.html"). */
+    static String html(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/http/" + name)) {
+            if (in == null) throw new RuntimeException("Fixture not found: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Records a GET of 'path' answered with a fixture page. */
+    static void recordGet(RecordingStore store, String path, String response) throws IOException {
+        store.save("GET", path, new byte[0], page(200, response));
+    }
+
+    /**
+     * Records the postback the browser sends from fixture page 'from' (all its successful
+     * controls, overridden by 'values') answered with fixture page 'response'.
+     */
+    static void recordPost(RecordingStore store, String from, Map<String, String> values, String response)
+            throws IOException {
+        Map<String, String> fields = HtmlForm.parse(PAGE, html(from)).fields();
+        fields.putAll(values);
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> f : fields.entrySet()) {
+            if (body.length() > 0) body.append('&');
+            body.append(URLEncoder.encode(f.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(f.getValue(), StandardCharsets.UTF_8));
+        }
+        store.save("POST", PAGE_PATH, body.toString().getBytes(StandardCharsets.UTF_8), page(200, response));
+    }
+
+    static RecordingStore.Exchange page(int status, String fixture) {
+        List<String[]> headers = new ArrayList<>();
+        headers.add(new String[]{"Content-Type", "text/html; charset=utf-8"});
+        return new RecordingStore.Exchange(status, headers, html(fixture).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RecordingStore.Exchange redirect(String location) {
+        List<String[]> headers = new ArrayList<>();
+        headers.add(new String[]{"Location", location});
+        return new RecordingStore.Exchange(302, headers, new byte[0]);
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path p : paths) Files.delete(p);
+    }
+}
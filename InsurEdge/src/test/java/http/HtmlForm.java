@@ -0,0 +1,211 @@
+package http;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The ASP.NET form of one rendered page, read from its HTML: what the browser would post back.
+ *
+ * Holds every successful control (hidden __VIEWSTATE / __EVENTVALIDATION, text inputs, checked
+ * boxes, selected options) by name, plus the submit buttons, the options of each select and
+ * which controls AutoPostBack. Controls are looked up by client id or id suffix
+ * ("ddlMainCategory" finds ContentPlaceHolder_Admin_ddlMainCategory), since postbacks use the
+ * UniqueID name ("ctl00$ContentPlaceHolder_Admin$ddlMainCategory").
+ *
+ * Regex-based on purpose: WebForms markup is generated and regular, and this stays dependency-free.
+ */
+public class HtmlForm {
+
+    private static final Pattern FORM = Pattern.compile("<form\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAG = Pattern.compile(
+            "<(/?)(input|select|option|textarea)\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTR = Pattern.compile(
+            "([\\w:$.\\-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))|([\\w\\-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ENTITY = Pattern.compile("&(#[xX][0-9a-fA-F]+|#\\d+|amp|lt|gt|quot|apos|nbsp);");
+
+    private final URI action;
+    private final Map<String, String> fields = new LinkedHashMap<>();       // name -> value
+    private final Map<String, String> buttons = new LinkedHashMap<>();      // name -> value (only sent when clicked)
+    private final Map<String, String> namesById = new LinkedHashMap<>();
+    private final Map<String, List<String[]>> options = new HashMap<>();    // select name -> [value, text]
+    private final Set<String> autoPostBack = new HashSet<>();
+
+    private HtmlForm(URI action) {
+        this.action = action;
+    }
+
+    /** Parses the page's (first) form; 'page' resolves a relative form action. */
+    public static HtmlForm parse(URI page, String html) {
+        Matcher form = FORM.matcher(html);
+        URI action = page;
+        if (form.find()) {
+            String a = attributes(form.group(1)).get("action");
+            if (a != null && !a.isEmpty()) action = page.resolve(a);
+        }
+        HtmlForm f = new HtmlForm(action);
+        f.read(html);
+        return f;
+    }
+
+    private void read(String html) {
+        Matcher m = TAG.matcher(html);
+        String select = null;           // name of the open <select>
+        String firstOption = null;
+        String selected = null;
+        while (m.find()) {
+            boolean closing = !m.group(1).isEmpty();
+            String tag = m.group(2).toLowerCase();
+            Map<String, String> a = attributes(m.group(3));
+
+            if (tag.equals("select")) {
+                if (closing) {
+                    if (select != null) {
+                        String value = selected != null ? selected : firstOption;
+                        if (value != null) fields.put(select, value);
+                    }
+                    select = null;
+                    continue;
+                }
+                select = control(a);
+                firstOption = null;
+                selected = null;
+                if (select != null) options.put(select, new ArrayList<>());
+            } else if (tag.equals("option") && !closing && select != null) {
+                String text = textUntilNextTag(html, m.end());
+                String value = a.containsKey("value") ? a.get("value") : text;
+                options.get(select).add(new String[] {value, text});
+                if (firstOption == null) firstOption = value;
+                if (a.containsKey("selected")) selected = value;
+            } else if (tag.equals("input") && !closing) {
+                String name = control(a);
+                if (name == null) continue;
+                String type = a.getOrDefault("type", "text").toLowerCase();
+                String value = a.getOrDefault("value", "");
+                if (type.equals("submit") || type.equals("button") || type.equals("image")) {
+                    buttons.put(name, value);
+                } else if (type.equals("checkbox") || type.equals("radio")) {
+                    if (a.containsKey("checked")) fields.put(name, a.containsKey("value") ? value : "on");
+                } else if (!type.equals("reset") && !type.equals("file")) {
+                    fields.put(name, value);
+                }
+            } else if (tag.equals("textarea") && !closing) {
+                String name = control(a);
+                if (name != null) fields.put(name, textUntilNextTag(html, m.end()));
+            }
+        }
+    }
+
+    /** Registers a named, enabled control and returns its name (null = not posted). */
+    private String control(Map<String, String> a) {
+        String name = a.get("name");
+        if (name == null || a.containsKey("disabled")) return null;
+        String id = a.get("id");
+        if (id != null) namesById.put(id, name);
+        String onchange = a.get("onchange");
+        if (onchange != null && onchange.contains("__doPostBack")) autoPostBack.add(name);
+        return name;
+    }
+
+    // ----- Lookups -----
+
+    /** URL the form posts to. */
+    public URI action() {
+        return action;
+    }
+
+    /** Posted name of the control whose id is (or ends with) 'id'. */
+    public String nameOf(String id) {
+        String name = namesById.get(id);
+        if (name != null) return name;
+        for (Map.Entry<String, String> e : namesById.entrySet()) {
+            if (e.getKey().endsWith("_" + id)) return e.getValue();
+        }
+        throw new RuntimeException("Form control not found: " + id);
+    }
+
+    /** Successful controls as the browser would post them (copy; callers override values). */
+    public Map<String, String> fields() {
+        return new LinkedHashMap<>(fields);
+    }
+
+    /** Value of a submit button, or null if the form has no such button. */
+    public String buttonValue(String name) {
+        return buttons.get(name);
+    }
+
+    /** Visible texts of a select's options, in page order. */
+    public List<String> optionTexts(String name) {
+        List<String> texts = new ArrayList<>();
+        for (String[] o : options.getOrDefault(name, Collections.<String[]>emptyList())) texts.add(o[1]);
+        return texts;
+    }
+
+    /** Value of the option showing 'text' (trimmed, case-sensitive like selectByVisibleText). */
+    public String optionValue(String name, String text) {
+        for (String[] o : options.getOrDefault(name, Collections.<String[]>emptyList())) {
+            if (o[1].equals(text.trim())) return o[0];
+        }
+        throw new RuntimeException("Option not found: " + text + " in " + name);
+    }
+
+    /** True when changing the control posts the form back (onchange calls __doPostBack). */
+    public boolean autoPostsBack(String name) {
+        return autoPostBack.contains(name);
+    }
+
+    // ----- Markup helpers -----
+
+    static Map<String, String> attributes(String raw) {
+        Map<String, String> a = new HashMap<>();
+        Matcher m = ATTR.matcher(raw);
+        while (m.find()) {
+            if (m.group(5) != null) {
+                a.put(m.group(5).toLowerCase(), "");        // bare attribute: selected, checked, disabled
+            } else {
+                String v = m.group(2) != null ? m.group(2) : m.group(3) != null ? m.group(3) : m.group(4);
+                a.put(m.group(1).toLowerCase(), decode(v));
+            }
+        }
+        return a;
+    }
+
+    private static String textUntilNextTag(String html, int from) {
+        int end = html.indexOf('<', from);
+        return decode(html.substring(from, end < 0 ? html.length() : end)).trim();
+    }
+
+    /** Decodes the character references WebForms emits (&amp;, &#39;, &#x27;, ...). */
+    static String decode(String s) {
+        if (s.indexOf('&') < 0) return s;
+        Matcher m = ENTITY.matcher(s);
+        StringBuffer out = new StringBuffer();
+        while (m.find()) {
+            String e = m.group(1);
+            String r;
+            switch (e) {
+                case "amp":  r = "&"; break;
+                case "lt":   r = "<"; break;
+                case "gt":   r = ">"; break;
+                case "quot": r = "\""; break;
+                case "apos": r = "'"; break;
+                case "nbsp": r = " "; break;
+                default:
+                    int cp = e.startsWith("#x") || e.startsWith("#X")
+                            ? Integer.parseInt(e.substring(2), 16) : Integer.parseInt(e.substring(1));
+                    r = new String(Character.toChars(cp));
+            }
+            m.appendReplacement(out, Matcher.quoteReplacement(r));
+        }
+        m.appendTail(out);
+        return out.toString();
+    }
+}
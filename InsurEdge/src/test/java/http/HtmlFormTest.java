@@ -0,0 +1,84 @@
+package http;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+
+import static http.Fixtures.MAIN_CATEGORY;
+import static http.Fixtures.PAGE;
+import static http.Fixtures.SEARCH;
+import static http.Fixtures.STATUS;
+import static http.Fixtures.SUB_CATEGORY;
+
+/** HtmlForm against a recorded Authorize Policy page (no browser, no network). */
+public class HtmlFormTest {
+
+    private final HtmlForm form = HtmlForm.parse(PAGE, Fixtures.html("authorize-default.html"));
+
+    @Test
+    public void readsHiddenFields() {
+        Map<String, String> fields = form.fields();
+        Assert.assertEquals(fields.get("__VIEWSTATE"),
+                "/wEPDwUKMTY1NDU2MTA1Mg9kFgJmD2QWAgIDD2QWAgIBD2QWBgIBDxAPFgIeC18hRGF0YUJvdW5kZ2QQFQk=");
+        Assert.assertEquals(fields.get("__EVENTVALIDATION"), "/wEdABKx5dGq+u0M1S8AbC==");
+        Assert.assertEquals(fields.get("__VIEWSTATEGENERATOR"), "C2EE9ABB");
+        Assert.assertEquals(fields.get("__EVENTTARGET"), "");
+    }
+
+    @Test
+    public void postsSelectedOptionsLikeTheBrowser() {
+        Map<String, String> fields = form.fields();
+        Assert.assertEquals(fields.get(MAIN_CATEGORY), "0");
+        Assert.assertEquals(fields.get(STATUS), "All", "selected option, not the first one");
+        Assert.assertFalse(fields.containsKey(SUB_CATEGORY), "disabled select must not be posted");
+        Assert.assertEquals(fields.get("ctl00$ContentPlaceHolder_Admin$txtPolicyName"), "");
+        Assert.assertFalse(fields.containsKey("ctl00$ContentPlaceHolder_Admin$chkMine"), "unchecked box posted");
+        Assert.assertFalse(fields.containsKey(SEARCH), "submit buttons are only posted when clicked");
+        Assert.assertEquals(form.buttonValue(SEARCH), "Search");
+    }
+
+    @Test
+    public void selectWithoutSelectedOptionPostsTheFirst() {
+        HtmlForm f = HtmlForm.parse(PAGE, "<form><select name=\"s\"><option value=\"a\">A</option>"
+                + "<option>B</option></select><textarea name=\"t\">x &amp; y</textarea></form>");
+        Assert.assertEquals(f.fields().get("s"), "a");
+        Assert.assertEquals(f.optionValue("s", "B"), "B", "option without value posts its text");
+        Assert.assertEquals(f.fields().get("t"), "x & y");
+    }
+
+    @Test
+    public void findsControlsByIdOrIdSuffix() {
+        Assert.assertEquals(form.nameOf("ddlMainCategory"), MAIN_CATEGORY);
+        Assert.assertEquals(form.nameOf("ContentPlaceHolder_Admin_ddlStatus"), STATUS);
+        Assert.assertEquals(form.nameOf("btnSearch"), SEARCH);
+        Assert.assertThrows(RuntimeException.class, () -> form.nameOf("ddlMissing"));
+    }
+
+    @Test
+    public void detectsAutoPostBack() {
+        Assert.assertTrue(form.autoPostsBack(MAIN_CATEGORY));
+        Assert.assertFalse(form.autoPostsBack(STATUS));
+    }
+
+    @Test
+    public void decodesOptionTexts() {
+        Assert.assertEquals(form.optionTexts(MAIN_CATEGORY), Arrays.asList(
+                "Select Main Category", "Life", "Auto", "Owner's Liability", "Travel & Health"));
+        Assert.assertEquals(form.optionValue(MAIN_CATEGORY, " Owner's Liability "), "3");
+        Assert.assertThrows(RuntimeException.class, () -> form.optionValue(MAIN_CATEGORY, "Marine"));
+    }
+
+    @Test
+    public void resolvesTheFormAction() {
+        Assert.assertEquals(form.action(), URI.create("http://127.0.0.1/Admin/AuthorizePolicy"));
+    }
+
+    @Test
+    public void decodesCharacterReferences() {
+        Assert.assertEquals(HtmlForm.decode("&#39;&#x27;&amp;&nbsp;&lt;b&gt;&quot;&apos;"), "''& <b>\"'");
+        Assert.assertEquals(HtmlForm.decode("no references"), "no references");
+    }
+}
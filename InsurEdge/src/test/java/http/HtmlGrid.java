@@ -0,0 +1,122 @@
+package http;
+
+import pages.GridSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a GridView (e.g. gvPolicies) out of response HTML into the same GridSnapshot the
+ * browser-side grid script produces: header row, data rows (cell text normalised by
+ * GridSnapshot.cellText, as the browser's innerText is) and the pager row's current page and
+ * Page$N links.
+ *
+ * Only the table's own rows count; the pager's nested table is read as pager, not as data.
+ */
+public class HtmlGrid {
+
+    private static final Pattern STRUCTURE = Pattern.compile(
+            "<(/?)(table|tr|td|th)\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    // Tags innerText turns into a line break
+    private static final Pattern BREAKS = Pattern.compile("<(br|/p|/div|/li)\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CURRENT_PAGE = Pattern.compile("<span\\b[^>]*>\\s*(\\d+)\\s*</span>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PAGE_LINK = Pattern.compile("Page\\$(\\d+)");
+    private static final Pattern POSTBACK_TARGET = Pattern.compile("__doPostBack\\('([^']+)','Page\\$");
+
+    private HtmlGrid() { }
+
+    /** Snapshot of the grid with the given client id; an empty snapshot if the page has none. */
+    public static GridSnapshot parse(String html, String tableId) {
+        List<String> headers = new ArrayList<>();
+        List<List<String>> rows = new ArrayList<>();
+        List<Integer> pages = new ArrayList<>();
+        int currentPage = 0;
+
+        int start = tableStart(html, tableId);
+        if (start < 0) {
+            return new GridSnapshot(headers, rows, 0, pages);
+        }
+
+        Matcher m = STRUCTURE.matcher(html);
+        m.region(start, html.length());
+        int depth = 0;                  // 1 = inside our table, >1 = nested table (pager)
+        int rowStart = -1;
+        String rowClass = "";
+        int cellStart = -1;
+        boolean cellIsTh = false;
+        List<String> cells = null;
+        boolean allTh = true;
+
+        while (m.find()) {
+            boolean closing = !m.group(1).isEmpty();
+            String tag = m.group(2).toLowerCase();
+
+            if (tag.equals("table")) {
+                depth += closing ? -1 : 1;
+                if (depth == 0) break;
+                continue;
+            }
+            if (depth != 1) continue;
+
+            if (tag.equals("tr")) {
+                if (!closing) {
+                    rowStart = m.end();
+                    String cls = HtmlForm.attributes(m.group(3)).get("class");
+                    rowClass = cls == null ? "" : cls;
+                    cells = new ArrayList<>();
+                    allTh = true;
+                } else if (rowStart >= 0) {
+                    if ((" " + rowClass + " ").contains(" pagination-container ")) {
+                        String pager = html.substring(rowStart, m.start());
+                        Matcher cur = CURRENT_PAGE.matcher(pager);
+                        if (cur.find()) currentPage = Integer.parseInt(cur.group(1));
+                        Matcher link = PAGE_LINK.matcher(pager);
+                        while (link.find()) pages.add(Integer.parseInt(link.group(1)));
+                    } else if (!cells.isEmpty() && allTh) {
+                        headers = cells;
+                    } else {
+                        rows.add(cells);
+                    }
+                    rowStart = -1;
+                }
+            } else if (rowStart >= 0) {
+                // td / th of this table's row
+                if (!closing) {
+                    cellStart = m.end();
+                    cellIsTh = tag.equals("th");
+                } else if (cellStart >= 0) {
+                    cells.add(text(html.substring(cellStart, m.start())));
+                    if (!cellIsTh) allTh = false;
+                    cellStart = -1;
+                }
+            }
+        }
+        return new GridSnapshot(headers, rows, currentPage, pages);
+    }
+
+    /** __EVENTTARGET the grid's pager links post back with (the GridView's UniqueID), or null. */
+    public static String pagerTarget(String html) {
+        Matcher m = POSTBACK_TARGET.matcher(HtmlForm.decode(html));
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static int tableStart(String html, String tableId) {
+        Matcher m = STRUCTURE.matcher(html);
+        while (m.find()) {
+            if (m.group(1).isEmpty() && m.group(2).equalsIgnoreCase("table")) {
+                Map<String, String> a = HtmlForm.attributes(m.group(3));
+                if (tableId.equals(a.get("id"))) return m.start();
+            }
+        }
+        return -1;
+    }
+
+    private static String text(String cellHtml) {
+        String t = TAGS.matcher(BREAKS.matcher(cellHtml).replaceAll("\n")).replaceAll("");
+        return GridSnapshot.cellText(HtmlForm.decode(t));
+    }
+}
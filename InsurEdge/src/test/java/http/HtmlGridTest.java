@@ -0,0 +1,95 @@
+package http;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.AuthorizePolicyPage;
+import pages.GridOracle;
+import pages.GridSnapshot;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** HtmlGrid against recorded Authorize Policy pages (no browser, no network). */
+public class HtmlGridTest {
+
+    private static GridSnapshot grid(String fixture) {
+        return HtmlGrid.parse(Fixtures.html(fixture), AuthorizePolicyPage.GRID_ID);
+    }
+
+    @Test
+    public void readsHeadersAndRows() {
+        GridSnapshot snap = grid("authorize-default.html");
+        Assert.assertEquals(snap.getHeaders(),
+                Arrays.asList("Policy Name", "Main Category", "Sub Category", "Sum Assured", "Status"));
+        Assert.assertEquals(snap.rowCount(), 3, "pager row must not count as data");
+        Assert.assertEquals(snap.getRows().get(1), Arrays.asList("Road Safe", "Auto", "Car", "250000", "Approved"));
+    }
+
+    @Test
+    public void decodesAndCollapsesCellText() {
+        GridSnapshot snap = grid("authorize-default.html");
+        Assert.assertEquals(snap.cell(0, 0), "Family Shield", "&nbsp;");
+        Assert.assertEquals(snap.cell(2, 0), "Owner's Cover", "&#39;");
+        Assert.assertEquals(snap.cell(2, 2), "Home & Contents", "&amp;");
+        Assert.assertEquals(snap.cell(2, 3), "750000", "surrounding whitespace");
+    }
+
+    @Test
+    public void nbspAndWhitespaceRunsReadAsTheBrowserDoes() {
+        String html = "<table id=\"" + AuthorizePolicyPage.GRID_ID + "\">"
+                + "<tr><th>Policy&nbsp;Name</th><th>Sub  Category</th></tr>"
+                + "<tr><td>Family&nbsp;&nbsp;Shield</td><td>Home   &amp;\n  Contents<br/>Plus</td></tr></table>";
+        GridSnapshot snap = HtmlGrid.parse(html, AuthorizePolicyPage.GRID_ID);
+        Assert.assertEquals(snap.getHeaders(), Arrays.asList("Policy Name", "Sub Category"));
+        Assert.assertEquals(snap.getRows().get(0), Arrays.asList("Family Shield", "Home & Contents Plus"));
+
+        // innerText of the same cells keeps U+00A0 and line breaks; both sides digest alike
+        List<String> innerText = Arrays.asList("Family\u00a0\u00a0Shield", "Home   &\n  Contents\nPlus");
+        Assert.assertEquals(GridOracle.Digest.of(snap.getRows()),
+                GridOracle.Digest.of(Collections.singletonList(innerText)));
+        Assert.assertEquals(new GridSnapshot(snap.getHeaders(), Collections.singletonList(innerText), 0,
+                Collections.<Integer>emptyList()).getRows(), snap.getRows());
+    }
+
+    @Test
+    public void readsPagerState() {
+        GridSnapshot first = grid("authorize-life.html");
+        Assert.assertEquals(first.getCurrentPage(), 1);
+        Assert.assertEquals(first.getLinkedPages(), Collections.singletonList(2));
+        Assert.assertTrue(first.hasNextPage());
+
+        GridSnapshot second = grid("authorize-life-p2.html");
+        Assert.assertEquals(second.getCurrentPage(), 2);
+        Assert.assertEquals(second.getLinkedPages(), Collections.singletonList(1));
+        Assert.assertFalse(second.hasNextPage());
+
+        GridSnapshot single = grid("authorize-auto.html");
+        Assert.assertFalse(single.hasPager());
+    }
+
+    @Test
+    public void findsThePagerPostBackTarget() {
+        Assert.assertEquals(HtmlGrid.pagerTarget(Fixtures.html("authorize-default.html")), Fixtures.GRID);
+        // The Main Category onchange also calls __doPostBack, but it is not a pager link
+        Assert.assertNull(HtmlGrid.pagerTarget(Fixtures.html("authorize-auto.html")));
+    }
+
+    @Test
+    public void missingTableGivesAnEmptySnapshot() {
+        GridSnapshot snap = HtmlGrid.parse(Fixtures.html("authorize-default.html"), "NoSuchGrid");
+        Assert.assertTrue(snap.isEmpty());
+        Assert.assertFalse(snap.hasPager());
+    }
+
+    @Test
+    public void dataRowsDropPlaceholderRows() {
+        String html = "<table id=\"" + AuthorizePolicyPage.GRID_ID + "\">"
+                + "<tr><th>Policy Name</th><th>Main Category</th></tr>"
+                + "<tr><td colspan=\"2\">No records found</td></tr></table>";
+        GridSnapshot snap = HtmlGrid.parse(html, AuthorizePolicyPage.GRID_ID);
+        Assert.assertEquals(snap.rowCount(), 1);
+        Assert.assertTrue(snap.dataRows().isEmpty());
+        Assert.assertEquals(grid("authorize-default.html").dataRows().size(), 3);
+    }
+}
@@ -0,0 +1,360 @@
+package http;
+
+import base.LatencyStats;
+import data.PolicyRecord;
+import org.openqa.selenium.Cookie;
+import pages.AuthorizePolicyPage;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bulk policy creation without the browser: replays the Create Policy confirm postback
+ * (btnConfirmInsert with the hidden review fields the page script would have filled) over HTTP.
+ *
+ * - Each worker signs in with only the forms ticket, so the server gives it its own ASP.NET
+ *   session (one session's requests run one at a time). Per worker, the page is fetched once and
+ *   the Main Category AutoPostBack (and Sub Category's, if it posts back) is replayed once per
+ *   category and reused, so each policy costs a single POST.
+ * - Workers run in parallel, bounded by 'threads', and share one throttle ('perSecond').
+ * - Names are made unique per run and worker: <base>_<run>_w<worker>_<n>, so parallel workers and
+ *   repeated runs never collide with each other or with policies the UI tests create.
+ * - The confirm response re-renders the form whether or not the policy was saved, so verify()
+ *   reads the created names back from the Authorize grid.
+ *
+ * Command line: SeedPolicies.
+ *
+ * System properties:
+ *   seed.threads   concurrent creates          (default 4)
+ *   seed.rate      max creates per second, 0 = unthrottled (default 0)
+ */
+public class PolicySeeder {
+
+    public static final int THREADS = Integer.getInteger("seed.threads", 4);
+    public static final double RATE = Double.parseDouble(System.getProperty("seed.rate", "0"));
+
+    private static final int MAX_FAILURES_KEPT = 20;
+
+    private final URI origin;
+    private final List<Cookie> ticket;
+    private final String loginUrl;
+    private final String pageUrl;
+    private final Session session;      // for mainCategories() and create(); seed() opens one per worker
+
+    /** @param pageUrl Create Policy page URL (e.g. PageState.urlOf("CreatePolicy")) */
+    public PolicySeeder(String pageUrl, Collection<Cookie> cookies, String loginUrl) {
+        URI uri = URI.create(pageUrl);
+        this.origin = URI.create(uri.getScheme() + "://" + uri.getAuthority());
+        this.ticket = WebFormsClient.ticketOnly(cookies);
+        this.loginUrl = loginUrl;
+        this.pageUrl = pageUrl;
+        this.session = new Session();
+    }
+
+    /** Main Category options of the Create Policy page (visible text, without the "Select ..." placeholder). */
+    public List<String> mainCategories() {
+        HtmlForm f = session.initial().form;
+        List<String> texts = f.optionTexts(f.nameOf("ddlMainCategory"));
+        return texts.isEmpty() ? texts : new ArrayList<>(texts.subList(1, texts.size()));
+    }
+
+    /**
+     * Posts one policy with exactly the record's values (no renaming). Fails on an error page;
+     * whether the policy was saved only shows on the Authorize grid (see verify()).
+     */
+    public void create(PolicyRecord policy) {
+        session.create(policy);
+    }
+
+    private void create(Session session, PolicyRecord policy) {
+        WebFormsClient.Page page = session.formFor(policy.mainCategory, policy.subCategory);
+        HtmlForm f = page.form;
+        String sub = subCategoryText(f, policy.subCategory);
+        String tenure = policy.tenure == null ? null : String.valueOf(policy.tenure);
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(f.nameOf("ddlMainCategory"), f.optionValue(f.nameOf("ddlMainCategory"), policy.mainCategory));
+        values.put(f.nameOf("ddlSubCategory"), f.optionValue(f.nameOf("ddlSubCategory"), sub));
+        put(values, f, "txtPolicyName", policy.policyName);
+        put(values, f, "txtSumAssured", policy.sumAssured);
+        put(values, f, "txtPremium", policy.premium);
+        put(values, f, "sliderTenure", tenure);
+        // What the review dialog copies into the hidden fields before OK posts back
+        put(values, f, "hiddenMainCategory", policy.mainCategory);
+        put(values, f, "hiddenSubCategory", sub);
+        put(values, f, "hiddenPolicyName", policy.policyName);
+        put(values, f, "hiddenSumAssured", policy.sumAssured);
+        put(values, f, "hiddenPremium", policy.premium);
+        put(values, f, "hiddenTenure", tenure);
+
+        WebFormsClient.Page result = session.client.submit(page, values, f.nameOf("btnConfirmInsert"));
+        if (!result.html.contains("btnCreate")) {
+            throw new RuntimeException("Create Policy form not found after confirm: " + result.uri);
+        }
+    }
+
+    /** Seeds 'count' policies from the source with the default threads and rate. */
+    public Report seed(Iterator<PolicyRecord> source, int count) {
+        return seed(source, count, THREADS, RATE);
+    }
+
+    /**
+     * Creates 'count' policies taken from the source (renamed to be unique), with at most
+     * 'threads' in flight and at most 'perSecond' started per second (0 = no limit).
+     */
+    public Report seed(Iterator<PolicyRecord> source, int count, int threads, double perSecond) {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        AtomicInteger claimed = new AtomicInteger();
+        Throttle throttle = new Throttle(perSecond);
+        Report report = new Report(count);
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "policy-seeder");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        for (int w = 1; w <= Math.max(1, threads); w++) {
+            final int worker = w;
+            workers.execute(() -> {
+                Session own = new Session();
+                int n = 0;
+                while (claimed.getAndIncrement() < count) {
+                    PolicyRecord base;
+                    synchronized (source) {
+                        base = source.next();
+                    }
+                    PolicyRecord policy = base.withPolicyName(base.policyName + "_" + run + "_w" + worker + "_" + (++n));
+                    if (!throttle.acquire()) return;
+
+                    long t0 = System.nanoTime();
+                    try {
+                        own.create(policy);
+                        report.created(policy, System.nanoTime() - t0);
+                    } catch (RuntimeException e) {
+                        report.failed(policy.policyName + ": " + e.getMessage(), System.nanoTime() - t0);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Reads the report's created policies back from the Authorize grid (every page of each of
+     * their Main Categories); names the grid doesn't list are moved to the failures.
+     */
+    public static void verify(Report report, AuthorizeHttpClient authorize) {
+        Map<String, List<String>> byCategory = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : report.createdCategories().entrySet()) {
+            byCategory.computeIfAbsent(e.getValue(), k -> new ArrayList<>()).add(e.getKey());
+        }
+        for (Map.Entry<String, List<String>> e : byCategory.entrySet()) {
+            Set<String> listed = new HashSet<>();
+            String reason = "not listed on the Authorize grid";
+            try {
+                for (List<String> row : authorize.searchAllRows(e.getKey())) {
+                    listed.add(row.get(AuthorizePolicyPage.COL_POLICY_NAME));
+                }
+            } catch (RuntimeException ex) {
+                reason = "Authorize grid not read: " + ex.getMessage();
+            }
+            for (String name : e.getValue()) {
+                if (!listed.contains(name)) report.notListed(name, reason);
+            }
+        }
+    }
+
+    // ----- Form state -----
+
+    /**
+     * One ASP.NET session: a client with only the forms ticket (the server starts the session on
+     * its first request) and the pages it posts from. Pages are memoised by key outside the map:
+     * the first caller loads, concurrent callers for the same key wait, a failed load is not kept.
+     */
+    private final class Session {
+        final WebFormsClient client = new WebFormsClient(origin, ticket, loginUrl);
+        private final Map<String, FutureTask<WebFormsClient.Page>> forms = new ConcurrentHashMap<>();  // "main/sub" -> page
+
+        void create(PolicyRecord policy) {
+            PolicySeeder.this.create(this, policy);
+        }
+
+        WebFormsClient.Page initial() {
+            return page("", () -> client.get(pageUrl));
+        }
+
+        /** Page to post a policy of this category from, after the category's AutoPostBacks (cached). */
+        WebFormsClient.Page formFor(String mainCategory, String subCategory) {
+            WebFormsClient.Page initial = initial();
+            String main = initial.form.nameOf("ddlMainCategory");
+            WebFormsClient.Page afterMain = !initial.form.autoPostsBack(main) ? initial
+                    : page(mainCategory, () -> client.postBack(initial,
+                            Collections.singletonMap(main, initial.form.optionValue(main, mainCategory)), main, ""));
+
+            String sub = afterMain.form.nameOf("ddlSubCategory");
+            if (!afterMain.form.autoPostsBack(sub)) return afterMain;
+            String subText = subCategoryText(afterMain.form, subCategory);
+            return page(mainCategory + "/" + subText, () -> {
+                Map<String, String> values = new LinkedHashMap<>();
+                values.put(main, afterMain.form.optionValue(main, mainCategory));
+                values.put(sub, afterMain.form.optionValue(sub, subText));
+                return client.postBack(afterMain, values, sub, "");
+            });
+        }
+
+        private WebFormsClient.Page page(String key, Supplier<WebFormsClient.Page> load) {
+            FutureTask<WebFormsClient.Page> task = new FutureTask<>(load::get);
+            FutureTask<WebFormsClient.Page> memo = forms.putIfAbsent(key, task);
+            if (memo == null) {
+                memo = task;
+                task.run();     // on this thread, with no map lock held
+            }
+            try {
+                return memo.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted loading the Create Policy form", e);
+            } catch (ExecutionException e) {
+                forms.remove(key, memo);    // the next caller loads again
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /** The Sub Category to use: the given one, or the first real option (like the UI tests). */
+    private static String subCategoryText(HtmlForm form, String subCategory) {
+        if (subCategory != null) return subCategory;
+        List<String> options = form.optionTexts(form.nameOf("ddlSubCategory"));
+        if (options.size() < 2) throw new RuntimeException("Sub Category options not found");
+        return options.get(1);
+    }
+
+    private static void put(Map<String, String> values, HtmlForm form, String id, String value) {
+        if (value != null) values.put(form.nameOf(id), value);
+    }
+
+    // ----- Throttle -----
+
+    /** Spaces starts evenly at 1/perSecond across all workers. */
+    private static final class Throttle {
+        private final long intervalNanos;
+        private final AtomicLong next = new AtomicLong(System.nanoTime());
+
+        Throttle(double perSecond) {
+            this.intervalNanos = perSecond > 0 ? (long) (1_000_000_000L / perSecond) : 0;
+        }
+
+        /** Blocks until this caller's slot; false if interrupted. */
+        boolean acquire() {
+            if (intervalNanos == 0) return true;
+            long now = System.nanoTime();
+            long slot = Math.max(now, next.getAndAccumulate(now, (prev, t) -> Math.max(prev, t) + intervalNanos));
+            try {
+                TimeUnit.NANOSECONDS.sleep(slot - now);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    // ----- Result -----
+
+    /** Outcome of one seed() run: created names, failures, latency per create and throughput. */
+    public static class Report {
+        public final int requested;
+        public final LatencyStats latency = new LatencyStats();
+        private final Map<String, String> created = new LinkedHashMap<>();     // name -> Main Category
+        private final List<String> failures = new ArrayList<>();
+        private int notListed;
+        private volatile long elapsedNanos;
+
+        Report(int requested) {
+            this.requested = requested;
+        }
+
+        synchronized void created(PolicyRecord policy, long nanos) {
+            created.put(policy.policyName, policy.mainCategory);
+            latency.record(nanos, false);
+        }
+
+        synchronized void failed(String message, long nanos) {
+            if (failures.size() < MAX_FAILURES_KEPT) failures.add(message);
+            latency.record(nanos, true);
+        }
+
+        synchronized void notListed(String name, String reason) {
+            if (created.remove(name) == null) return;
+            notListed++;
+            if (failures.size() < MAX_FAILURES_KEPT) failures.add(name + ": " + reason);
+        }
+
+        synchronized Map<String, String> createdCategories() {
+            return new LinkedHashMap<>(created);
+        }
+
+        /** Names of the policies created (unique per run; after verify(), only those the grid lists). */
+        public synchronized List<String> created() {
+            return new ArrayList<>(created.keySet());
+        }
+
+        /** First failure messages (at most 20). */
+        public synchronized List<String> failures() {
+            return new ArrayList<>(failures);
+        }
+
+        /** Failed creates, plus created policies verify() didn't find. */
+        public synchronized int failed() {
+            return latency.errors() + notListed;
+        }
+
+        public double elapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        /** Created policies per second over the whole run. */
+        public double perSecond() {
+            double s = elapsedSeconds();
+            return s > 0 ? created().size() / s : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Seeded %d/%d policies (%d failed) in %.1f s: %.1f/s, p50 %.0f ms, p95 %.0f ms, max %.0f ms",
+                    created().size(), requested, failed(), elapsedSeconds(), perSecond(),
+                    latency.percentileMs(50), latency.percentileMs(95), latency.maxMs());
+        }
+    }
+}
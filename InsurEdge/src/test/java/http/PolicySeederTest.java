@@ -0,0 +1,171 @@
+package http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.PolicyRecord;
+import org.openqa.selenium.Cookie;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * PolicySeeder against a local server that behaves like ASP.NET session state: requests of one
+ * ASP.NET_SessionId run one at a time, a request without one gets a new session, and anything
+ * without the forms ticket is sent to the login page.
+ */
+public class PolicySeederTest {
+
+    private static final String TICKET = "ticket-1";
+    private static final long CONFIRM_MS = 150;
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private String origin;
+
+    private final Map<String, ReentrantLock> sessionLocks = new ConcurrentHashMap<>();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger postBacks = new AtomicInteger();
+    private final AtomicInteger failGets = new AtomicInteger();
+    private final Set<String> confirmSessions = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        handlers = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+        origin = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        if (server != null) server.stop(0);
+        if (handlers != null) handlers.shutdownNow();
+    }
+
+    @BeforeMethod
+    public void resetCounters() {
+        Stream.of(inFlight, maxInFlight, postBacks, failGets).forEach(c -> c.set(0));
+        confirmSessions.clear();
+    }
+
+    @Test
+    public void workersCreateConcurrentlyInTheirOwnSessions() {
+        PolicySeeder seeder = seeder();
+        PolicySeeder.Report report = seeder.seed(policies(), 8, 4, 0);
+
+        Assert.assertEquals(report.created().size(), 8, "failures: " + report.failures());
+        Assert.assertTrue(maxInFlight.get() >= 2, "Creates never overlapped: " + maxInFlight.get() + " at once");
+        Assert.assertFalse(confirmSessions.contains("browser-session"), "The browser's session was replayed");
+        Assert.assertTrue(confirmSessions.size() >= 2, "Sessions posting creates: " + confirmSessions);
+        // Each worker's session replays the Main Category postback once, then reuses the form
+        Assert.assertEquals(postBacks.get(), confirmSessions.size());
+    }
+
+    @Test
+    public void failedFormLoadIsNotMemoised() {
+        PolicySeeder seeder = seeder();
+        failGets.set(1);
+        Assert.assertThrows(RuntimeException.class, seeder::mainCategories);
+        Assert.assertEquals(seeder.mainCategories(), Arrays.asList("Life", "Auto"));
+    }
+
+    // ----- Helpers -----
+
+    private PolicySeeder seeder() {
+        return new PolicySeeder(origin + "/Admin/CreatePolicy",
+                Arrays.asList(new Cookie(".ASPXAUTH", TICKET), new Cookie("ASP.NET_SessionId", "browser-session")),
+                origin + "/LoginPage");
+    }
+
+    private static Iterator<PolicyRecord> policies() {
+        return Stream.generate(() -> new PolicyRecord("Life", "Term", "Seeded", "500000", "1200", 10)).iterator();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, String> cookies = cookies(exchange);
+        if (!TICKET.equals(cookies.get(".ASPXAUTH"))) {
+            exchange.getResponseHeaders().add("Location", "/LoginPage");
+            respond(exchange, 302, "");
+            return;
+        }
+        String session = cookies.get("ASP.NET_SessionId");
+        if (session == null) {
+            session = "s" + sessions.incrementAndGet();
+            exchange.getResponseHeaders().add("Set-Cookie", "ASP.NET_SessionId=" + session + "; path=/; HttpOnly");
+        }
+
+        // ASP.NET's session-state lock
+        ReentrantLock lock = sessionLocks.computeIfAbsent(session, s -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (exchange.getRequestMethod().equals("GET")) {
+                if (failGets.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    respond(exchange, 500, "Server Error");
+                } else {
+                    respond(exchange, 200, Fixtures.html("create-policy.html"));
+                }
+                return;
+            }
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (body.contains("__EVENTTARGET=ctl00%24ContentPlaceHolder_Admin%24ddlMainCategory")) {
+                postBacks.incrementAndGet();
+            } else {
+                confirmSessions.add(session);
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(CONFIRM_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+            respond(exchange, 200, Fixtures.html("create-policy.html"));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Map<String, String> cookies(HttpExchange exchange) {
+        Map<String, String> cookies = new HashMap<>();
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.<String>emptyList())) {
+            for (String pair : header.split(";")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim().replace("\"", ""));
+            }
+        }
+        return cookies;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
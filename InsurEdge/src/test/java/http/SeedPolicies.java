@@ -0,0 +1,86 @@
+package http;
+
+import base.BaseTest;
+import base.BrowserProfile;
+import base.DriverFactory;
+import base.PostbackSync;
+import base.RequestInterceptor;
+import data.ExcelDataProvider;
+import data.PolicyRecord;
+import data.PolicySource;
+import load.Journeys;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import standin.StandInServer;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Command line for bulk seeding (mvn -Pseed test-compile exec:exec -Dseed.args="..."), e.g. to
+ * fill the Authorize grid for paging/load tests:
+ *
+ *   COUNT [SHEET]     create COUNT policies, taken from SHEET of PolicyModuleData.xlsx or, by
+ *                     default, generated over the Create Policy page's Main Category options
+ *
+ * One headless browser signs in with the suite's URL and credentials and opens Create Policy and
+ * Authorize through the menu (for their URLs and the session cookies), then quits. The policies
+ * are created over HTTP (PolicySeeder) and read back from the Authorize grid; exits 1 if any is
+ * missing.
+ *
+ * JVM options go in -Dseed.jvm="...": PolicySeeder's seed.threads / seed.rate, seed.random
+ * (generator seed, default 1), browser.profile (default lean), standin.mode.
+ */
+public class SeedPolicies {
+
+    private SeedPolicies() { }
+
+    public static void main(String[] args) {
+        int status = 1;
+        try {
+            status = run(args);
+        } finally {
+            // Quitting the browser leaves the shared chromedriver running; only stopService() ends it
+            DriverFactory.stopService();
+            StandInServer.stopSuiteServer();
+        }
+        System.exit(status);
+    }
+
+    private static int run(String[] args) {
+        int count = args.length >= 1 && args[0].matches("\\d+") ? Integer.parseInt(args[0]) : 0;
+        if (count <= 0) {
+            System.err.println("Usage: COUNT [SHEET]");
+            return 2;
+        }
+
+        BaseTest suite = new BaseTest();    // same URL (stand-in aware) and credentials as the tests
+        String createUrl;
+        String authorizeUrl;
+        Set<Cookie> cookies;
+        WebDriver driver = suite.newBrowser(BrowserProfile.named(System.getProperty(BrowserProfile.PROPERTY, "lean")));
+        try {
+            Journeys.login(driver, suite.baseUrl, suite.username, suite.password);
+            Journeys.openCreatePolicy(driver);
+            createUrl = driver.getCurrentUrl();
+            Journeys.openAuthorize(driver);
+            authorizeUrl = driver.getCurrentUrl();
+            cookies = driver.manage().getCookies();
+        } finally {
+            PostbackSync.release(driver);
+            RequestInterceptor.release(driver);
+            driver.quit();
+        }
+
+        PolicySeeder seeder = new PolicySeeder(createUrl, cookies, suite.baseUrl);
+        Iterator<PolicyRecord> source = args.length >= 2
+                ? PolicySource.fromSheet(ExcelDataProvider.POLICY_MODULE_DATA, args[1])
+                : PolicySource.generated(seeder.mainCategories(), Long.getLong("seed.random", 1L));
+        PolicySeeder.Report report = seeder.seed(source, count);
+        PolicySeeder.verify(report, new AuthorizeHttpClient(authorizeUrl, cookies, suite.baseUrl));
+
+        System.out.println(report);
+        for (String failure : report.failures()) System.out.println("  " + failure);
+        return report.failed() == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,146 @@
+package http;
+
+import base.SessionCache;
+import org.openqa.selenium.Cookie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal ASP.NET WebForms client on java.net.http: GET a page, then post its form back the
+ * way the browser would (all successful controls, plus either a clicked submit button or an
+ * __EVENTTARGET / __EVENTARGUMENT pair for AutoPostBack and pager links).
+ *
+ * Authenticates with cookies taken from a signed-in browser (see BaseTest.sessionCookies()),
+ * so no login round trips are needed. Cookies the server sets later are kept per client.
+ * One HttpClient (connection pool) per instance; safe to use from many threads at once, but
+ * all of an instance's requests share one ASP.NET session, and ASP.NET runs a session's
+ * requests one at a time. For parallel work give each thread its own client with only the
+ * forms ticket (ticketOnly()); the server then starts a session for each.
+ *
+ * System properties:
+ *   http.timeout.seconds   per-request timeout (default 30)
+ */
+public class WebFormsClient {
+
+    public static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("http.timeout.seconds", 30));
+
+    private final HttpClient http;
+    private final String loginPath;     // where a rejected session is redirected to, or null
+
+    /** @param origin   e.g. https://host (cookies are bound to it)
+     *  @param loginUrl login page; responses landing there mean the cookies were rejected (may be null) */
+    public WebFormsClient(URI origin, Collection<Cookie> cookies, String loginUrl) {
+        CookieManager jar = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        for (Cookie c : cookies) {
+            HttpCookie hc = new HttpCookie(c.getName(), c.getValue());
+            hc.setPath(c.getPath() == null ? "/" : c.getPath());
+            hc.setVersion(0);
+            jar.getCookieStore().add(origin, hc);
+        }
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(jar)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build();
+        this.loginPath = loginUrl == null ? null : URI.create(loginUrl).getPath();
+    }
+
+    /** One response page and its parsed form. */
+    public static class Page {
+        public final URI uri;
+        public final String html;
+        public final HtmlForm form;
+
+        Page(URI uri, String html) {
+            this.uri = uri;
+            this.html = html;
+            this.form = HtmlForm.parse(uri, html);
+        }
+    }
+
+    /** Only the forms-authentication ticket (SessionCache.TICKET) of a browser's cookies. */
+    public static List<Cookie> ticketOnly(Collection<Cookie> cookies) {
+        List<Cookie> ticket = new ArrayList<>(1);
+        for (Cookie c : cookies) {
+            if (SessionCache.TICKET.equals(c.getName())) ticket.add(c);
+        }
+        return ticket;
+    }
+
+    // ----- Requests -----
+
+    public Page get(String url) {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET());
+    }
+
+    /** Posts the form as a click on a submit button (name=value is added to the fields). */
+    public Page submit(Page from, Map<String, String> values, String button) {
+        Map<String, String> fields = from.form.fields();
+        fields.putAll(values);
+        String value = from.form.buttonValue(button);
+        fields.put(button, value == null ? "" : value);
+        fields.put("__EVENTTARGET", "");
+        fields.put("__EVENTARGUMENT", "");
+        return post(from, fields);
+    }
+
+    /** Posts the form as __doPostBack(target, argument) would (AutoPostBack, pager links). */
+    public Page postBack(Page from, Map<String, String> values, String target, String argument) {
+        Map<String, String> fields = from.form.fields();
+        fields.putAll(values);
+        fields.put("__EVENTTARGET", target);
+        fields.put("__EVENTARGUMENT", argument == null ? "" : argument);
+        return post(from, fields);
+    }
+
+    private Page post(Page from, Map<String, String> fields) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> f : fields.entrySet()) {
+            if (body.length() > 0) body.append('&');
+            body.append(encode(f.getKey())).append('=').append(encode(f.getValue()));
+        }
+        return send(HttpRequest.newBuilder(from.form.action())
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Referer", from.uri.toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+    }
+
+    private Page send(HttpRequest.Builder request) {
+        HttpResponse<String> response;
+        try {
+            response = http.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted: " + request.build().uri(), e);
+        }
+        URI landed = response.uri();
+        if (response.statusCode() >= 400) {
+            throw new RuntimeException("HTTP " + response.statusCode() + " from " + landed);
+        }
+        if (loginPath != null && loginPath.equalsIgnoreCase(landed.getPath())) {
+            throw new IllegalStateException("Session rejected: redirected to " + landed);
+        }
+        return new Page(landed, response.body());
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
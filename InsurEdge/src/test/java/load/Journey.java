@@ -0,0 +1,50 @@
+package load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A scripted user journey: named steps that every virtual user runs in order, over and over,
+ * e.g. login -> open Create Policy -> fill -> review -> confirm -> open Authorize -> search.
+ * Steps drive the page objects, so a journey is a UI test's flow without its assertions;
+ * each step is timed separately by LoadRunner.
+ */
+public class Journey {
+
+    /** One timed step; throwing fails the step and ends the user's current iteration. */
+    public interface Step {
+        void run(VirtualUser user) throws Exception;
+    }
+
+    public final String name;
+    private final List<String> names = new ArrayList<>();
+    private final List<Step> steps = new ArrayList<>();
+
+    public Journey(String name) {
+        this.name = name;
+    }
+
+    /** Appends a step; names must be unique within the journey. */
+    public Journey step(String stepName, Step step) {
+        if (names.contains(stepName)) {
+            throw new IllegalArgumentException("Duplicate step " + stepName + " in journey " + name);
+        }
+        names.add(stepName);
+        steps.add(step);
+        return this;
+    }
+
+    /** Step names in order. */
+    public List<String> stepNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    int size() {
+        return steps.size();
+    }
+
+    Step step(int index) {
+        return steps.get(index);
+    }
+}
@@ -0,0 +1,124 @@
+package load;
+
+import data.PolicyRecord;
+import org.openqa.selenium.WebDriver;
+import pages.AuthorizePolicyPage;
+import pages.CreatePolicyPage;
+import pages.LoginPage;
+import pages.SlideBarMenuPage;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Built-in journeys, made of the suite's page objects.
+ *
+ *   lifecycle  login -> Create Policy -> fill -> review -> confirm -> Authorize -> search its category
+ *   search     login -> Authorize -> search a random category -> page 2 -> reset
+ *
+ * Every iteration starts with a real form login in the user's own browser.
+ */
+public class Journeys {
+
+    private Journeys() { }
+
+    /** A built-in journey by name (see class comment). */
+    public static Journey named(String name, String loginUrl, String username, String password,
+                                Iterator<PolicyRecord> policies, List<String> mainCategories) {
+        switch (name.trim().toLowerCase()) {
+            case "lifecycle": return policyLifecycle(loginUrl, username, password, policies);
+            case "search":    return authorizeSearch(loginUrl, username, password, mainCategories);
+            default: throw new IllegalArgumentException("Unknown journey: " + name + " (lifecycle, search)");
+        }
+    }
+
+    /** Creates a uniquely named policy, confirms it and finds its category on Authorize. */
+    public static Journey policyLifecycle(String loginUrl, String username, String password,
+                                          Iterator<PolicyRecord> policies) {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        return new Journey("lifecycle")
+                .step("login", u -> login(u.driver, loginUrl, username, password))
+                .step("openCreatePolicy", u -> openCreatePolicy(u.driver))
+                .step("fillPolicy", u -> {
+                    PolicyRecord policy = policies.next()
+                            .withPolicyName("Load_" + run + "_u" + u.id + "_" + u.iteration());
+                    new CreatePolicyPage(u.driver).fillForm(policy);
+                    u.put("policy", policy);
+                })
+                .step("review", u -> {
+                    CreatePolicyPage cp = new CreatePolicyPage(u.driver);
+                    cp.clickCreateToOpenReview();
+                    cp.waits.visible(cp.policyReviewModal);
+                })
+                .step("confirm", u -> {
+                    if (!new CreatePolicyPage(u.driver).clickReviewOkAndWaitForPostback()) {
+                        throw new IllegalStateException("Create Policy confirm did not post back");
+                    }
+                })
+                .step("openAuthorize", u -> openAuthorize(u.driver))
+                .step("search", u -> {
+                    PolicyRecord policy = u.get("policy");
+                    search(u.driver, policy.mainCategory);
+                });
+    }
+
+    /** Browses the Authorize grid: filter, next page, reset. */
+    public static Journey authorizeSearch(String loginUrl, String username, String password,
+                                          List<String> mainCategories) {
+        if (mainCategories.isEmpty()) {
+            throw new IllegalArgumentException("No main categories to search for");
+        }
+        return new Journey("search")
+                .step("login", u -> login(u.driver, loginUrl, username, password))
+                .step("openAuthorize", u -> openAuthorize(u.driver))
+                .step("search", u -> search(u.driver, mainCategories.get(u.random.nextInt(mainCategories.size()))))
+                .step("nextPage", u -> new AuthorizePolicyPage(u.driver).goToPageIfExists(2))
+                .step("reset", u -> new AuthorizePolicyPage(u.driver).clickResetButton());
+    }
+
+    // ----- Shared steps -----
+
+    /** Fresh form login (own cookies only); fails if the app stays on the login page. */
+    public static void login(WebDriver driver, String loginUrl, String username, String password) {
+        if (driver.getCurrentUrl().startsWith("http")) {
+            driver.manage().deleteAllCookies();
+        }
+        driver.get(loginUrl);
+        LoginPage lp = new LoginPage(driver);
+        lp.setUserName(username);
+        lp.setPassword(password);
+        lp.clickLoginButton();
+
+        String loginPath = URI.create(loginUrl).getPath();
+        if (loginPath.equalsIgnoreCase(URI.create(driver.getCurrentUrl()).getPath())) {
+            throw new IllegalStateException("Login failed: still on " + driver.getCurrentUrl());
+        }
+    }
+
+    /** Opens Create Policy through the side menu, as a user would. */
+    public static void openCreatePolicy(WebDriver driver) {
+        SlideBarMenuPage menu = new SlideBarMenuPage(driver);
+        if (!menu.waits.isDisplayed(menu.linkPolicyCreate)) menu.expandPolicyMenu();   // collapsed after a full load
+        menu.clickPolicyCreate();
+        CreatePolicyPage cp = new CreatePolicyPage(driver);
+        cp.waits.present(cp.btnCreate);
+    }
+
+    /** Opens Authorize through the side menu and waits for the grid. */
+    public static void openAuthorize(WebDriver driver) {
+        SlideBarMenuPage menu = new SlideBarMenuPage(driver);
+        if (!menu.waits.isDisplayed(menu.linkPolicyAuthorize)) menu.expandPolicyMenu();   // collapsed after a full load
+        menu.clickPolicyAuthorize();
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+        ap.waits.present(ap.gridRows);
+    }
+
+    /** Filters by Main Category, searches and reads the first result page. */
+    public static void search(WebDriver driver, String mainCategory) {
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+        ap.selectMainCategory(mainCategory);
+        ap.clicksearchButton();
+        ap.snapshotGrid();
+    }
+}
@@ -0,0 +1,329 @@
+package load;
+
+import base.DriverPool;
+import base.LatencyStats;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Load mode: N concurrent virtual users run a Journey through the page objects, each in its own
+ * headless browser, against the app or the local stand-in (-Dstandin.mode=replay, see
+ * standin.StandInServer).
+ *
+ * - Each user is one thread holding one browser from a DriverPool for the whole run (the work is
+ *   browser round trips, so a thread per user is all the concurrency there is to have).
+ * - Ramp-up: users start evenly spread over 'rampUp'; steady state then lasts 'steady', after
+ *   which users stop at their next step. Only steps started in steady state are reported.
+ * - Think time: a uniform random pause between steps (thinkMin..thinkMax).
+ * - A failed step counts as an error and ends that iteration; the user starts the journey again
+ *   (in a new browser if the old session died).
+ *
+ * System properties:
+ *   load.users            concurrent virtual users, 0 = load mode off   (default 0)
+ *   load.rampUp.seconds   ramp-up                                      (default 30)
+ *   load.steady.seconds   steady state                                 (default 120)
+ *   load.think.ms         think time, "min-max" or one value            (default 1000-3000)
+ *   load.profile          browser profile of the users                  (default lean)
+ */
+public class LoadRunner {
+
+    public static final int USERS = Integer.getInteger("load.users", 0);
+    public static final Duration RAMP_UP = Duration.ofSeconds(Integer.getInteger("load.rampUp.seconds", 30));
+    public static final Duration STEADY = Duration.ofSeconds(Integer.getInteger("load.steady.seconds", 120));
+    public static final String THINK_MS = System.getProperty("load.think.ms", "1000-3000");
+    public static final String PROFILE = System.getProperty("load.profile", "lean");
+
+    private static final int MAX_FAILURES_KEPT = 20;
+
+    private final Supplier<WebDriver> browsers;
+
+    /** @param browsers starts one headless browser (not signed in; journeys log in themselves) */
+    public LoadRunner(Supplier<WebDriver> browsers) {
+        this.browsers = browsers;
+    }
+
+    /** Runs the journey with the -Dload.* settings. */
+    public Report run(Journey journey) {
+        long[] think = thinkRange(THINK_MS);
+        return run(journey, USERS, RAMP_UP, STEADY, Duration.ofMillis(think[0]), Duration.ofMillis(think[1]));
+    }
+
+    public Report run(Journey journey, int users, Duration rampUp, Duration steady,
+                      Duration thinkMin, Duration thinkMax) {
+        if (users < 1) throw new IllegalArgumentException("users must be >= 1 but was " + users);
+        if (thinkMax.compareTo(thinkMin) < 0) throw new IllegalArgumentException("think time max < min");
+
+        DriverPool pool = new DriverPool(browsers, users, Duration.ofMinutes(5));
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(users, r -> {
+            Thread t = new Thread(r, "virtual-user-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long start = System.nanoTime();
+        Window window = new Window(start + rampUp.toNanos(), start + rampUp.toNanos() + steady.toNanos(),
+                thinkMin.toMillis(), thinkMax.toMillis());
+        Report report = new Report(journey, users, steady);
+        try {
+            for (int i = 0; i < users; i++) {
+                int id = i + 1;
+                long startAt = start + rampUp.toNanos() * i / users;
+                threads.execute(() -> user(id, journey, pool, startAt, window, report));
+            }
+            threads.shutdown();
+            long left = window.end - System.nanoTime() + TimeUnit.MINUTES.toNanos(5);   // last steps may still run
+            if (!threads.awaitTermination(left, TimeUnit.NANOSECONDS)) {
+                threads.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            threads.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.quitAll();
+        }
+        return report;
+    }
+
+    // ----- One virtual user -----
+
+    private static final class Window {
+        final long steadyStart;
+        final long end;
+        final long thinkMinMs;
+        final long thinkMaxMs;
+
+        Window(long steadyStart, long end, long thinkMinMs, long thinkMaxMs) {
+            this.steadyStart = steadyStart;
+            this.end = end;
+            this.thinkMinMs = thinkMinMs;
+            this.thinkMaxMs = thinkMaxMs;
+        }
+    }
+
+    private static void user(int id, Journey journey, DriverPool pool, long startAt, Window w, Report report) {
+        Random random = new Random(31L * id + startAt);
+        VirtualUser user = null;
+        try {
+            sleepNanos(startAt - System.nanoTime());
+            while (System.nanoTime() < w.end) {
+                WebDriver driver;
+                try {
+                    driver = pool.acquire();
+                } catch (RuntimeException e) {
+                    report.failed("(browser start)", 0, System.nanoTime() >= w.steadyStart, e);
+                    think(random, w);
+                    continue;
+                }
+                if (user == null || user.driver != driver) user = new VirtualUser(id, driver, random);
+                user.startIteration();
+
+                boolean completed = true;
+                for (int s = 0; s < journey.size() && System.nanoTime() < w.end; s++) {
+                    String step = journey.stepNames().get(s);
+                    long t0 = System.nanoTime();
+                    boolean counted = t0 >= w.steadyStart;
+                    try {
+                        journey.step(s).run(user);
+                        report.passed(step, System.nanoTime() - t0, counted);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        report.failed(step, System.nanoTime() - t0, counted, e);
+                        if (e instanceof NoSuchSessionException) pool.discard();   // browser gone: next iteration gets a new one
+                        completed = false;
+                        break;
+                    }
+                    if (s == journey.size() - 1) break;
+                    think(random, w);
+                }
+                if (completed && System.nanoTime() >= w.steadyStart) report.iterationDone();
+                think(random, w);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.release();
+        }
+    }
+
+    private static void think(Random random, Window w) throws InterruptedException {
+        long ms = w.thinkMinMs + (w.thinkMaxMs > w.thinkMinMs
+                ? (long) (random.nextDouble() * (w.thinkMaxMs - w.thinkMinMs)) : 0);
+        // Never sleep past the end of the run
+        sleepNanos(Math.min(TimeUnit.MILLISECONDS.toNanos(ms), w.end - System.nanoTime()));
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+
+    /** "1000-3000" -> {1000, 3000}; "500" -> {500, 500}. */
+    static long[] thinkRange(String spec) {
+        String[] parts = spec.trim().split("-");
+        try {
+            long min = Long.parseLong(parts[0].trim());
+            long max = parts.length > 1 ? Long.parseLong(parts[1].trim()) : min;
+            if (parts.length > 2 || min < 0 || max < min) throw new NumberFormatException();
+            return new long[]{min, max};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Think time must be MIN-MAX or MS: " + spec);
+        }
+    }
+
+    // ----- Results -----
+
+    /** Steady-state results: per step latency (errors included), throughput and error rate. */
+    public static class Report {
+        public final String journey;
+        public final int users;
+        public final Duration steady;
+        private final Map<String, LatencyStats> steps = new LinkedHashMap<>();
+        private final List<String> failures = new ArrayList<>();
+        private final AtomicInteger iterations = new AtomicInteger();
+
+        Report(Journey journey, int users, Duration steady) {
+            this.journey = journey.name;
+            this.users = users;
+            this.steady = steady;
+            for (String step : journey.stepNames()) steps.put(step, new LatencyStats());
+        }
+
+        synchronized void passed(String step, long nanos, boolean counted) {
+            if (counted) stats(step).record(nanos, false);
+        }
+
+        synchronized void failed(String step, long nanos, boolean counted, Exception e) {
+            if (!counted) return;
+            stats(step).record(nanos, true);
+            if (failures.size() < MAX_FAILURES_KEPT) {
+                String message = e instanceof WebDriverException
+                        ? ((WebDriverException) e).getRawMessage() : e.getMessage();
+                failures.add(step + ": " + e.getClass().getSimpleName() + ": " + message);
+            }
+        }
+
+        void iterationDone() {
+            iterations.incrementAndGet();
+        }
+
+        private LatencyStats stats(String step) {
+            return steps.computeIfAbsent(step, k -> new LatencyStats());
+        }
+
+        /** Per step stats, in journey order (plus "(browser start)" if browsers failed to start). */
+        public synchronized Map<String, LatencyStats> steps() {
+            return new LinkedHashMap<>(steps);
+        }
+
+        /** First failure messages (at most 20). */
+        public synchronized List<String> failures() {
+            return new ArrayList<>(failures);
+        }
+
+        /** Journeys completed without error in steady state. */
+        public int iterations() {
+            return iterations.get();
+        }
+
+        /** Step runs per second in steady state. */
+        public double throughput(String step) {
+            LatencyStats s = steps().get(step);
+            return s == null || steady.isZero() ? 0 : s.count() / (steady.toMillis() / 1000.0);
+        }
+
+        /** Failed share of a step's runs (0..1). */
+        public double errorRate(String step) {
+            LatencyStats s = steps().get(step);
+            return s == null || s.count() == 0 ? 0 : (double) s.errors() / s.count();
+        }
+
+        /** Failed share of all step runs (0..1). */
+        public double errorRate() {
+            int runs = 0;
+            int errors = 0;
+            for (LatencyStats s : steps().values()) {
+                runs += s.count();
+                errors += s.errors();
+            }
+            return runs == 0 ? 0 : (double) errors / runs;
+        }
+
+        public Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("journey", journey);
+            json.put("users", users);
+            json.put("steadySeconds", steady.getSeconds());
+            json.put("iterations", iterations());
+            json.put("errorRate", round(errorRate()));
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (Map.Entry<String, LatencyStats> e : steps().entrySet()) {
+                LatencyStats s = e.getValue();
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("count", s.count());
+                row.put("errors", s.errors());
+                row.put("errorRate", round(errorRate(e.getKey())));
+                row.put("perSecond", round(throughput(e.getKey())));
+                row.put("p50Ms", round(s.percentileMs(50)));
+                row.put("p90Ms", round(s.percentileMs(90)));
+                row.put("p95Ms", round(s.percentileMs(95)));
+                row.put("p99Ms", round(s.percentileMs(99)));
+                row.put("maxMs", round(s.maxMs()));
+                out.put(e.getKey(), row);
+            }
+            json.put("steps", out);
+            json.put("failures", failures());
+            return json;
+        }
+
+        /** Writes toJson() to a file (e.g. for CI trend tooling). */
+        public void write(Path file) {
+            try {
+                if (file.getParent() != null) Files.createDirectories(file.getParent());
+                Files.write(file, new Json().toJson(toJson()).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed writing load report " + file, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                    "Journey %s, %d users, %d s steady state: %d iterations, %.2f%% errors%n",
+                    journey, users, steady.getSeconds(), iterations(), errorRate() * 100));
+            sb.append(String.format(Locale.ROOT, "%-18s %7s %7s %8s %8s %8s %8s %8s%n",
+                    "step", "runs", "err%", "per s", "p50 ms", "p90 ms", "p95 ms", "p99 ms"));
+            for (Map.Entry<String, LatencyStats> e : steps().entrySet()) {
+                LatencyStats s = e.getValue();
+                sb.append(String.format(Locale.ROOT, "%-18s %7d %7.2f %8.2f %8.0f %8.0f %8.0f %8.0f%n",
+                        e.getKey(), s.count(), errorRate(e.getKey()) * 100, throughput(e.getKey()),
+                        s.percentileMs(50), s.percentileMs(90), s.percentileMs(95), s.percentileMs(99)));
+            }
+            return sb.toString();
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 10000) / 10000.0;
+        }
+    }
+}
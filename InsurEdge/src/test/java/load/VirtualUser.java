@@ -0,0 +1,52 @@
+package load;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One simulated user: its browser, its own random source and whatever the steps of the current
+ * iteration hand each other (e.g. the policy created, then searched for on Authorize).
+ */
+public class VirtualUser {
+
+    public final int id;                // 1..users
+    public final WebDriver driver;
+    public final Random random;
+
+    private final Map<String, Object> state = new HashMap<>();
+    private int iteration;
+
+    VirtualUser(int id, WebDriver driver, Random random) {
+        this.id = id;
+        this.driver = driver;
+        this.random = random;
+    }
+
+    /** Iterations started by this user so far (1 during the first). */
+    public int iteration() {
+        return iteration;
+    }
+
+    /** Keeps a value for the following steps of this iteration. */
+    public void put(String key, Object value) {
+        state.put(key, value);
+    }
+
+    /** Value put by an earlier step of this iteration. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        Object value = state.get(key);
+        if (value == null) {
+            throw new IllegalStateException("No '" + key + "' from an earlier step (user " + id + ")");
+        }
+        return (T) value;
+    }
+
+    void startIteration() {
+        iteration++;
+        state.clear();
+    }
+}
@@ -1,17 +1,27 @@
 package pages;
 
+import base.ElementCache;
+import base.Waits;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 public class AuthorizePolicyPage {
 
     // 1) Constructor
     public WebDriver driver;
+    public Waits waits;
+    public ElementCache elements;   // resolved handles, dropped on postback/navigation/staleness
 
     public AuthorizePolicyPage(WebDriver driver) {
         this.driver = driver;
+        this.waits = new Waits(driver, Waits.Profile.AUTHORIZE);
+        this.elements = new ElementCache(waits);
     }
 
     // 2) Locators (public, simple, and stable)
@@ -31,86 +41,131 @@ public class AuthorizePolicyPage {
     public By gridRows       = By.xpath("//table[@id='ContentPlaceHolder_Admin_gvPolicies']/tbody/tr");
     public By pagerContainer = By.xpath("//tr[contains(@class,'pagination-container')]");
 
-    // 3) Actions (public)
-
-    /** Select Main Category by visible text. */
+    // Grid id and column positions (0-based; XPath td[2] == column 1)
+    public static final String GRID_ID      = "ContentPlaceHolder_Admin_gvPolicies";
+    public static final int COL_POLICY_NAME   = 0;
+    public static final int COL_MAIN_CATEGORY = 1;
+
+    // Reads header, data rows and pager of the grid in ONE round trip.
+    // table.rows only covers this table's own rows, so the pager's nested table isn't mixed in.
+    private static final String GRID_SNAPSHOT_JS =
+            "var t = document.getElementById(arguments[0]);" +
+            "if (!t) return null;" +
+            "var out = {headers: [], rows: [], currentPage: null, pages: []};" +
+            "for (var i = 0; i < t.rows.length; i++) {" +
+            "  var tr = t.rows[i];" +
+            "  if ((' ' + tr.className + ' ').indexOf(' pagination-container ') >= 0) {" +
+            "    var cur = tr.querySelector('span');" +
+            "    if (cur) { var n = parseInt(cur.textContent.trim(), 10); if (!isNaN(n)) out.currentPage = n; }" +
+            "    var links = tr.querySelectorAll('a');" +
+            "    for (var j = 0; j < links.length; j++) {" +
+            "      var m = /Page\\$(\\d+)/.exec(links[j].getAttribute('href') || '');" +
+            "      if (m) out.pages.push(parseInt(m[1], 10));" +
+            "    }" +
+            "    continue;" +
+            "  }" +
+            "  var cells = tr.cells, texts = [], isHeader = cells.length > 0;" +
+            "  for (var k = 0; k < cells.length; k++) {" +
+            "    texts.push((cells[k].innerText || cells[k].textContent || '').trim());" +
+            "    if (cells[k].tagName !== 'TH') isHeader = false;" +
+            "  }" +
+            "  if (isHeader) out.headers = texts; else out.rows.push(texts);" +
+            "}" +
+            "return out;";
+
+    // 3) Actions (public); each postback is timed as PagePerf step "Authorize.<action>"
+
+    /** Select Main Category by visible text (waits for its AutoPostBack, if any). */
     public void selectMainCategory(String visibleText) {
-        WebElement mainCategory = driver.findElement(dropdownMainCategory);
-        Select select = new Select(mainCategory);
-        select.selectByVisibleText(visibleText);
+        elements.act(dropdownMainCategory, e -> waits.select("Authorize.mainCategory", e,
+                select -> select.selectByVisibleText(visibleText)));
     }
 
     /** Select the default Main Category option (index 0). Use when you want to clear selection. */
     public void selectDefaultMainCategory() {
-        new Select(driver.findElement(dropdownMainCategory)).selectByIndex(0);
+        elements.act(dropdownMainCategory, e -> waits.select("Authorize.mainCategory", e, select -> select.selectByIndex(0)));
     }
 
-    /** Click Search button. */
+    /** Click Search button and wait until the search postback has finished. */
     public void clicksearchButton() {
-        driver.findElement(searchButton).click();
+        WebElement search = waits.clickable(searchButton);
+        waits.postback("Authorize.search", search::click);
     }
 
     /** Select Sub Category by visible text. */
     public void selectSubCategory(String visibleText) {
-        new Select(driver.findElement(ddlSubCategory)).selectByVisibleText(visibleText);
+        elements.act(ddlSubCategory, e -> waits.select("Authorize.subCategory", e, select -> select.selectByVisibleText(visibleText)));
     }
 
     /** Select Status by visible text. */
     public void selectStatus(String visibleText) {
-        new Select(driver.findElement(ddlStatus)).selectByVisibleText(visibleText);
+        elements.act(ddlStatus, e -> waits.select("Authorize.status", e, select -> select.selectByVisibleText(visibleText)));
     }
 
-    /** Click Reset button. */
+    /** Click Reset button and wait until the reset postback has finished. */
     public void clickResetButton() {
-        driver.findElement(btnReset).click();
+        WebElement reset = waits.clickable(btnReset);
+        waits.postback("Authorize.reset", reset::click);
     }
 
     // 4) Optional getters (handy for assertions in tests)
 
     /** Returns currently selected Main Category text. */
     public String getSelectedMainCategory() {
-        return new Select(driver.findElement(dropdownMainCategory))
-                .getFirstSelectedOption().getText().trim();
+        return elements.read(dropdownMainCategory, e -> new Select(e).getFirstSelectedOption().getText().trim());
     }
 
     /** Returns currently selected Sub Category text. */
     public String getSelectedSubCategory() {
-        return new Select(driver.findElement(ddlSubCategory))
-                .getFirstSelectedOption().getText().trim();
+        return elements.read(ddlSubCategory, e -> new Select(e).getFirstSelectedOption().getText().trim());
     }
 
     /** Returns currently selected Status text. */
     public String getSelectedStatus() {
-        return new Select(driver.findElement(ddlStatus))
-                .getFirstSelectedOption().getText().trim();
+        return elements.read(ddlStatus, e -> new Select(e).getFirstSelectedOption().getText().trim());
     }
     
     
    
 
+    /** Reads every row/column of the current grid page plus pager state in a single script call. */
+    public GridSnapshot snapshotGrid() {
+        waits.present(gridRows);
+        Object result = ((JavascriptExecutor) driver).executeScript(GRID_SNAPSHOT_JS, GRID_ID);
+        return GridSnapshot.fromScriptResult(result);
+    }
+
+    /** Lazily crawls all grid pages from the current one (see GridCrawler). */
+    public GridCrawler crawlRows() {
+        return new GridCrawler(this, GridCrawler.MAX_PAGES);
+    }
+
+    /** Rows of every grid page as a lazy stream (pages load only as the stream reaches them). */
+    public Stream<List<String>> streamAllRows() {
+        return crawlRows().stream();
+    }
+
     /** Returns true if the given page number is the current page (non-clickable <span>). */
     public boolean isCurrentPage(int pageNo) {
         String spanXpath = "//tr[contains(@class,'pagination-container')]//span[normalize-space()='" + pageNo + "']";
-        return !driver.findElements(By.xpath(spanXpath)).isEmpty();
+        return waits.isPresent(By.xpath(spanXpath));
     }
 
     /** Returns true if the given page number is a clickable link (i.e., not the current page). */
     public boolean hasPageLink(int pageNo) {
         String linkXpath = "//tr[contains(@class,'pagination-container')]//a[normalize-space()='" + pageNo + "']";
-        return !driver.findElements(By.xpath(linkXpath)).isEmpty();
+        return waits.isPresent(By.xpath(linkXpath));
     }
 
     /** Click a page number if a link is available and wait for grid to reload. */
     public boolean goToPageIfExists(int pageNo) {
         String linkXpath = "//tr[contains(@class,'pagination-container')]//a[contains(@href,\"Page$" + pageNo + "\")]";
-        java.util.List<org.openqa.selenium.WebElement> links = driver.findElements(By.xpath(linkXpath));
+        List<WebElement> links = waits.findAll(By.xpath(linkXpath));
         if (links.isEmpty()) return false;
-        links.get(0).click();
-        // tiny, safe wait for grid presence
-        new org.openqa.selenium.support.ui.WebDriverWait(driver, java.time.Duration.ofSeconds(10))
-                .until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(gridRows));
-        new org.openqa.selenium.support.ui.WebDriverWait(driver, java.time.Duration.ofSeconds(10))
-                .until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(pagerContainer));
+        // Paging is a postback: returns once the new page has loaded
+        waits.postback("Authorize.page", links.get(0)::click);
+        waits.present(gridRows);
+        waits.present(pagerContainer);
         return true;
     }
 }
\ No newline at end of file
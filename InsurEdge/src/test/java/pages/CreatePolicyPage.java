@@ -1,18 +1,28 @@
 package pages;
 
+import base.ElementCache;
+import base.Waits;
+import data.PolicyRecord;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.Select;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CreatePolicyPage {
 
     // 1) Constructor
     public WebDriver driver;
+    public Waits waits;
+    public ElementCache elements;   // resolved handles, dropped on postback/navigation/staleness
 
     public CreatePolicyPage(WebDriver driver) {
         this.driver = driver;
+        this.waits = new Waits(driver, Waits.Profile.CREATE_POLICY);
+        this.elements = new ElementCache(waits);
     }
 
     // 2) Locators (public, taken from your HTML)
@@ -45,119 +55,241 @@ public class CreatePolicyPage {
     public By hiddenPremium     = By.id("ContentPlaceHolder_Admin_hiddenPremium");
     public By hiddenTenure      = By.id("ContentPlaceHolder_Admin_hiddenTenure");
 
+    /** How fillForm enters values. */
+    public enum FillMode {
+        /** One script call sets every field and fires input/change events (default). */
+        SCRIPT,
+        /** Real clear() + sendKeys() per field, for tests about typing behaviour. */
+        KEYSTROKES
+    }
+
+    // Sets Sub Category, the text fields and the tenure slider, firing the events a user would.
+    // 'change' is not fired on AutoPostBack fields; a Sub Category that posts back is reported instead.
+    private static final String FILL_JS =
+            "var f = arguments[0];" +
+            "function fire(el, type) { el.dispatchEvent(new Event(type, {bubbles: true})); }" +
+            "function postsBack(el) { return (el.getAttribute('onchange') || '').indexOf('__doPostBack') >= 0; }" +
+            "var sub = document.getElementById(f.subId);" +
+            "if (f.pickSub && sub) {" +
+            "  if (postsBack(sub)) return 'subPostBack';" +
+            "  var idx = -1;" +
+            "  for (var i = 0; i < sub.options.length; i++) {" +
+            "    if (f.sub === null ? i === 1 : sub.options[i].text.trim() === f.sub) { idx = i; break; }" +
+            "  }" +
+            "  if (idx < 0 && f.sub !== null) return 'Sub Category option not found: ' + f.sub;" +
+            "  if (idx >= 0 && sub.selectedIndex !== idx) { sub.selectedIndex = idx; fire(sub, 'change'); }" +
+            "}" +
+            "for (var j = 0; j < f.fields.length; j++) {" +
+            "  var el = document.getElementById(f.fields[j][0]);" +
+            "  if (!el) return 'Field not found: ' + f.fields[j][0];" +
+            "  el.value = f.fields[j][1];" +
+            "  fire(el, 'input');" +
+            "  if (!postsBack(el)) fire(el, 'change');" +
+            "}" +
+            "return null;";
+
+    // Values of all hidden review fields, in one call
+    private static final String READ_HIDDEN_JS =
+            "var out = [];" +
+            "for (var i = 0; i < arguments.length; i++) {" +
+            "  var el = document.getElementById(arguments[i]);" +
+            "  out.push(el ? el.value.trim() : null);" +
+            "}" +
+            "return out;";
+
     // 3) Actions (public) — kept simple as you prefer
 
+    // ----- Whole form -----
+    /** Fills the form from a record in the default SCRIPT mode. */
+    public void fillForm(PolicyRecord policy) {
+        fillForm(policy, FillMode.SCRIPT);
+    }
+
+    /**
+     * Fills every non-null field of the record. Main Category is always selected like a user
+     * (its AutoPostBack repopulates Sub Category on the server); in SCRIPT mode everything else
+     * then takes a single script call.
+     */
+    public void fillForm(PolicyRecord policy, FillMode mode) {
+        if (policy.mainCategory != null) selectMainCategory(policy.mainCategory);
+        boolean pickSub = policy.mainCategory != null || policy.subCategory != null;
+
+        if (mode == FillMode.KEYSTROKES) {
+            if (pickSub) pickSubCategory(policy.subCategory);
+            if (policy.policyName != null) setPolicyName(policy.policyName);
+            if (policy.sumAssured != null) setSumAssured(policy.sumAssured);
+            if (policy.premium != null) setPremium(policy.premium);
+            if (policy.tenure != null) setTenure(policy.tenure);
+            return;
+        }
+
+        String problem = runFillScript(policy, pickSub);
+        if ("subPostBack".equals(problem)) {
+            // Sub Category posts back too: select it like a user, then script the rest
+            pickSubCategory(policy.subCategory);
+            problem = runFillScript(policy, false);
+        }
+        if (problem != null) {
+            throw new RuntimeException("Could not fill Create Policy form: " + problem);
+        }
+    }
+
+    /** Reads all hidden review fields (populated by the page JS before review) in one call. */
+    public PolicyRecord readHiddenFields() {
+        List<?> v = (List<?>) ((JavascriptExecutor) driver).executeScript(READ_HIDDEN_JS,
+                id(hiddenMainCategory), id(hiddenSubCategory), id(hiddenPolicyName),
+                id(hiddenSumAssured), id(hiddenPremium), id(hiddenTenure));
+        String tenure = (String) v.get(5);
+        return new PolicyRecord((String) v.get(0), (String) v.get(1), (String) v.get(2),
+                (String) v.get(3), (String) v.get(4),
+                tenure == null || tenure.isEmpty() ? null : Integer.valueOf(tenure));
+    }
+
+    private String runFillScript(PolicyRecord policy, boolean pickSub) {
+        List<List<String>> fields = new ArrayList<>();
+        if (policy.policyName != null) fields.add(Arrays.asList(id(txtPolicyName), policy.policyName));
+        if (policy.sumAssured != null) fields.add(Arrays.asList(id(txtSumAssured), policy.sumAssured));
+        if (policy.premium != null)    fields.add(Arrays.asList(id(txtPremium), policy.premium));
+        if (policy.tenure != null)     fields.add(Arrays.asList(id(sliderTenure), String.valueOf(policy.tenure)));
+
+        Map<String, Object> args = new HashMap<>();
+        args.put("subId", id(ddlSubCategory));
+        args.put("pickSub", pickSub);
+        args.put("sub", policy.subCategory);
+        args.put("fields", fields);
+        return (String) ((JavascriptExecutor) driver).executeScript(FILL_JS, args);
+    }
+
+    /** Selects the given Sub Category, or the first real option when null (none: keep default). */
+    private void pickSubCategory(String subCategory) {
+        if (subCategory != null) {
+            selectSubCategory(subCategory);
+            return;
+        }
+        elements.act(ddlSubCategory, e -> waits.select(e, select -> {
+            if (select.getOptions().size() > 1) select.selectByIndex(1);
+        }));
+    }
+
+    /** Element id of a By.id locator (all form locators on this page are ids). */
+    private static String id(By locator) {
+        return ((By.Remotable) locator).getRemoteParameters().value().toString();
+    }
+
     // ----- Dropdowns -----
+    /** Select Main Category by visible text; returns after the postback that repopulates Sub Category. */
     public void selectMainCategory(String visibleText) {
-        new Select(driver.findElement(ddlMainCategory)).selectByVisibleText(visibleText);
+        elements.act(ddlMainCategory, e -> waits.select("CreatePolicy.mainCategory", e, select -> select.selectByVisibleText(visibleText)));
     }
 
     /** Select Sub Category by visible text (call after postback populates it). */
     public void selectSubCategory(String visibleText) {
-        new Select(driver.findElement(ddlSubCategory)).selectByVisibleText(visibleText);
+        elements.act(ddlSubCategory, e -> waits.select(e, select -> select.selectByVisibleText(visibleText)));
     }
 
     /** Get all visible options from Main Category (useful for option-list validation). */
     public List<String> getMainCategoryOptions() {
-        List<WebElement> opts = new Select(driver.findElement(ddlMainCategory)).getOptions();
+        List<WebElement> opts = elements.read(ddlMainCategory, e -> new Select(e).getOptions());
         List<String> names = new ArrayList<>();
         for (WebElement o : opts) names.add(o.getText().trim());
         return names;
     }
 
     public String getSelectedMainCategory() {
-        return new Select(driver.findElement(ddlMainCategory)).getFirstSelectedOption().getText().trim();
+        return elements.read(ddlMainCategory, e -> new Select(e).getFirstSelectedOption().getText().trim());
     }
 
     public String getSelectedSubCategory() {
-        return new Select(driver.findElement(ddlSubCategory)).getFirstSelectedOption().getText().trim();
+        return elements.read(ddlSubCategory, e -> new Select(e).getFirstSelectedOption().getText().trim());
     }
 
     // ----- Text/number fields -----
     public void setPolicyName(String value) {
-        WebElement e = driver.findElement(txtPolicyName);
-        e.clear(); e.sendKeys(value);
+        elements.act(txtPolicyName, e -> { e.clear(); e.sendKeys(value); });
     }
 
     public void setPremium(String value) {
-        WebElement e = driver.findElement(txtPremium);
-        e.clear(); e.sendKeys(value);
+        elements.act(txtPremium, e -> { e.clear(); e.sendKeys(value); });
     }
 
     public void setSumAssured(String value) {
-        WebElement e = driver.findElement(txtSumAssured);
-        e.clear(); e.sendKeys(value);
+        elements.act(txtSumAssured, e -> { e.clear(); e.sendKeys(value); });
     }
 
     /** Sets tenure slider; also triggers oninput so label updates. */
     public void setTenure(int years) {
-        WebElement slider = driver.findElement(sliderTenure);
         // Use JS to ensure the oninput handler fires (updateTenure)
-        ((JavascriptExecutor) driver).executeScript(
+        elements.act(sliderTenure, slider -> ((JavascriptExecutor) driver).executeScript(
             "arguments[0].value = arguments[1]; arguments[0].dispatchEvent(new Event('input'));",
             slider, years
-        );
+        ));
     }
 
     public String getTenureLabelText() {
-        return driver.findElement(tenureValueLabel).getText().trim();
+        return elements.read(tenureValueLabel, e -> e.getText().trim());
     }
 
     // ----- Buttons / Modal -----
     /** Clicks Create to open Review dialog (does not submit form). */
     public void clickCreateToOpenReview() {
-        driver.findElement(btnCreate).click();
+        waits.clickable(btnCreate).click();
     }
 
     /** Clicks OK in the review dialog to trigger server postback (save). */
     public void clickReviewOk() {
-        driver.findElement(modalOkButton).click();
+        waits.clickable(modalOkButton).click();
+    }
+
+    /** Clicks OK and waits for the save postback; false if the page never reloaded (e.g. blocked by validation). */
+    public boolean clickReviewOkAndWaitForPostback() {
+        boolean reloaded = waits.postback("CreatePolicy.save", this::clickReviewOk);
+        if (reloaded) waits.present(btnCreate);
+        return reloaded;
     }
 
     /** Clicks Reset (client-side reset only per your JS). */
     public void clickReset() {
-        driver.findElement(btnReset).click();
+        waits.clickable(btnReset).click();
     }
 
     // ----- Review dialog & URL helpers -----
     /** Returns true if the review modal is displayed via inline style (display != none). */
     public boolean isReviewModalVisible() {
-        try {
-            WebElement modal = driver.findElement(policyReviewModal);
-            return modal.isDisplayed(); // works because style 'display:block' makes it rendered
-        } catch (NoSuchElementException e) {
-            return false;
-        }
+        return waits.isDisplayed(policyReviewModal); // works because style 'display:block' makes it rendered
     }
 
     /** Returns the iframe src URL to verify values passed to review page. */
     public String getReviewFrameSrc() {
-        return driver.findElement(policyReviewFrame).getAttribute("src");
+        return elements.read(policyReviewFrame, e -> e.getAttribute("src"));
     }
 
     // ----- Hidden field getters (populated by JS before opening review) -----
-    public String getHiddenMainCategory() { return driver.findElement(hiddenMainCategory).getAttribute("value").trim(); }
-    public String getHiddenSubCategory()  { return driver.findElement(hiddenSubCategory).getAttribute("value").trim(); }
-    public String getHiddenPolicyName()   { return driver.findElement(hiddenPolicyName).getAttribute("value").trim(); }
-    public String getHiddenSumAssured()   { return driver.findElement(hiddenSumAssured).getAttribute("value").trim(); }
-    public String getHiddenPremium()      { return driver.findElement(hiddenPremium).getAttribute("value").trim(); }
-    public String getHiddenTenure()       { return driver.findElement(hiddenTenure).getAttribute("value").trim(); }
+    public String getHiddenMainCategory() { return hiddenValue(hiddenMainCategory); }
+    public String getHiddenSubCategory()  { return hiddenValue(hiddenSubCategory); }
+    public String getHiddenPolicyName()   { return hiddenValue(hiddenPolicyName); }
+    public String getHiddenSumAssured()   { return hiddenValue(hiddenSumAssured); }
+    public String getHiddenPremium()      { return hiddenValue(hiddenPremium); }
+    public String getHiddenTenure()       { return hiddenValue(hiddenTenure); }
+
+    private String hiddenValue(By hidden) {
+        return elements.read(hidden, e -> e.getAttribute("value").trim());
+    }
 
     // ----- Generic validation helpers (for Premium validation fallbacks) -----
     /** Returns placeholder attribute from Premium (empty if not set in HTML). */
     public String getPremiumPlaceholder() {
-        return driver.findElement(txtPremium).getAttribute("placeholder");
+        return elements.read(txtPremium, e -> e.getAttribute("placeholder"));
     }
 
     /** Returns the current Premium field value as string (browser may normalize it). */
     public String getPremiumValue() {
-        return driver.findElement(txtPremium).getAttribute("value");
+        return elements.read(txtPremium, e -> e.getAttribute("value"));
     }
 
     /** Quick probe for common error UI elements near the form (adjust when you add IDs for messages). */
     public List<WebElement> findErrorMessages() {
         List<WebElement> errs = new ArrayList<>();
-        errs.addAll(driver.findElements(By.cssSelector(".invalid-feedback, .text-danger, .alert-danger")));
+        errs.addAll(waits.findAll(By.cssSelector(".invalid-feedback, .text-danger, .alert-danger")));
         return errs;
     }
 }
\ No newline at end of file
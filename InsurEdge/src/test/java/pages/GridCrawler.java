@@ -0,0 +1,88 @@
+package pages;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over the rows of every gvPolicies page, starting from the page currently shown.
+ *
+ * A page is only fetched (pager click + one snapshot call) when the consumer has used up the
+ * rows of the previous one, so short-circuiting stream operations (anyMatch, findFirst, limit)
+ * stop paging early. Every pager click runs on the consumer's thread: a WebDriver session is not
+ * thread-safe, and DriverMetrics attributes commands to the calling thread's test.
+ */
+public class GridCrawler implements Iterator<List<String>> {
+
+    public static final int MAX_PAGES = Integer.getInteger("grid.crawl.maxPages", Integer.MAX_VALUE);
+
+    private final AuthorizePolicyPage page;
+    private final int maxPages;
+
+    private GridSnapshot current;
+    private Iterator<List<String>> rows = Collections.<List<String>>emptyList().iterator();
+    private int pagesLoaded;    // consumer thread only
+    private boolean exhausted;
+
+    public GridCrawler(AuthorizePolicyPage page, int maxPages) {
+        this.page = page;
+        this.maxPages = maxPages;
+    }
+
+    /** Wraps this crawler in a sequential stream. */
+    public Stream<List<String>> stream() {
+        Spliterator<List<String>> split = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(split, false);
+    }
+
+    /** Number of grid pages fetched so far. */
+    public int pagesLoaded() {
+        return pagesLoaded;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!rows.hasNext()) {
+            if (exhausted || !advance()) {
+                exhausted = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return rows.next();
+    }
+
+    private boolean advance() {
+        GridSnapshot snap = current == null ? load() : loadAfter(current);
+        if (snap == null) return false;
+
+        current = snap;
+        rows = snap.dataRows().iterator();
+        return true;
+    }
+
+    /** Moves the grid to the page after 'from' and snapshots it, or returns null at the end. */
+    private GridSnapshot loadAfter(GridSnapshot from) {
+        int nextPage = from.getCurrentPage() + 1;
+        if (pagesLoaded >= maxPages || !from.hasPageLink(nextPage)) return null;
+        if (!page.goToPageIfExists(nextPage)) return null;
+        return load();
+    }
+
+    private GridSnapshot load() {
+        GridSnapshot snap = page.snapshotGrid();
+        pagesLoaded++;
+        return snap;
+    }
+}
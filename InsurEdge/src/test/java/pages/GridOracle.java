@@ -0,0 +1,224 @@
+package pages;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Expected filter results, computed from one crawl of the unfiltered grid.
+ *
+ * Per column, the rows are indexed by cell value (e.g. Main Category -> rows, Status -> rows),
+ * each with a Digest: row count plus an order-independent hash of the rows' full contents.
+ * A filter test digests what the server returned and compares in O(1), so a dropped,
+ * duplicated or altered row fails the test, not only a row of the wrong category.
+ * Row lists are kept for readable diffs when a comparison fails.
+ *
+ * Oracles are memoised per suite by key (suite()): the first caller crawls, outside the map,
+ * and concurrent callers for the same key wait for its result; a failed crawl is not kept.
+ * refresh() recrawls one, e.g. when other tests may have created policies since it was built.
+ */
+public class GridOracle {
+
+    private static final Map<String, FutureTask<GridOracle>> SUITE = new ConcurrentHashMap<>();
+
+    private final List<String> headers;
+    private final List<List<String>> rows;
+    private final Map<Integer, Map<String, Index>> byColumn = new ConcurrentHashMap<>();
+
+    public GridOracle(List<String> headers, List<List<String>> rows) {
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        List<List<String>> copy = new ArrayList<>(rows.size());
+        for (List<String> r : rows) copy.add(Collections.unmodifiableList(new ArrayList<>(r)));
+        this.rows = Collections.unmodifiableList(copy);
+    }
+
+    // ----- Suite memo -----
+
+    /** The oracle for 'key', built by 'crawl' the first time any test asks for it. */
+    public static GridOracle suite(String key, Supplier<GridOracle> crawl) {
+        FutureTask<GridOracle> task = new FutureTask<>(crawl::get);
+        FutureTask<GridOracle> memo = SUITE.putIfAbsent(key, task);
+        if (memo == null) {
+            memo = task;
+            task.run();     // on this thread, with no map lock held
+        }
+        return await(key, memo);
+    }
+
+    /** Rebuilds the oracle for 'key' (the grid's contents changed since the crawl). */
+    public static GridOracle refresh(String key, Supplier<GridOracle> crawl) {
+        FutureTask<GridOracle> task = new FutureTask<>(crawl::get);
+        task.run();
+        GridOracle fresh = await(key, task);
+        SUITE.put(key, task);
+        return fresh;
+    }
+
+    private static GridOracle await(String key, FutureTask<GridOracle> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for grid oracle " + key, e);
+        } catch (ExecutionException e) {
+            SUITE.remove(key, task);    // the next caller crawls again
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // ----- Queries -----
+
+    public List<String> getHeaders()    { return headers; }
+    public List<List<String>> getRows() { return rows; }
+
+    /** Count + content hash of the rows whose column 'col' equals 'value'. */
+    public Digest expected(int col, String value) {
+        Index i = index(col).get(value);
+        return i == null ? Digest.EMPTY : i.digest;
+    }
+
+    /** Rows whose column 'col' equals 'value', in crawl order. */
+    public List<List<String>> rows(int col, String value) {
+        Index i = index(col).get(value);
+        return i == null ? Collections.<List<String>>emptyList() : i.rows;
+    }
+
+    /** Distinct values of a column with their row counts. */
+    public Map<String, Integer> counts(int col) {
+        Map<String, Integer> out = new HashMap<>();
+        for (Map.Entry<String, Index> e : index(col).entrySet()) out.put(e.getKey(), e.getValue().rows.size());
+        return out;
+    }
+
+    /**
+     * Human-readable difference between the expected rows for col == value and 'actual'
+     * (only call on mismatch; this is the slow path).
+     */
+    public String diff(int col, String value, List<List<String>> actual) {
+        Map<List<String>, Integer> remaining = new HashMap<>();
+        for (List<String> r : rows(col, value)) remaining.merge(r, 1, Integer::sum);
+        List<List<String>> unexpected = new ArrayList<>();
+        for (List<String> r : actual) {
+            Integer n = remaining.get(r);
+            if (n == null) unexpected.add(r);
+            else if (n == 1) remaining.remove(r);
+            else remaining.put(r, n - 1);
+        }
+        List<List<String>> missing = new ArrayList<>();
+        for (Map.Entry<List<String>, Integer> e : remaining.entrySet()) {
+            for (int i = 0; i < e.getValue(); i++) missing.add(e.getKey());
+        }
+        return "expected " + rows(col, value).size() + " rows, got " + actual.size()
+                + " | missing " + missing.size() + ": " + head(missing)
+                + " | unexpected " + unexpected.size() + ": " + head(unexpected);
+    }
+
+    private Map<String, Index> index(int col) {
+        return byColumn.computeIfAbsent(col, c -> {
+            Map<String, List<List<String>>> byValue = new HashMap<>();
+            for (List<String> r : rows) {
+                if (c < r.size()) byValue.computeIfAbsent(r.get(c), v -> new ArrayList<>()).add(r);
+            }
+            Map<String, Index> idx = new HashMap<>();
+            for (Map.Entry<String, List<List<String>>> e : byValue.entrySet()) idx.put(e.getKey(), new Index(e.getValue()));
+            return idx;
+        });
+    }
+
+    private static String head(List<List<String>> rows) {
+        return rows.size() <= 5 ? rows.toString() : rows.subList(0, 5) + " ...";
+    }
+
+    private static final class Index {
+        final List<List<String>> rows;
+        final Digest digest;
+
+        Index(List<List<String>> rows) {
+            this.rows = Collections.unmodifiableList(rows);
+            this.digest = Digest.of(rows);
+        }
+    }
+
+    // ----- Digest -----
+
+    /**
+     * Multiset fingerprint of rows: count and the sum of 64-bit row hashes, so the order rows
+     * (or pages) arrive in doesn't matter. Immutable, so the oracle's digests can be handed to
+     * every test of a parallel suite.
+     */
+    public static final class Digest {
+        public static final Digest EMPTY = new Digest(0, 0);
+
+        private final int count;
+        private final long hash;
+
+        private Digest(int count, long hash) {
+            this.count = count;
+            this.hash = hash;
+        }
+
+        /** This digest with one more row; this one is unchanged. */
+        public Digest plus(List<String> row) {
+            return new Digest(count + 1, hash + rowHash(row));
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public static Digest of(Iterable<List<String>> rows) {
+            int count = 0;
+            long hash = 0;
+            for (List<String> r : rows) {
+                count++;
+                hash += rowHash(r);
+            }
+            return new Digest(count, hash);
+        }
+
+        // FNV-1a over the cells (unit-separated), finished with a SplitMix64 mix so sums don't cancel;
+        // cells are hashed as GridSnapshot.cellText, whichever side (browser or HTML) they came from
+        private static long rowHash(List<String> row) {
+            long h = 0xcbf29ce484222325L;
+            for (String cell : row) {
+                for (byte b : GridSnapshot.cellText(cell).getBytes(StandardCharsets.UTF_8)) {
+                    h ^= b;
+                    h *= 0x100000001b3L;
+                }
+                h ^= 0x1f;
+                h *= 0x100000001b3L;
+            }
+            h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+            h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+            return h ^ (h >>> 31);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Digest)) return false;
+            Digest d = (Digest) o;
+            return count == d.count && hash == d.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash) * 31 + count;
+        }
+
+        @Override
+        public String toString() {
+            return "Digest{rows=" + count + ", hash=" + Long.toHexString(hash) + "}";
+        }
+    }
+}
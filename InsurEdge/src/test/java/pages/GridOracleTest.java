@@ -0,0 +1,128 @@
+package pages;
+
+import base.TestData;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** GridOracle digests and suite memo (no browser). */
+public class GridOracleTest {
+
+    private static final List<String> HEADERS = TestData.row("Policy Name", "Main Category", "Sum Assured");
+
+    private static List<List<String>> rows() {
+        return TestData.table(
+                "Family Shield | Life | 500000",
+                "Road Safe     | Auto | 250000",
+                "Golden Years  | Life | 750000",
+                "Young Start   | Life | 100000");
+    }
+
+    @Test
+    public void digestIgnoresRowOrder() {
+        List<List<String>> shuffled = new ArrayList<>(rows());
+        Collections.reverse(shuffled);
+        Assert.assertEquals(GridOracle.Digest.of(shuffled), GridOracle.Digest.of(rows()));
+        Assert.assertEquals(GridOracle.Digest.of(shuffled).hashCode(), GridOracle.Digest.of(rows()).hashCode());
+    }
+
+    @Test
+    public void digestDetectsChangedDroppedAndDuplicatedRows() {
+        GridOracle.Digest expected = GridOracle.Digest.of(rows());
+
+        List<List<String>> changed = new ArrayList<>(rows());
+        changed.set(2, TestData.row("Golden Years", "Life", "750001"));
+        Assert.assertNotEquals(GridOracle.Digest.of(changed), expected, "changed cell");
+
+        List<List<String>> dropped = new ArrayList<>(rows());
+        dropped.remove(1);
+        Assert.assertNotEquals(GridOracle.Digest.of(dropped), expected, "dropped row");
+
+        List<List<String>> duplicated = new ArrayList<>(rows());
+        duplicated.set(1, rows().get(0));
+        Assert.assertNotEquals(GridOracle.Digest.of(duplicated), expected, "row replaced by a duplicate");
+
+        // Same cells, different split between columns
+        Assert.assertNotEquals(GridOracle.Digest.of(TestData.table("ab | c")), GridOracle.Digest.of(TestData.table("a | bc")));
+    }
+
+    @Test
+    public void expectedDigestPerColumnValue() {
+        GridOracle oracle = new GridOracle(HEADERS, rows());
+        List<List<String>> life = TestData.table("Young Start | Life | 100000", "Family Shield | Life | 500000",
+                "Golden Years | Life | 750000");
+        Assert.assertEquals(oracle.expected(1, "Life"), GridOracle.Digest.of(life));
+        Assert.assertEquals(oracle.expected(1, "Life").count(), 3);
+        Assert.assertEquals(oracle.expected(1, "Marine"), GridOracle.Digest.EMPTY);
+        Assert.assertEquals(oracle.counts(1).get("Auto"), Integer.valueOf(1));
+        Assert.assertTrue(oracle.diff(1, "Life", life.subList(0, 2)).contains("missing 1"));
+    }
+
+    @Test
+    public void callersCannotChangeTheSharedOracle() {
+        GridOracle oracle = new GridOracle(HEADERS, rows());
+        GridOracle.Digest life = oracle.expected(1, "Life");
+        GridOracle.Digest more = life.plus(TestData.row("Extra", "Life", "1"));
+
+        Assert.assertEquals(more.count(), 4);
+        Assert.assertEquals(oracle.expected(1, "Life"), life);
+        Assert.assertEquals(oracle.expected(1, "Life").count(), 3);
+        Assert.assertEquals(more, GridOracle.Digest.of(oracle.rows(1, "Life")).plus(TestData.row("Extra", "Life", "1")));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> oracle.rows(1, "Life").clear());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> oracle.getRows().get(0).set(0, "x"));
+    }
+
+    @Test
+    public void suiteCrawlsOncePerKeyAndRetriesAfterAFailure() throws Exception {
+        String key = "GridOracleTest-" + System.nanoTime();
+        AtomicInteger crawls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<GridOracle>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(threads.submit(() -> GridOracle.suite(key, () -> {
+                    crawls.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return new GridOracle(HEADERS, rows());
+                })));
+            }
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            // Another key is not held up by the running crawl
+            GridOracle other = GridOracle.suite(key + "-other", () -> new GridOracle(HEADERS, rows()));
+            Assert.assertEquals(other.getRows().size(), 4);
+            release.countDown();
+            GridOracle first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<GridOracle> r : results) Assert.assertSame(r.get(5, TimeUnit.SECONDS), first);
+            Assert.assertEquals(crawls.get(), 1);
+        } finally {
+            threads.shutdownNow();
+        }
+
+        String failing = key + "-failing";
+        Assert.assertThrows(IllegalStateException.class, () -> GridOracle.suite(failing, () -> {
+            throw new IllegalStateException("grid not loaded");
+        }));
+        GridOracle retried = GridOracle.suite(failing, () -> new GridOracle(HEADERS, rows()));
+        Assert.assertEquals(retried.getHeaders(), HEADERS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable copy of the gvPolicies grid (one page) plus its pager state.
+ *
+ * Built from a single executeScript call by AuthorizePolicyPage.snapshotGrid(), so reading
+ * any number of cells costs no further browser round trips. Columns are 0-based
+ * (XPath td[2] == column 1). Header and cell text goes through cellText(), so snapshots read
+ * from the browser and from response HTML (http.HtmlGrid) compare equal.
+ */
+public class GridSnapshot {
+
+    private final List<String> headers;
+    private final List<List<String>> rows;
+    private final int currentPage;            // 0 when the grid has no pager
+    private final List<Integer> linkedPages;  // page numbers reachable from the pager links
+
+    public GridSnapshot(List<String> headers, List<List<String>> rows, int currentPage, List<Integer> linkedPages) {
+        this.headers = cellTexts(headers);
+        List<List<String>> copy = new ArrayList<>(rows.size());
+        for (List<String> r : rows) copy.add(cellTexts(r));
+        this.rows = Collections.unmodifiableList(copy);
+        this.currentPage = currentPage;
+        this.linkedPages = Collections.unmodifiableList(new ArrayList<>(linkedPages));
+    }
+
+    /** Builds a snapshot from the JS object returned by AuthorizePolicyPage's grid script. */
+    @SuppressWarnings("unchecked")
+    static GridSnapshot fromScriptResult(Object result) {
+        if (!(result instanceof Map)) {
+            return new GridSnapshot(Collections.<String>emptyList(), Collections.<List<String>>emptyList(),
+                    0, Collections.<Integer>emptyList());
+        }
+        Map<String, Object> m = (Map<String, Object>) result;
+
+        List<String> headers = new ArrayList<>();
+        for (Object h : (List<Object>) m.get("headers")) headers.add(String.valueOf(h));
+
+        List<List<String>> rows = new ArrayList<>();
+        for (Object r : (List<Object>) m.get("rows")) {
+            List<String> cells = new ArrayList<>();
+            for (Object c : (List<Object>) r) cells.add(String.valueOf(c));
+            rows.add(cells);
+        }
+
+        List<Integer> pages = new ArrayList<>();
+        for (Object p : (List<Object>) m.get("pages")) pages.add(((Number) p).intValue());
+
+        Object current = m.get("currentPage");
+        int currentPage = current instanceof Number ? ((Number) current).intValue() : 0;
+
+        return new GridSnapshot(headers, rows, currentPage, pages);
+    }
+
+    /**
+     * Cell text as the grid is compared: every run of whitespace, including no-break spaces
+     * (innerText keeps &nbsp; as U+00A0) and line breaks, becomes one space; ends trimmed.
+     */
+    public static String cellText(String raw) {
+        StringBuilder out = null;
+        boolean pending = false;
+        int n = raw.length();
+        for (int i = 0; i < n; i++) {
+            char ch = raw.charAt(i);
+            if (Character.isWhitespace(ch) || Character.isSpaceChar(ch)) {
+                if (out == null) out = new StringBuilder(n).append(raw, 0, i);
+                pending = true;
+                continue;
+            }
+            if (out != null) {
+                if (pending && out.length() > 0) out.append(' ');
+                out.append(ch);
+            }
+            pending = false;
+        }
+        return out == null ? raw : out.toString();
+    }
+
+    private static List<String> cellTexts(List<String> cells) {
+        List<String> out = new ArrayList<>(cells.size());
+        for (String c : cells) out.add(cellText(c));
+        return Collections.unmodifiableList(out);
+    }
+
+    // ----- Table model -----
+
+    public List<String> getHeaders()     { return headers; }
+    public List<List<String>> getRows()  { return rows; }
+    public int rowCount()                { return rows.size(); }
+    public boolean isEmpty()             { return rows.isEmpty(); }
+
+    /** Rows with a cell for every header: drops placeholders such as a single colspan "No records" cell. */
+    public List<List<String>> dataRows() {
+        int cols = headers.size();
+        if (cols <= 1) return rows;
+        List<List<String>> out = new ArrayList<>();
+        for (List<String> r : rows) {
+            if (r.size() >= cols) out.add(r);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /** Cell text (trimmed); empty string if that row has no such column. */
+    public String cell(int row, int col) {
+        List<String> r = rows.get(row);
+        return col < r.size() ? r.get(col) : "";
+    }
+
+    /** Index of a header (case-insensitive), or -1. */
+    public int columnIndex(String header) {
+        for (int i = 0; i < headers.size(); i++) {
+            if (headers.get(i).equalsIgnoreCase(header)) return i;
+        }
+        return -1;
+    }
+
+    /** All values of a column, skipping rows that don't have it (e.g. an "no records" row). */
+    public List<String> column(int col) {
+        List<String> values = new ArrayList<>();
+        for (List<String> r : rows) {
+            if (col < r.size()) values.add(r.get(col));
+        }
+        return values;
+    }
+
+    /** Distinct non-empty values of a column, in first-seen order. */
+    public Set<String> distinct(int col) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String v : column(col)) {
+            if (!v.isEmpty()) values.add(v);
+        }
+        return values;
+    }
+
+    // ----- Pager state -----
+
+    public int getCurrentPage()            { return currentPage; }
+    public List<Integer> getLinkedPages()  { return linkedPages; }
+    public boolean hasPager()              { return currentPage > 0 || !linkedPages.isEmpty(); }
+
+    public boolean hasPageLink(int pageNo) {
+        return linkedPages.contains(pageNo);
+    }
+
+    /** True if a link to a page after the current one exists. */
+    public boolean hasNextPage() {
+        for (int p : linkedPages) {
+            if (p > currentPage) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "GridSnapshot{rows=" + rows.size() + ", page=" + currentPage + ", links=" + linkedPages + "}";
+    }
+}
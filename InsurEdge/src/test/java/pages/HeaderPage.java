@@ -1,14 +1,17 @@
 package pages;
 
+import base.Waits;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
 public class HeaderPage {
 	
 	WebDriver driver;
+	Waits waits;
 	
 	public HeaderPage(WebDriver driver) {
 		this.driver=driver;
+		this.waits=new Waits(driver, Waits.Profile.DEFAULT);
 	}
 	
 	
@@ -22,7 +25,7 @@ public class HeaderPage {
 	
 	
 	 public void clickSideBarButton() {
-         driver.findElement(sidebarToggleButton).click();
+         waits.clickable(sidebarToggleButton).click();
 	 }
 
 }
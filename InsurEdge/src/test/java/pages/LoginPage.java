@@ -1,15 +1,22 @@
 package pages;
 
+import base.ElementCache;
+import base.Waits;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 
 public class LoginPage {
 
     // 👇 1) Constructor first
     public WebDriver driver;
+    public Waits waits;
+    public ElementCache elements;
 
     public LoginPage(WebDriver driver) {
         this.driver = driver;
+        this.waits = new Waits(driver, Waits.Profile.LOGIN);
+        this.elements = new ElementCache(waits);
     }
 
     // 👇 2) Locators (all public, simple)
@@ -19,17 +26,17 @@ public class LoginPage {
 
     // 👇 3) Action methods (simple & public)
     public void setUserName(String userName) {
-        driver.findElement(usernameInput).clear();
-        driver.findElement(usernameInput).sendKeys(userName);
+        elements.act(usernameInput, e -> { e.clear(); e.sendKeys(userName); });
     }
 
     public void setPassword(String password) {
-        driver.findElement(passwordInput).clear();
-        driver.findElement(passwordInput).sendKeys(password);
+        elements.act(passwordInput, e -> { e.clear(); e.sendKeys(password); });
     }
 
+    /** Clicks Login and waits for the resulting page (timed as PagePerf step "Login.submit"). */
     public void clickLoginButton() {
-        driver.findElement(loginButton).click();
+        WebElement login = waits.clickable(loginButton);
+        waits.postback("Login.submit", login::click);
     }
 
    
@@ -1,5 +1,6 @@
 package pages;
 
+import base.Waits;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
@@ -7,9 +8,11 @@ public class SlideBarMenuPage {
 
     // 1) Constructor
     public WebDriver driver;
+    public Waits waits;
 
     public SlideBarMenuPage(WebDriver driver) {
         this.driver = driver;
+        this.waits = new Waits(driver, Waits.Profile.DEFAULT);
     }
 
     // 2) Locators (public)
@@ -22,19 +25,19 @@ public class SlideBarMenuPage {
 
     /** Expands the Policy menu (does not click any child). */
     public void expandPolicyMenu() {
-        driver.findElement(policyMenu).click();
+        waits.clickable(policyMenu).click();
     }
 
     /** Expands Policy and clicks the Create link. */
     public void clickPolicyCreate() {
        // expandPolicyMenu();
-        driver.findElement(linkPolicyCreate).click();
+        waits.clickable(linkPolicyCreate).click();
     }
 
     /** Expands Policy and clicks the Authorize link. */
     public void clickPolicyAuthorize() {
         //expandPolicyMenu();
-        driver.findElement(linkPolicyAuthorize).click();
+        waits.clickable(linkPolicyAuthorize).click();
     }
 
     
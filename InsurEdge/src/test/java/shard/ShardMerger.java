@@ -0,0 +1,135 @@
+package shard;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Joins the results of shard runs back into one report in 'out':
+ *
+ *   testng-results.xml        every shard's <suite> under one root, totals summed (also the
+ *                             history for the next ShardPlanner run and TimeBudgetListener)
+ *   junitreports/TEST-*.xml   one file per class; testcases of a class split over shards are
+ *                             combined and its counts/time summed
+ *
+ * Inputs are shard output directories (target/surefire-reports or test-output of each agent).
+ */
+public class ShardMerger {
+
+    private static final String[] RESULT_TOTALS = {"total", "passed", "failed", "skipped", "ignored"};
+    private static final String[] SUITE_TOTALS = {"tests", "failures", "errors", "skipped"};
+
+    private ShardMerger() { }
+
+    /** Merges the shard directories into 'out'; returns the number of shard results files found. */
+    public static int merge(List<Path> shardDirs, Path out) {
+        Document merged = newDocument("testng-results");
+        Element root = merged.getDocumentElement();
+        for (String a : RESULT_TOTALS) root.setAttribute(a, "0");
+        Map<String, Document> junit = new LinkedHashMap<>();
+        int found = 0;
+
+        for (Path dir : shardDirs) {
+            Path results = dir.resolve("testng-results.xml");
+            if (Files.isRegularFile(results)) {
+                Element shardRoot = parse(results).getDocumentElement();
+                for (String a : RESULT_TOTALS) add(root, a, shardRoot.getAttribute(a));
+                for (Node n = shardRoot.getFirstChild(); n != null; n = n.getNextSibling()) {
+                    if (n instanceof Element && "suite".equals(n.getNodeName())) {
+                        root.appendChild(merged.importNode(n, true));
+                    }
+                }
+                found++;
+            }
+            Path junitDir = dir.resolve("junitreports");
+            if (!Files.isDirectory(junitDir)) continue;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(junitDir, "TEST-*.xml")) {
+                for (Path f : files) mergeJunit(junit, f);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not list " + junitDir + ": " + e.getMessage(), e);
+            }
+        }
+
+        write(merged, out.resolve("testng-results.xml"));
+        for (Map.Entry<String, Document> e : junit.entrySet()) {
+            write(e.getValue(), out.resolve("junitreports").resolve(e.getKey()));
+        }
+        return found;
+    }
+
+    private static void mergeJunit(Map<String, Document> junit, Path file) {
+        String name = file.getFileName().toString();
+        Document shard = parse(file);
+        Document into = junit.get(name);
+        if (into == null) {
+            junit.put(name, shard);
+            return;
+        }
+        Element target = into.getDocumentElement();
+        Element source = shard.getDocumentElement();
+        for (String a : SUITE_TOTALS) add(target, a, source.getAttribute(a));
+        target.setAttribute("time", decimal(target.getAttribute("time")).add(decimal(source.getAttribute("time"))).toPlainString());
+        NodeList cases = source.getElementsByTagName("testcase");
+        for (int i = 0; i < cases.getLength(); i++) {
+            target.appendChild(into.importNode(cases.item(i), true));
+        }
+    }
+
+    // ----- XML helpers -----
+
+    private static void add(Element e, String attribute, String value) {
+        if (value == null || value.isEmpty()) return;
+        long current = e.hasAttribute(attribute) ? Long.parseLong(e.getAttribute(attribute)) : 0;
+        e.setAttribute(attribute, String.valueOf(current + Long.parseLong(value)));
+    }
+
+    private static BigDecimal decimal(String s) {
+        return s == null || s.isEmpty() ? BigDecimal.ZERO : new BigDecimal(s);
+    }
+
+    private static Document newDocument(String rootName) {
+        try {
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            doc.appendChild(doc.createElement(rootName));
+            return doc;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Document parse(Path file) {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+        } catch (Exception e) {
+            throw new RuntimeException("Could not read shard results " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void write(Document doc, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            Transformer t = TransformerFactory.newInstance().newTransformer();
+            t.setOutputProperty(OutputKeys.INDENT, "yes");
+            t.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            t.transform(new DOMSource(doc), new StreamResult(file.toFile()));
+        } catch (Exception e) {
+            throw new RuntimeException("Could not write " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package shard;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits a TestNG suite into K suite files of roughly equal expected runtime, so each can run on
+ * its own JVM / CI agent (mvn test -Dsurefire.suiteXmlFiles=target/shards/testng-shard-1.xml).
+ *
+ * Planning units, with durations from a TestHistory:
+ *   - a class's fixed part: its plain test methods plus data-provider methods that take part in
+ *     dependencies (they must stay together);
+ *   - every known row of an independent data-provider method, on its own.
+ * Each unit costs its test time plus the class's per-method setup (@BeforeMethod/@AfterMethod);
+ * the first unit of a class on a shard also pays the class's one-off setup (e.g. @BeforeClass).
+ * Units are placed longest first on the shard that ends up least loaded (LPT), so rows of a big
+ * data provider spread out while small classes stay whole.
+ *
+ * Shard suites keep the source suite's settings, <test> phases and order. A split data-provider
+ * method runs via ShardRowFilter: other shards get their rows listed, the class's home shard
+ * (the one with its fixed part) runs everything else, including rows added since the plan.
+ * Methods without history are estimated at the typical method duration (-Dshard.defaultMs).
+ */
+public class ShardPlanner {
+
+    private final TestHistory history;
+    private final long defaultMs;
+
+    public ShardPlanner(TestHistory history) {
+        this.history = history;
+        Long typical = history.typicalMs();
+        this.defaultMs = Long.getLong("shard.defaultMs", typical == null ? 10_000 : typical);
+    }
+
+    /** One placeable piece of the suite. */
+    static final class Unit {
+        final int test;                 // index of the source <test>
+        final String className;
+        final String method;            // data-provider method, null = the class's fixed part
+        final List<String> row;         // null for the fixed part
+        final long ms;
+
+        Unit(int test, String className, String method, List<String> row, long ms) {
+            this.test = test;
+            this.className = className;
+            this.method = method;
+            this.row = row;
+            this.ms = ms;
+        }
+
+        String classKey() {
+            return test + "|" + className;
+        }
+    }
+
+    /** Shards of a plan, with their estimated runtime. */
+    public static class Plan {
+        public final List<XmlSuite> suites;
+        public final long[] estimatedMs;
+
+        Plan(List<XmlSuite> suites, long[] estimatedMs) {
+            this.suites = suites;
+            this.estimatedMs = estimatedMs;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < suites.size(); i++) {
+                int classes = 0;
+                for (XmlTest t : suites.get(i).getTests()) classes += t.getXmlClasses().size();
+                sb.append(String.format("shard %d: ~%d s, %d class entries%n", i + 1, estimatedMs[i] / 1000, classes));
+            }
+            return sb.toString();
+        }
+    }
+
+    // ----- Planning -----
+
+    /** Splits the suite (first suite of the file) into 'shards' suites. */
+    public Plan plan(Path suiteFile, int shards) {
+        if (shards < 1) throw new IllegalArgumentException("shards must be >= 1 but was " + shards);
+        XmlSuite source;
+        try {
+            source = new Parser(suiteFile.toString()).parseToList().get(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read suite " + suiteFile, e);
+        }
+
+        List<Unit> units = new ArrayList<>();
+        Map<String, Long> classSetup = new LinkedHashMap<>();
+        List<XmlTest> tests = source.getTests();
+        for (int t = 0; t < tests.size(); t++) {
+            for (XmlClass xc : tests.get(t).getXmlClasses()) {
+                addUnits(t, xc, units, classSetup);
+            }
+        }
+
+        List<List<Unit>> placed = new ArrayList<>();
+        long[] load = place(units, classSetup, shards, placed);
+
+        List<XmlSuite> suites = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            suites.add(shardSuite(source, i, shards, placed, units));
+        }
+        return new Plan(suites, load);
+    }
+
+    /**
+     * LPT: sorts the units longest first and puts each onto the shard where it finishes
+     * earliest (a class's one-off setup counts on its first shard). Fills 'placed' with one
+     * list per shard and returns the shards' estimated runtimes.
+     */
+    static long[] place(List<Unit> units, Map<String, Long> classSetup, int shards, List<List<Unit>> placed) {
+        units.sort(Comparator.comparingLong((Unit u) -> u.ms).reversed());
+        long[] load = new long[shards];
+        List<Set<String>> classesOn = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            classesOn.add(new HashSet<>());
+            placed.add(new ArrayList<>());
+        }
+        for (Unit u : units) {
+            int best = 0;
+            long bestEnd = Long.MAX_VALUE;
+            for (int i = 0; i < shards; i++) {
+                long end = load[i] + u.ms + (classesOn.get(i).contains(u.classKey()) ? 0 : classSetup.get(u.classKey()));
+                if (end < bestEnd) {
+                    bestEnd = end;
+                    best = i;
+                }
+            }
+            load[best] = bestEnd;
+            classesOn.get(best).add(u.classKey());
+            placed.get(best).add(u);
+        }
+        return load;
+    }
+
+    private void addUnits(int test, XmlClass xc, List<Unit> units, Map<String, Long> classSetup) {
+        Class<?> cls = load(xc.getName());
+        List<Method> tests = new ArrayList<>();
+        Set<String> dependedOn = new HashSet<>();
+        Set<String> perMethodConfig = new HashSet<>();
+        Set<String> suiteConfig = new HashSet<>();
+        for (Method m : cls.getMethods()) {
+            Test t = m.getAnnotation(Test.class);
+            if (t != null && t.enabled() && included(xc, m.getName())) {
+                tests.add(m);
+                for (String d : t.dependsOnMethods()) dependedOn.add(d.substring(d.lastIndexOf('.') + 1));
+            }
+            if (m.isAnnotationPresent(BeforeMethod.class) || m.isAnnotationPresent(AfterMethod.class)) {
+                perMethodConfig.add(m.getName());
+            }
+            if (m.isAnnotationPresent(BeforeSuite.class) || m.isAnnotationPresent(AfterSuite.class)) {
+                suiteConfig.add(m.getName());     // once per shard whatever the plan: not balanced
+            }
+        }
+
+        // Setup cost: per-method config spread over the invocations, the rest once per class
+        long perMethodTotal = 0;
+        long oneOff = 0;
+        for (Map.Entry<String, Long> e : history.configMs(cls.getName()).entrySet()) {
+            if (perMethodConfig.contains(e.getKey())) perMethodTotal += e.getValue();
+            else if (!suiteConfig.contains(e.getKey())) oneOff += e.getValue();
+        }
+        long invocations = history.invocations(cls.getName());
+        long perMethod = invocations > 0 ? perMethodTotal / invocations : 0;
+        classSetup.put(test + "|" + cls.getName(), oneOff);
+
+        long fixed = 0;
+        for (Method m : tests) {
+            Test t = m.getAnnotation(Test.class);
+            Map<List<String>, Long> rows = history.rows(cls.getName(), m.getName());
+            boolean splittable = !t.dataProvider().isEmpty() && t.dependsOnMethods().length == 0
+                    && t.dependsOnGroups().length == 0 && !dependedOn.contains(m.getName()) && rows.size() > 1;
+            if (splittable) {
+                for (Map.Entry<List<String>, Long> r : rows.entrySet()) {
+                    units.add(new Unit(test, cls.getName(), m.getName(), r.getKey(), r.getValue() + perMethod));
+                }
+            } else if (!rows.isEmpty()) {
+                for (long ms : rows.values()) fixed += ms + perMethod;
+            } else {
+                Long ms = history.invocationMs(cls.getName(), m.getName());
+                fixed += (ms == null ? defaultMs : ms) + perMethod;
+            }
+        }
+        units.add(new Unit(test, cls.getName(), null, null, fixed));
+    }
+
+    // ----- Shard suites -----
+
+    private static XmlSuite shardSuite(XmlSuite source, int shard, int shards, List<List<Unit>> placed, List<Unit> all) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(source.getName() + "-shard-" + (shard + 1) + "-of-" + shards);
+        suite.setParallel(source.getParallel());
+        suite.setThreadCount(source.getThreadCount());
+        suite.setDataProviderThreadCount(source.getDataProviderThreadCount());
+        suite.setParameters(new LinkedHashMap<>(source.getParameters()));
+        List<String> listeners = new ArrayList<>(source.getListeners());
+        listeners.add(ShardRowFilter.class.getName());
+        suite.setListeners(listeners);
+
+        List<XmlTest> sourceTests = source.getTests();
+        for (int t = 0; t < sourceTests.size(); t++) {
+            XmlTest src = sourceTests.get(t);
+            Map<String, String> params = new LinkedHashMap<>(src.getLocalParameters());
+            List<XmlClass> classes = new ArrayList<>();
+            for (XmlClass xc : src.getXmlClasses()) {
+                XmlClass out = shardClass(t, xc, shard, placed, all, params);
+                if (out != null) classes.add(out);
+            }
+            if (classes.isEmpty()) continue;
+
+            XmlTest test = new XmlTest(suite);
+            test.setName(src.getName());
+            test.setPreserveOrder(src.getPreserveOrder());
+            test.setParameters(params);
+            test.setXmlClasses(classes);
+        }
+        return suite;
+    }
+
+    /** This shard's part of one class (null if none), adding row filters to 'params'. */
+    private static XmlClass shardClass(int test, XmlClass xc, int shard, List<List<Unit>> placed, List<Unit> all,
+                                       Map<String, String> params) {
+        boolean home = false;
+        Map<String, List<List<String>>> mine = new LinkedHashMap<>();
+        for (Unit u : placed.get(shard)) {
+            if (u.test != test || !u.className.equals(xc.getName())) continue;
+            if (u.method == null) home = true;
+            else mine.computeIfAbsent(u.method, k -> new ArrayList<>()).add(u.row);
+        }
+        if (!home && mine.isEmpty()) return null;
+
+        XmlClass out = new XmlClass(xc.getName(), false);
+        if (home) {
+            // Everything the source ran, minus the rows planned onto other shards
+            out.setIncludedMethods(new ArrayList<>(xc.getIncludedMethods()));
+            out.setExcludedMethods(new ArrayList<>(xc.getExcludedMethods()));
+            Set<Unit> here = new HashSet<>(placed.get(shard));
+            Map<String, List<List<String>>> elsewhere = new LinkedHashMap<>();
+            for (Unit u : all) {
+                if (u.test == test && u.className.equals(xc.getName()) && u.method != null && !here.contains(u)) {
+                    elsewhere.computeIfAbsent(u.method, k -> new ArrayList<>()).add(u.row);
+                }
+            }
+            for (Map.Entry<String, List<List<String>>> e : elsewhere.entrySet()) {
+                params.put(ShardRowFilter.EXCLUDE + xc.getName() + "." + e.getKey(), ShardRowFilter.toJson(e.getValue()));
+            }
+        } else {
+            List<XmlInclude> includes = new ArrayList<>();
+            for (Map.Entry<String, List<List<String>>> e : mine.entrySet()) {
+                includes.add(new XmlInclude(e.getKey()));
+                params.put(ShardRowFilter.INCLUDE + xc.getName() + "." + e.getKey(), ShardRowFilter.toJson(e.getValue()));
+            }
+            out.setIncludedMethods(includes);
+        }
+        return out;
+    }
+
+    /** Writes testng-shard-N.xml files into 'dir' and returns their paths. */
+    public static List<Path> write(Plan plan, Path dir) {
+        List<Path> files = new ArrayList<>();
+        try {
+            Files.createDirectories(dir);
+            for (int i = 0; i < plan.suites.size(); i++) {
+                Path file = dir.resolve("testng-shard-" + (i + 1) + ".xml");
+                Files.write(file, plan.suites.get(i).toXml().getBytes(StandardCharsets.UTF_8));
+                files.add(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write shard suites to " + dir, e);
+        }
+        return files;
+    }
+
+    // ----- Helpers -----
+
+    private static boolean included(XmlClass xc, String method) {
+        if (xc.getExcludedMethods().contains(method)) return false;
+        if (xc.getIncludedMethods().isEmpty()) return true;
+        for (XmlInclude i : xc.getIncludedMethods()) {
+            if (i.getName().equals(method)) return true;
+        }
+        return false;
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Test class not found: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package shard;
+
+import base.TestData;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** ShardPlanner's LPT placement on synthetic units (no suite run, no history files). */
+public class ShardPlannerTest {
+
+    @Test
+    public void balancesToWithinTheLargestUnit() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            int shards = 2 + random.nextInt(5);
+            Map<String, Long> setup = new HashMap<>();
+            List<ShardPlanner.Unit> units = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                setup.put("0|C" + c, 0L);
+                units.add(unit("C" + c, null, 1_000 + random.nextInt(60_000)));
+                for (int r = random.nextInt(30); r > 0; r--) units.add(unit("C" + c, "rows", 200 + random.nextInt(5_000)));
+            }
+
+            long[] load = place(units, setup, shards);
+            long spread = Arrays.stream(load).max().getAsLong() - Arrays.stream(load).min().getAsLong();
+            Assert.assertTrue(spread <= largest(units), "seed " + seed + ": " + Arrays.toString(load)
+                    + " spread " + spread + " above largest unit " + largest(units));
+        }
+    }
+
+    @Test
+    public void classSetupCountsOncePerShard() {
+        Map<String, Long> setup = new HashMap<>();
+        setup.put("0|A", 5_000L);
+        setup.put("0|B", 0L);
+        List<ShardPlanner.Unit> units = new ArrayList<>(Arrays.asList(
+                unit("A", null, 10_000), unit("A", "rows", 4_000), unit("A", "rows", 4_000),
+                unit("B", null, 9_000)));
+        List<List<ShardPlanner.Unit>> placed = new ArrayList<>();
+        long[] load = ShardPlanner.place(units, setup, 2, placed);
+
+        // A fixed (10 s + 5 s setup) | B (9 s); the first A row ends earlier on the B shard even
+        // with A's setup (18 s < 19 s), the second then goes back to A's first shard (19 s < 22 s)
+        long total = 0;
+        for (int i = 0; i < 2; i++) {
+            long ms = 0;
+            boolean paidA = false;
+            for (ShardPlanner.Unit u : placed.get(i)) {
+                ms += u.ms;
+                if (u.className.equals("A") && !paidA) {
+                    ms += 5_000;
+                    paidA = true;
+                }
+            }
+            Assert.assertEquals(load[i], ms, "shard " + i + " estimate");
+            total += ms;
+        }
+        Assert.assertEquals(total, 10_000 + 4_000 + 4_000 + 9_000 + 2 * 5_000);
+        Assert.assertEquals(load, new long[] {19_000, 18_000});
+    }
+
+    @Test
+    public void placesEveryUnitExactlyOnce() {
+        Map<String, Long> setup = new HashMap<>();
+        setup.put("0|A", 100L);
+        List<ShardPlanner.Unit> units = new ArrayList<>();
+        for (int i = 0; i < 50; i++) units.add(unit("A", "rows", 1_000 + i));
+        List<ShardPlanner.Unit> given = new ArrayList<>(units);
+
+        List<List<ShardPlanner.Unit>> placed = new ArrayList<>();
+        ShardPlanner.place(units, setup, 3, placed);
+        Map<ShardPlanner.Unit, Integer> seen = new IdentityHashMap<>();
+        for (List<ShardPlanner.Unit> shard : placed) {
+            Assert.assertFalse(shard.isEmpty(), "a shard got nothing");
+            for (ShardPlanner.Unit u : shard) seen.merge(u, 1, Integer::sum);
+        }
+        Assert.assertEquals(seen.size(), given.size());
+        for (ShardPlanner.Unit u : given) Assert.assertEquals(seen.get(u), Integer.valueOf(1));
+    }
+
+    // ----- Helpers -----
+
+    private static ShardPlanner.Unit unit(String className, String method, long ms) {
+        List<String> row = method == null ? null : TestData.row(className, String.valueOf(ms));
+        return new ShardPlanner.Unit(0, className, method, row, ms);
+    }
+
+    private static long[] place(List<ShardPlanner.Unit> units, Map<String, Long> setup, int shards) {
+        return ShardPlanner.place(units, setup, shards, new ArrayList<>());
+    }
+
+    private static long largest(List<ShardPlanner.Unit> units) {
+        long max = 0;
+        for (ShardPlanner.Unit u : units) max = Math.max(max, u.ms);
+        return max;
+    }
+}
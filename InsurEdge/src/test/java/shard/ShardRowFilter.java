@@ -0,0 +1,91 @@
+package shard;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.openqa.selenium.json.TypeToken;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Runs only this shard's data-provider rows. Registered by the suite files ShardPlanner writes,
+ * which name the rows in <test> parameters:
+ *
+ *   shard.include:<class>.<method>   JSON list of rows to run (rows planned onto this shard)
+ *   shard.exclude:<class>.<method>   JSON list of rows to skip (planned elsewhere; this is the
+ *                                    method's home shard, so rows added since the plan run here)
+ *
+ * A row is its parameter values as strings. Methods without either parameter run every row.
+ */
+public class ShardRowFilter implements IDataProviderInterceptor {
+
+    public static final String INCLUDE = "shard.include:";
+    public static final String EXCLUDE = "shard.exclude:";
+
+    private static final Type ROWS = new TypeToken<List<List<String>>>() { }.getType();
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> rows, IDataProviderMethod dataProvider,
+                                        ITestNGMethod method, ITestContext context) {
+        String key = method.getRealClass().getName() + "." + method.getMethodName();
+        String include = context.getCurrentXmlTest().getParameter(INCLUDE + key);
+        String exclude = context.getCurrentXmlTest().getParameter(EXCLUDE + key);
+        if (include == null && exclude == null) return rows;
+
+        boolean keepListed = include != null;
+        Set<List<String>> listed = parse(keepListed ? include : exclude);
+        return new Iterator<Object[]>() {
+            private Object[] next = advance();
+
+            private Object[] advance() {
+                while (rows.hasNext()) {
+                    Object[] row = rows.next();
+                    if (listed.contains(key(row)) == keepListed) return row;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (next == null) throw new NoSuchElementException();
+                Object[] row = next;
+                next = advance();
+                return row;
+            }
+        };
+    }
+
+    /** A row as ShardPlanner and TestHistory name it. */
+    static List<String> key(Object[] row) {
+        List<String> values = new ArrayList<>(row.length);
+        for (Object o : row) values.add(String.valueOf(o).trim());
+        return values;
+    }
+
+    static String toJson(List<List<String>> rows) {
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput out = new Json().newOutput(json)) {
+            out.setPrettyPrint(false).write(rows);
+        }
+        return json.toString();
+    }
+
+    private static Set<List<String>> parse(String json) {
+        List<List<String>> rows = new Json().toType(json, ROWS);
+        return new HashSet<>(rows);
+    }
+}
@@ -0,0 +1,42 @@
+package shard;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line for sharding (mvn -Pshard test-compile exec:exec -Dshard.args="..."):
+ *
+ *   plan SUITE.xml K [OUT_DIR]        write OUT_DIR/testng-shard-1..K.xml (default target/shards)
+ *   merge OUT_DIR SHARD_DIR...        join the shards' testng-results.xml and junitreports
+ *
+ * History for plan: -Dshard.history=comma-separated files/directories
+ * (default test-output,target/surefire-reports).
+ */
+public class Shards {
+
+    private Shards() { }
+
+    public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equals("plan")) {
+            List<Path> history = new ArrayList<>();
+            for (String p : System.getProperty("shard.history", "test-output,target/surefire-reports").split(",")) {
+                if (!p.trim().isEmpty()) history.add(Paths.get(p.trim()));
+            }
+            ShardPlanner.Plan plan = new ShardPlanner(TestHistory.load(history))
+                    .plan(Paths.get(args[1]), Integer.parseInt(args[2]));
+            List<Path> files = ShardPlanner.write(plan, Paths.get(args.length > 3 ? args[3] : "target/shards"));
+            System.out.print(plan);
+            System.out.println("Wrote " + files);
+        } else if (args.length >= 3 && args[0].equals("merge")) {
+            List<Path> shards = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) shards.add(Paths.get(args[i]));
+            int found = ShardMerger.merge(shards, Paths.get(args[1]));
+            System.out.println("Merged " + found + " shard results into " + args[1]);
+        } else {
+            System.err.println("Usage: plan SUITE.xml K [OUT_DIR] | merge OUT_DIR SHARD_DIR...");
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package shard;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-method durations of earlier runs, the input of ShardPlanner.
+ *
+ * Sources (files, or directories holding them):
+ *   testng-results.xml        every test invocation with its data-provider row and every
+ *                             configuration method, so rows and setup cost are known separately
+ *   junitreports/TEST-*.xml   per-method times without rows; used for methods the results
+ *                             files don't cover
+ *
+ * Only passed or failed invocations count (a skip takes no time). With several runs the median
+ * is used, like TimeBudgetListener's baseline.
+ */
+public class TestHistory {
+
+    // "class#method" -> row (parameter values) -> durations, one per run
+    private final Map<String, Map<List<String>, List<Long>>> rows = new HashMap<>();
+    // "class#method" -> durations of single testcases from JUnit reports
+    private final Map<String, List<Long>> junit = new HashMap<>();
+    // class -> configuration method -> total per run
+    private final Map<String, Map<String, List<Long>>> config = new HashMap<>();
+    // class -> test invocations per run
+    private final Map<String, List<Long>> invocations = new HashMap<>();
+
+    private TestHistory() { }
+
+    /** Reads every results file found at the given paths (missing paths are skipped). */
+    public static TestHistory load(List<Path> paths) {
+        TestHistory h = new TestHistory();
+        for (Path p : paths) {
+            if (Files.isDirectory(p)) {
+                Path results = p.resolve("testng-results.xml");
+                if (Files.isRegularFile(results)) h.readResults(results);
+                Path junitDir = Files.isDirectory(p.resolve("junitreports")) ? p.resolve("junitreports") : p;
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(junitDir, "TEST-*.xml")) {
+                    for (Path f : files) h.readJunit(f);
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not list " + junitDir + ": " + e.getMessage(), e);
+                }
+            } else if (Files.isRegularFile(p)) {
+                if (p.getFileName().toString().startsWith("TEST-")) h.readJunit(p);
+                else h.readResults(p);
+            }
+        }
+        return h;
+    }
+
+    // ----- Queries -----
+
+    /** Known rows of a method with their median ms (one entry with an empty row for plain methods). */
+    public Map<List<String>, Long> rows(String className, String method) {
+        Map<List<String>, Long> out = new LinkedHashMap<>();
+        Map<List<String>, List<Long>> known = rows.get(className + "#" + method);
+        if (known == null) return out;
+        for (Map.Entry<List<String>, List<Long>> e : known.entrySet()) out.put(e.getKey(), median(e.getValue()));
+        return out;
+    }
+
+    /** Median ms of one invocation of a method (any row), or null if it never ran. */
+    public Long invocationMs(String className, String method) {
+        List<Long> all = new ArrayList<>();
+        Map<List<String>, List<Long>> known = rows.get(className + "#" + method);
+        if (known != null) for (List<Long> runs : known.values()) all.add(median(runs));
+        if (all.isEmpty()) all = junit.get(className + "#" + method);
+        return all == null || all.isEmpty() ? null : median(all);
+    }
+
+    /** Median per-run total of each configuration method of a class (setUpClass, cleanState, ...). */
+    public Map<String, Long> configMs(String className) {
+        Map<String, Long> out = new HashMap<>();
+        Map<String, List<Long>> known = config.get(className);
+        if (known == null) return out;
+        for (Map.Entry<String, List<Long>> e : known.entrySet()) out.put(e.getKey(), median(e.getValue()));
+        return out;
+    }
+
+    /** Median number of test invocations of a class per run (0 if unknown). */
+    public long invocations(String className) {
+        List<Long> runs = invocations.get(className);
+        return runs == null ? 0 : median(runs);
+    }
+
+    /** Median of every known invocation, a stand-in for methods without history (null if none). */
+    public Long typicalMs() {
+        List<Long> all = new ArrayList<>();
+        for (Map<List<String>, List<Long>> m : rows.values()) for (List<Long> runs : m.values()) all.add(median(runs));
+        if (all.isEmpty()) for (List<Long> runs : junit.values()) all.addAll(runs);
+        return all.isEmpty() ? null : median(all);
+    }
+
+    // ----- Parsing -----
+
+    private void readResults(Path file) {
+        Document doc = parse(file);
+        if (doc == null) return;
+        NodeList classNodes = doc.getElementsByTagName("class");
+        // One run may list a class under several <test>s; sum them per file
+        Map<String, Map<String, Long>> configThisRun = new HashMap<>();
+        Map<String, Long> invocationsThisRun = new HashMap<>();
+        Map<String, Map<List<String>, Long>> rowsThisRun = new HashMap<>();
+
+        for (int c = 0; c < classNodes.getLength(); c++) {
+            Element cls = (Element) classNodes.item(c);
+            String className = cls.getAttribute("name");
+            NodeList methods = cls.getElementsByTagName("test-method");
+            for (int m = 0; m < methods.getLength(); m++) {
+                Element method = (Element) methods.item(m);
+                String status = method.getAttribute("status");
+                if (!"PASS".equals(status) && !"FAIL".equals(status)) continue;
+                long ms = Long.parseLong(method.getAttribute("duration-ms"));
+                String name = method.getAttribute("name");
+                if ("true".equals(method.getAttribute("is-config"))) {
+                    configThisRun.computeIfAbsent(className, k -> new HashMap<>()).merge(name, ms, Long::sum);
+                } else {
+                    invocationsThisRun.merge(className, 1L, Long::sum);
+                    rowsThisRun.computeIfAbsent(className + "#" + name, k -> new LinkedHashMap<>())
+                            .merge(params(method), ms, Long::sum);
+                }
+            }
+        }
+        for (Map.Entry<String, Map<List<String>, Long>> m : rowsThisRun.entrySet()) {
+            for (Map.Entry<List<String>, Long> r : m.getValue().entrySet()) {
+                rows.computeIfAbsent(m.getKey(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(r.getKey(), k -> new ArrayList<>()).add(r.getValue());
+            }
+        }
+        for (Map.Entry<String, Map<String, Long>> c : configThisRun.entrySet()) {
+            for (Map.Entry<String, Long> e : c.getValue().entrySet()) {
+                config.computeIfAbsent(c.getKey(), k -> new HashMap<>())
+                        .computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(e.getValue());
+            }
+        }
+        for (Map.Entry<String, Long> e : invocationsThisRun.entrySet()) {
+            invocations.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(e.getValue());
+        }
+    }
+
+    private void readJunit(Path file) {
+        Document doc = parse(file);
+        if (doc == null) return;
+        NodeList cases = doc.getElementsByTagName("testcase");
+        for (int i = 0; i < cases.getLength(); i++) {
+            Element tc = (Element) cases.item(i);
+            if (hasChild(tc, "skipped")) continue;
+            String time = tc.getAttribute("time");
+            if (time.isEmpty()) continue;
+            long ms = Math.round(Double.parseDouble(time) * 1000);
+            junit.computeIfAbsent(tc.getAttribute("classname") + "#" + tc.getAttribute("name"),
+                    k -> new ArrayList<>()).add(ms);
+        }
+    }
+
+    private static Document parse(Path file) {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+        } catch (Exception e) {
+            System.err.println("Shard history: skipping unreadable " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean hasChild(Element e, String tag) {
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n instanceof Element && tag.equals(n.getNodeName())) return true;
+        }
+        return false;
+    }
+
+    /** Parameter values of one invocation, as ShardRowFilter sees them (String.valueOf, trimmed). */
+    private static List<String> params(Element method) {
+        List<String> values = new ArrayList<>();
+        NodeList params = method.getElementsByTagName("value");
+        for (int i = 0; i < params.getLength(); i++) values.add(params.item(i).getTextContent().trim());
+        return values;
+    }
+
+    static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,114 @@
+package standin;
+
+/**
+ * Multiplies the data rows of a GridView table in recorded HTML (row-count scaling).
+ *
+ * Only the table's own &lt;tr&gt; rows that contain &lt;td&gt; cells are repeated; the header row
+ * (&lt;th&gt;) and the pager row (class "pagination-container", which holds a nested table) are
+ * left in place, so the page still looks like one grid page, just a bigger one.
+ */
+public class GridRowScaler {
+
+    private GridRowScaler() { }
+
+    /** Returns the html with every data row of the table with the given id repeated 'factor' times. */
+    public static String scale(String html, String tableId, int factor) {
+        if (factor <= 1) return html;
+        int idAt = html.indexOf("id=\"" + tableId + "\"");
+        if (idAt < 0) return html;
+        int tableStart = html.lastIndexOf("<table", idAt);
+        int openEnd = html.indexOf('>', idAt);
+        if (tableStart < 0 || openEnd < 0) return html;
+        int tableEnd = matchingClose(html, openEnd + 1);
+        if (tableEnd < 0) return html;
+
+        StringBuilder out = new StringBuilder(html.length() + (tableEnd - openEnd) * (factor - 1));
+        out.append(html, 0, openEnd + 1);
+
+        int pos = openEnd + 1;
+        while (pos < tableEnd) {
+            int trStart = indexOfTag(html, "<tr", pos, tableEnd);
+            if (trStart < 0) break;
+            int trEnd = rowEnd(html, trStart, tableEnd);
+            if (trEnd < 0) break;
+
+            out.append(html, pos, trEnd);
+            String row = html.substring(trStart, trEnd);
+            if (isDataRow(row)) {
+                for (int i = 1; i < factor; i++) out.append(row);
+            }
+            pos = trEnd;
+        }
+        out.append(html, pos, html.length());
+        return out.toString();
+    }
+
+    private static boolean isDataRow(String row) {
+        String lower = row.toLowerCase();
+        return lower.contains("<td") && !lower.contains("pagination-container") && !lower.contains("<table");
+    }
+
+    /** Index just past the "</tr>" closing the row at trStart, skipping rows of nested tables. */
+    private static int rowEnd(String html, int trStart, int limit) {
+        int depth = 0;
+        int pos = trStart + 3;
+        while (pos < limit) {
+            int nextTable = indexOfTag(html, "<table", pos, limit);
+            int nextTableClose = html.indexOf("</table>", pos);
+            int nextRowClose = html.indexOf("</tr>", pos);
+            if (nextRowClose < 0 || nextRowClose > limit) return -1;
+
+            int first = min(nextTable, nextTableClose, nextRowClose);
+            if (first == nextTable) {
+                depth++;
+                pos = nextTable + 6;
+            } else if (first == nextTableClose) {
+                depth--;
+                pos = nextTableClose + 8;
+            } else {
+                if (depth == 0) return nextRowClose + 5;
+                pos = nextRowClose + 5;
+            }
+        }
+        return -1;
+    }
+
+    /** Index of the "</table>" that closes a table whose content starts at 'from'. */
+    private static int matchingClose(String html, int from) {
+        int depth = 1;
+        int pos = from;
+        while (depth > 0) {
+            int open = indexOfTag(html, "<table", pos, html.length());
+            int close = html.indexOf("</table>", pos);
+            if (close < 0) return -1;
+            if (open >= 0 && open < close) {
+                depth++;
+                pos = open + 6;
+            } else {
+                depth--;
+                if (depth == 0) return close;
+                pos = close + 8;
+            }
+        }
+        return -1;
+    }
+
+    /** indexOf for an opening tag name (e.g. "<tr") not followed by another letter ("<track"). */
+    private static int indexOfTag(String html, String tag, int from, int limit) {
+        int i = html.indexOf(tag, from);
+        while (i >= 0 && i < limit) {
+            int after = i + tag.length();
+            if (after >= html.length() || !Character.isLetter(html.charAt(after))) return i;
+            i = html.indexOf(tag, after);
+        }
+        return -1;
+    }
+
+    private static int min(int... values) {
+        int m = Integer.MAX_VALUE;
+        for (int v : values) {
+            if (v >= 0 && v < m) m = v;
+        }
+        return m;
+    }
+}
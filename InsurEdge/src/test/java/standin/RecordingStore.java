@@ -0,0 +1,192 @@
+package standin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk store of recorded HTTP exchanges (one .meta + one .body file per exchange).
+ *
+ * Requests are matched on a key that ignores ASP.NET's per-render state (__VIEWSTATE,
+ * __EVENTVALIDATION, ...), so a replayed postback finds its recording even though the hidden
+ * fields differ. If no exact match exists, a looser "shape" key (same page, same event target,
+ * same posted field names) is used, e.g. a Create Policy post with a new timestamped name.
+ */
+public class RecordingStore {
+
+    /** Hidden fields that change on every render and must not take part in matching. */
+    public static final Set<String> VOLATILE_FIELDS = new HashSet<>(Arrays.asList(
+            "__VIEWSTATE", "__VIEWSTATEGENERATOR", "__VIEWSTATEENCRYPTED",
+            "__EVENTVALIDATION", "__LASTFOCUS", "__PREVIOUSPAGE", "__SCROLLPOSITIONX", "__SCROLLPOSITIONY"));
+
+    /** A recorded response. */
+    public static class Exchange {
+        public final int status;
+        public final List<String[]> headers;   // name, value (repeatable, e.g. Set-Cookie)
+        public final byte[] body;
+
+        public Exchange(int status, List<String[]> headers, byte[] body) {
+            this.status = status;
+            this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+            this.body = body;
+        }
+    }
+
+    private final Path dir;
+    private final Map<String, String> exact = new ConcurrentHashMap<>();   // key -> file id
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();  // shape -> file id (latest)
+
+    public RecordingStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /** Indexes every recording already on disk. */
+    public RecordingStore load() throws IOException {
+        if (!Files.isDirectory(dir)) return this;
+        try (DirectoryStream<Path> metas = Files.newDirectoryStream(dir, "*.meta")) {
+            for (Path meta : metas) {
+                Properties p = readMeta(meta);
+                String id = idOf(meta);
+                exact.put(p.getProperty("key"), id);
+                shapes.put(p.getProperty("shape"), id);
+            }
+        }
+        return this;
+    }
+
+    public int size() {
+        return exact.size();
+    }
+
+    /** Finds the recording for a request: exact key first, then the looser shape key. */
+    public Exchange find(String method, String pathAndQuery, byte[] requestBody) throws IOException {
+        Map<String, String> form = parseForm(requestBody);
+        String id = exact.get(key(method, pathAndQuery, form));
+        if (id == null) id = shapes.get(shape(method, pathAndQuery, form));
+        return id == null ? null : read(id);
+    }
+
+    /** Stores (or replaces) the recording for a request. */
+    public synchronized void save(String method, String pathAndQuery, byte[] requestBody, Exchange response)
+            throws IOException {
+        Map<String, String> form = parseForm(requestBody);
+        String key = key(method, pathAndQuery, form);
+        String shape = shape(method, pathAndQuery, form);
+        String id = sha1(key);
+
+        Files.createDirectories(dir);
+        Properties p = new Properties();
+        p.setProperty("key", key);
+        p.setProperty("shape", shape);
+        p.setProperty("status", String.valueOf(response.status));
+        for (int i = 0; i < response.headers.size(); i++) {
+            p.setProperty("header." + i, response.headers.get(i)[0] + ": " + response.headers.get(i)[1]);
+        }
+        try (OutputStream out = Files.newOutputStream(dir.resolve(id + ".meta"))) {
+            p.store(out, method + " " + pathAndQuery);
+        }
+        Files.write(dir.resolve(id + ".body"), response.body);
+
+        exact.put(key, id);
+        shapes.put(shape, id);
+    }
+
+    // ----- Matching keys -----
+
+    static String key(String method, String pathAndQuery, Map<String, String> form) {
+        StringBuilder sb = new StringBuilder(method).append(' ').append(pathAndQuery);
+        for (Map.Entry<String, String> e : form.entrySet()) {
+            if (VOLATILE_FIELDS.contains(e.getKey())) continue;
+            sb.append('\n').append(e.getKey()).append('=').append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    static String shape(String method, String pathAndQuery, Map<String, String> form) {
+        StringBuilder sb = new StringBuilder(method).append(' ').append(pathAndQuery);
+        sb.append("\ntarget=").append(form.containsKey("__EVENTTARGET") ? form.get("__EVENTTARGET") : "");
+        for (String name : form.keySet()) {
+            if (!VOLATILE_FIELDS.contains(name)) sb.append('\n').append(name);
+        }
+        return sb.toString();
+    }
+
+    /** Parses an x-www-form-urlencoded body into a sorted map (empty for GETs / other bodies). */
+    static Map<String, String> parseForm(byte[] body) {
+        Map<String, String> form = new TreeMap<>();
+        if (body == null || body.length == 0) return form;
+        String s = new String(body, StandardCharsets.UTF_8);
+        for (String pair : s.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = decode(eq < 0 ? pair : pair.substring(0, eq));
+            String value = eq < 0 ? "" : decode(pair.substring(eq + 1));
+            form.put(name, value);
+        }
+        return form;
+    }
+
+    // ----- Files -----
+
+    private Exchange read(String id) throws IOException {
+        Properties p = readMeta(dir.resolve(id + ".meta"));
+        List<String[]> headers = new ArrayList<>();
+        for (int i = 0; p.containsKey("header." + i); i++) {
+            String h = p.getProperty("header." + i);
+            int colon = h.indexOf(": ");
+            headers.add(new String[]{h.substring(0, colon), h.substring(colon + 2)});
+        }
+        byte[] body = Files.readAllBytes(dir.resolve(id + ".body"));
+        return new Exchange(Integer.parseInt(p.getProperty("status")), headers, body);
+    }
+
+    private static Properties readMeta(Path meta) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(meta)) {
+            p.load(in);
+        }
+        return p;
+    }
+
+    private static String idOf(Path meta) {
+        String name = meta.getFileName().toString();
+        return name.substring(0, name.length() - ".meta".length());
+    }
+
+    private static String decode(String s) {
+        try {
+            return URLDecoder.decode(s, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return s;
+        }
+    }
+
+    private static String sha1(String s) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(s.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package standin;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local record/replay stand-in for the InsurEdge web app.
+ *
+ * - RECORD: reverse-proxies every request to the live host and saves the responses
+ *   (live origin rewritten to the local one, cookies made host-only) into a RecordingStore.
+ * - REPLAY: serves those recordings from an embedded HTTP server without any network access,
+ *   with per-endpoint latency injection and gvPolicies row-count scaling.
+ *
+ * Suite wiring goes through resolve(liveUrl): with -Dstandin.mode=record|replay it starts one
+ * server for the JVM and returns the equivalent local URL; otherwise the live URL is returned.
+ *
+ * System properties:
+ *   standin.mode      off | record | replay           (default off)
+ *   standin.dir       recordings directory            (default standin-recordings)
+ *   standin.port      0 = any free port               (default 0)
+ *   standin.latency   e.g. "default=20,/LoginPage=150,/Admin/AuthorizePolicy=300" (ms, longest path prefix wins)
+ *   standin.rowScale  repeat gvPolicies data rows N times (default 1)
+ */
+public class StandInServer {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    public static final String GRID_ID = "ContentPlaceHolder_Admin_gvPolicies";
+
+    // Hop-by-hop / recomputed headers never copied between client, live host and recordings
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "host", "connection", "content-length", "transfer-encoding", "accept-encoding",
+            "content-encoding", "keep-alive", "upgrade"));
+
+    private static StandInServer suiteServer;   // guarded by StandInServer.class
+
+    private final Mode mode;
+    private final String liveOrigin;            // e.g. https://qeaskillhub.cognizant.com
+    private final RecordingStore store;
+    private final Map<String, Long> latencyMs;  // path prefix -> delay
+    private final int rowScale;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String localOrigin;
+
+    public StandInServer(Mode mode, String liveOrigin, Path dir, Map<String, Long> latencyMs, int rowScale) {
+        this.mode = mode;
+        this.liveOrigin = liveOrigin;
+        this.store = new RecordingStore(dir);
+        this.latencyMs = latencyMs;
+        this.rowScale = rowScale;
+    }
+
+    // ----- Suite wiring -----
+
+    /** Maps a live app URL to the stand-in when -Dstandin.mode is record/replay (starting it once per JVM). */
+    public static synchronized String resolve(String liveUrl) {
+        Mode mode = Mode.valueOf(System.getProperty("standin.mode", "off").toUpperCase());
+        if (mode == Mode.OFF) return liveUrl;
+
+        URI uri = URI.create(liveUrl);
+        String origin = uri.getScheme() + "://" + uri.getAuthority();
+        if (suiteServer == null) {
+            StandInServer s = new StandInServer(mode, origin,
+                    Paths.get(System.getProperty("standin.dir", "standin-recordings")),
+                    parseLatency(System.getProperty("standin.latency", "")),
+                    Integer.getInteger("standin.rowScale", 1));
+            try {
+                s.start(Integer.getInteger("standin.port", 0));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start stand-in server: " + e.getMessage(), e);
+            }
+            suiteServer = s;
+        }
+        return suiteServer.localUrl(liveUrl);
+    }
+
+    /** Stops the server started by resolve(), if any. */
+    public static synchronized void stopSuiteServer() {
+        if (suiteServer != null) {
+            suiteServer.stop();
+            suiteServer = null;
+        }
+    }
+
+    /** Parses "default=20,/LoginPage=150" into prefix -> ms ("default" is stored as "/"). */
+    public static Map<String, Long> parseLatency(String spec) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) continue;
+            String prefix = part.substring(0, eq).trim();
+            map.put(prefix.equals("default") ? "/" : prefix, Long.parseLong(part.substring(eq + 1).trim()));
+        }
+        return map;
+    }
+
+    // ----- Lifecycle -----
+
+    public void start(int port) throws IOException {
+        if (mode == Mode.REPLAY) store.load();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "standin-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        localOrigin = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    public String getLocalOrigin() {
+        return localOrigin;
+    }
+
+    /** Same path/query as the live URL, on the stand-in. */
+    public String localUrl(String liveUrl) {
+        return liveUrl.startsWith(liveOrigin) ? localOrigin + liveUrl.substring(liveOrigin.length()) : liveUrl;
+    }
+
+    public int recordings() {
+        return store.size();
+    }
+
+    // ----- Request handling -----
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String method = ex.getRequestMethod();
+            String pathAndQuery = ex.getRequestURI().getRawPath()
+                    + (ex.getRequestURI().getRawQuery() == null ? "" : "?" + ex.getRequestURI().getRawQuery());
+            byte[] requestBody = readAll(ex.getRequestBody());
+
+            RecordingStore.Exchange response;
+            if (mode == Mode.RECORD) {
+                response = forward(method, pathAndQuery, ex.getRequestHeaders(), requestBody);
+                store.save(method, pathAndQuery, requestBody, response);
+            } else {
+                response = store.find(method, pathAndQuery, requestBody);
+                if (response == null) {
+                    send(ex, 404, new ArrayList<String[]>(),
+                            ("No recording for " + method + " " + pathAndQuery).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                sleep(delayFor(ex.getRequestURI().getPath()));
+            }
+            send(ex, response.status, response.headers, scaleRows(response));
+        } catch (Exception e) {
+            send(ex, 502, new ArrayList<String[]>(), String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            ex.close();
+        }
+    }
+
+    /** RECORD: proxies the request to the live host and returns a replay-ready response. */
+    private RecordingStore.Exchange forward(String method, String pathAndQuery, Headers requestHeaders, byte[] body)
+            throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(liveOrigin + pathAndQuery).openConnection();
+        conn.setInstanceFollowRedirects(false);
+        conn.setRequestMethod(method);
+        for (Map.Entry<String, List<String>> h : requestHeaders.entrySet()) {
+            if (SKIPPED_HEADERS.contains(h.getKey().toLowerCase())) continue;
+            for (String v : h.getValue()) conn.addRequestProperty(h.getKey(), v.replace(localOrigin, liveOrigin));
+        }
+        if (body.length > 0) {
+            conn.setDoOutput(true);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body);
+            }
+        }
+
+        int status = conn.getResponseCode();
+        List<String[]> headers = new ArrayList<>();
+        for (Map.Entry<String, List<String>> h : conn.getHeaderFields().entrySet()) {
+            if (h.getKey() == null || SKIPPED_HEADERS.contains(h.getKey().toLowerCase())) continue;
+            for (String v : h.getValue()) headers.add(new String[]{h.getKey(), rewriteHeader(h.getKey(), v)});
+        }
+        InputStream in = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+        byte[] responseBody = in == null ? new byte[0] : readAll(in);
+        if (isText(headers)) {
+            responseBody = new String(responseBody, StandardCharsets.UTF_8)
+                    .replace(liveOrigin, localOrigin).getBytes(StandardCharsets.UTF_8);
+        }
+        return new RecordingStore.Exchange(status, headers, responseBody);
+    }
+
+    /** Points redirects at the stand-in and makes cookies host-only/non-secure so they stick on http://127.0.0.1. */
+    private String rewriteHeader(String name, String value) {
+        if (name.equalsIgnoreCase("Location")) return value.replace(liveOrigin, localOrigin);
+        if (name.equalsIgnoreCase("Set-Cookie")) {
+            return value.replaceAll("(?i);\\s*domain=[^;]*", "").replaceAll("(?i);\\s*secure", "");
+        }
+        return value;
+    }
+
+    private byte[] scaleRows(RecordingStore.Exchange response) {
+        if (rowScale <= 1 || !isText(response.headers)) return response.body;
+        String html = new String(response.body, StandardCharsets.UTF_8);
+        if (!html.contains(GRID_ID)) return response.body;
+        return GridRowScaler.scale(html, GRID_ID, rowScale).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long delayFor(String path) {
+        long delay = 0;
+        int best = -1;
+        for (Map.Entry<String, Long> e : latencyMs.entrySet()) {
+            if (path.startsWith(e.getKey()) && e.getKey().length() > best) {
+                best = e.getKey().length();
+                delay = e.getValue();
+            }
+        }
+        return delay;
+    }
+
+    // ----- Helpers -----
+
+    private static void send(HttpExchange ex, int status, List<String[]> headers, byte[] body) throws IOException {
+        for (String[] h : headers) ex.getResponseHeaders().add(h[0], h[1]);
+        // 204/304 must not carry a body
+        boolean noBody = status == 204 || status == 304 || body.length == 0;
+        ex.sendResponseHeaders(status, noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static boolean isText(List<String[]> headers) {
+        for (String[] h : headers) {
+            if (h[0].equalsIgnoreCase("Content-Type")) {
+                String type = h[1].toLowerCase();
+                return type.startsWith("text/") || type.contains("javascript") || type.contains("json");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (int n; (n = in.read(chunk)) > 0; ) buf.write(chunk, 0, n);
+        return buf.toByteArray();
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
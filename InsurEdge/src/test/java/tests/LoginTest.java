@@ -2,15 +2,21 @@ package tests;
 
 import base.BaseTest;
 import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 public class LoginTest extends BaseTest {
 
+    /** Pooled browsers may be reused from another class, so log in again to land on the dashboard. */
+    @BeforeMethod(alwaysRun = true)
+    public void openDashboard() {
+        login(getDriver());
+    }
+
     @Test
     void testLoginTitle() {
-        // Already logged in through BaseTest
         Assert.assertEquals(
-                driver.getTitle(),
+                getDriver().getTitle(),
                 "InsurEdge - Admin Dashboard");
     }
-}
\ No newline at end of file
+}
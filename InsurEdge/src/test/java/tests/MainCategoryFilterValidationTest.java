@@ -1,28 +1,37 @@
 package tests;
 
 import base.BaseTest;
+import base.NeedsPage;
+import base.PagePerf;
+import base.PageState;
+import base.Waits;
 import data.ExcelDataProvider;
 
+import http.AuthorizeHttpClient;
+
 import org.openqa.selenium.By;
-import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import pages.AuthorizePolicyPage;
+import pages.GridOracle;
+import pages.GridSnapshot;
 import pages.HeaderPage;
 import pages.SlideBarMenuPage;
 
-import java.time.Duration;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Every test starts on Authorize with default filters; read-only tests are marked UNTOUCHED (see PageScheduler)
+@NeedsPage(MainCategoryFilterValidationTest.PAGE)
 public class MainCategoryFilterValidationTest extends BaseTest {
 
     // ======== Common locators (PUBLIC as requested) ========
@@ -37,103 +46,85 @@ public class MainCategoryFilterValidationTest extends BaseTest {
 
     // ======== Public helpers ========
 
-    /** Public: Standard explicit wait helper (12 seconds). */
-    public WebDriverWait uiWait() {
-        return new WebDriverWait(driver, Duration.ofSeconds(12));
+    /** Public: Authorize page timeouts for waits(). */
+    @Override
+    public Waits.Profile waitProfile() {
+        return Waits.Profile.AUTHORIZE;
     }
 
-    /** Public: Navigate to Policy → Authorized page and wait until grid skeleton is present. */
+    /** PageState name of the Authorize Policy page. */
+    public static final String PAGE = "AuthorizePolicy";
+
+    /**
+     * Public: Leave the browser on an untouched Authorized page (default filters, page 1).
+     * No-op when it already is; otherwise loads the page URL directly (menu only the first time).
+     */
     public void goToAuthorized() {
+        PageState.ensure(getDriver(), PAGE, this::openAuthorizedFromMenu, this::waitForAuthorized);
+    }
+
+    /** Public: Navigate to Policy → Authorized through the side menu. */
+    public void openAuthorizedFromMenu() {
         // If your UI requires opening the sidebar, uncomment:
-        HeaderPage header = new HeaderPage(driver);
+        HeaderPage header = new HeaderPage(getDriver());
         // header.clickSideBarButton();
 
-        SlideBarMenuPage menu = new SlideBarMenuPage(driver);
+        SlideBarMenuPage menu = new SlideBarMenuPage(getDriver());
         menu.clickPolicyAuthorize(); // expands Policy and opens Authorized
+    }
 
-        // Wait for key elements so we know the page is ready
-        uiWait().until(ExpectedConditions.presenceOfElementLocated(DDL_MAIN_CATEGORY));
-        uiWait().until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
+    /** Public: Wait for key elements so we know the page is ready (grid skeleton present). */
+    public void waitForAuthorized() {
+        waits().present(DDL_MAIN_CATEGORY);
+        waits().present(GRID_ROWS);
     }
 
-    /**
-     * Public: Reset all filters to defaults and ensure grid is showing unfiltered list.
-     * Uses page object actions when available and falls back to Select for resiliency.
-     */
-    public void resetAuthorizedFilters() {
-        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+    /** Suite key of the oracle built from the unfiltered Authorize grid. */
+    public static final String ORACLE = "AuthorizePolicy.unfiltered";
 
-        // Click the page's Reset button (preferred)
-        try {
-            ap.clickResetButton();
-        } catch (Exception ignored) {
-            // Fall back: manually set selects to default values
-            try {
-                // Main Category → select first option (usually "Select Main Category")
-                Select main = new Select(driver.findElement(DDL_MAIN_CATEGORY));
-                main.selectByIndex(0);
-            } catch (Exception e) { /* ignore */ }
-
-            try {
-                // Sub Category → "All"
-                Select sub = new Select(driver.findElement(DDL_SUB_CATEGORY));
-                try {
-                    sub.selectByVisibleText("All");
-                } catch (Exception notFound) {
-                    sub.selectByIndex(0); // fallback
-                }
-            } catch (Exception e) { /* ignore */ }
-
-            try {
-                // Status → "All"
-                Select st = new Select(driver.findElement(DDL_STATUS));
-                try {
-                    st.selectByVisibleText("All");
-                } catch (Exception notFound) {
-                    st.selectByIndex(0); // fallback
-                }
-            } catch (Exception e) { /* ignore */ }
-        }
+    /** Public: Expected filter results, from one crawl of the unfiltered grid per suite. */
+    public GridOracle filterOracle() {
+        return GridOracle.suite(ORACLE, this::crawlUnfilteredGrid);
+    }
 
-        // After Reset, make sure dropdowns reflect defaults (tolerant to slight text differences)
-        uiWait().until(driver1 -> {
-            String mainTxt = new Select(driver1.findElement(DDL_MAIN_CATEGORY))
-                    .getFirstSelectedOption().getText().trim().toLowerCase();
-            return mainTxt.contains("select") || mainTxt.isEmpty();
-        });
+    /** Public: Reads every page of the default (unfiltered) grid, then leaves an untouched page again. */
+    public GridOracle crawlUnfilteredGrid() {
+        goToAuthorized();
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(getDriver());
+        List<String> headers = ap.snapshotGrid().getHeaders();
+        List<List<String>> rows;
+        try (Stream<List<String>> all = ap.streamAllRows()) {
+            rows = all.collect(Collectors.toList());
+        }
+        goToAuthorized();
+        return new GridOracle(headers, rows);
+    }
 
-        uiWait().until(driver1 ->
-                new Select(driver1.findElement(DDL_SUB_CATEGORY))
-                        .getFirstSelectedOption().getText().trim().equalsIgnoreCase("All")
-                || new Select(driver1.findElement(DDL_SUB_CATEGORY)).getFirstSelectedOption().getText().trim().equalsIgnoreCase("-- All --")
-                || new Select(driver1.findElement(DDL_SUB_CATEGORY)).getFirstSelectedOption().getText().trim().equalsIgnoreCase("All Sub Categories")
-        );
+    /**
+     * Public: Asserts the server's rows for a Main Category are exactly the oracle's (count + content
+     * hash). A mismatch is re-checked against a fresh crawl first, as other tests may create policies.
+     */
+    public void assertMatchesOracle(GridOracle oracle, String mainCategory, List<List<String>> rows) {
+        String diff = oracleMismatch(oracle, mainCategory, rows);
+        Assert.assertNull(diff, "Filter result for " + mainCategory + " differs from the unfiltered grid: " + diff);
+    }
 
-        uiWait().until(driver1 ->
-                new Select(driver1.findElement(DDL_STATUS))
-                        .getFirstSelectedOption().getText().trim().equalsIgnoreCase("All")
-        );
+    /**
+     * Public: Null when the rows for a Main Category match the oracle, also after re-checking a
+     * mismatch against a fresh crawl (which replaces the suite's oracle); otherwise the diff.
+     */
+    public String oracleMismatch(GridOracle oracle, String mainCategory, List<List<String>> rows) {
+        int col = AuthorizePolicyPage.COL_MAIN_CATEGORY;
+        GridOracle.Digest actual = GridOracle.Digest.of(rows);
+        if (actual.equals(oracle.expected(col, mainCategory))) return null;
 
-        // Ensure grid is loaded with unfiltered results.
-        // If Reset does not auto-load, click Search.
-        try {
-            uiWait().until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-        } catch (TimeoutException te) {
-            try {
-                ap.clicksearchButton();
-                uiWait().until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-            } catch (Exception ignored) {
-                // As a last resort, refresh
-                driver.navigate().refresh();
-                uiWait().until(ExpectedConditions.presenceOfElementLocated(DDL_MAIN_CATEGORY));
-                uiWait().until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-            }
-        }
+        GridOracle fresh = GridOracle.refresh(ORACLE, this::crawlUnfilteredGrid);
+        return actual.equals(fresh.expected(col, mainCategory)) ? null : fresh.diff(col, mainCategory, rows);
     }
 
     /** Public: Convenience method to select default main category no matter what its display text is. */
     public void selectDefaultMainCategory() {
-        Select main = new Select(driver.findElement(DDL_MAIN_CATEGORY));
+        Select main = new Select(getDriver().findElement(DDL_MAIN_CATEGORY));
         // First try to click explicit default label
         try {
             main.selectByVisibleText("Select Main Category");
@@ -143,11 +134,10 @@ public class MainCategoryFilterValidationTest extends BaseTest {
         main.selectByIndex(0);
     }
 
-    // ======== Clean state BEFORE EVERY TEST ========
+    // ======== Clean state BEFORE EVERY TEST (a fresh page render already has default filters) ========
     @BeforeMethod(alwaysRun = true)
     public void cleanState() {
         goToAuthorized();
-        resetAuthorizedFilters();
     }
 
     // ==========================================
@@ -156,49 +146,105 @@ public class MainCategoryFilterValidationTest extends BaseTest {
 
     @Test(dataProvider = "mainCategoryDP", dataProviderClass = ExcelDataProvider.class)
     public void validateMainCategoryFilter(String mainCategory) {
-        WebDriverWait wait = uiWait();
+        Waits wait = waits();
+
+        // Expected rows come from the suite's single crawl of the unfiltered grid (first test pays for it)
+        GridOracle oracle = filterOracle();
 
         // Filters are already reset by @BeforeMethod
-        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(getDriver());
         ap.selectMainCategory(mainCategory);
         ap.clicksearchButton();
 
-        // Validate grid shows only the selected main category
-        wait.until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-        List<WebElement> cells = driver.findElements(GRID_MAINCAT_CELLS);
+        // Read EVERY page of the filtered grid (all of them are needed to spot dropped rows)
+        wait.present(GRID_ROWS);
+        List<List<String>> rows;
+        try (Stream<List<String>> all = ap.streamAllRows()) {
+            rows = all.collect(Collectors.toList());
+        }
+
+        // Every row shows only the selected main category
+        Optional<String> mismatch = rows.stream()
+                .map(r -> r.get(AuthorizePolicyPage.COL_MAIN_CATEGORY))
+                .filter(actual -> !actual.equals(mainCategory))
+                .findFirst();
+
+        // If a zero-result should be considered a failure, assert ap.snapshotGrid().rowCount() > 0 here.
+
+        Assert.assertFalse(
+            mismatch.isPresent(),
+            "Mismatched category. Expected: " + mainCategory + " | Actual: " + mismatch.orElse("")
+        );
+
+        // ...and no matching policy was dropped or altered
+        assertMatchesOracle(oracle, mainCategory, rows);
+    }
+
+    @Test
+    @NeedsPage(value = PAGE, leaves = NeedsPage.Leaves.UNTOUCHED)
+    public void validateEveryMainCategoryFilterOverHttp() {
+        // Same Search postbacks as validateMainCategoryFilter, replayed over HTTP with the suite's
+        // session cookies: every category and every grid page without driving the browser
+        AuthorizeHttpClient http = new AuthorizeHttpClient(PageState.urlOf(PAGE), sessionCookies(), baseUrl);
+        List<String> categories = http.mainCategories();
+        Assert.assertFalse(categories.isEmpty(), "No Main Category options found on the Authorize page.");
+
+        List<String> mismatches = new ArrayList<>();
+        for (String mainCategory : categories) {
+            List<List<String>> rows = http.searchAllRows(mainCategory);
+            for (List<String> row : rows) {
+                String actual = row.get(AuthorizePolicyPage.COL_MAIN_CATEGORY);
+                if (!actual.equals(mainCategory)) {
+                    mismatches.add("Expected: " + mainCategory + " | Actual: " + actual);
+                    break;
+                }
+            }
+            // The suite's current oracle: a recrawl after one category's mismatch serves the rest
+            String diff = oracleMismatch(filterOracle(), mainCategory, rows);
+            if (diff != null) mismatches.add(mainCategory + ": " + diff);
+        }
+        Assert.assertTrue(mismatches.isEmpty(), "Mismatched category over HTTP: " + mismatches);
+    }
 
-        // If a zero-result should be considered a failure, uncomment:
-        // Assert.assertTrue(cells.size() > 0, "No results for category: " + mainCategory);
+    // The perf gate: PagePerf captures in this group only (unless -Dperf.capture=true)
+    @Test(groups = PagePerf.GROUP)
+    public void validateFilterPostbacksWithinThresholds() {
+        // Every Main Category once: its AutoPostBack, then Search (both timed by the page object)
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(getDriver());
+        List<String> categories = new Select(getDriver().findElement(DDL_MAIN_CATEGORY)).getOptions().stream()
+                .skip(1)
+                .map(o -> o.getText().trim())
+                .collect(Collectors.toList());
+        Assert.assertFalse(categories.isEmpty(), "No Main Category options found on the Authorize page.");
+
+        for (String mainCategory : categories) {
+            ap.selectMainCategory(mainCategory);
+            ap.clicksearchButton();
+        }
+        ap.clickResetButton();
 
-        for (WebElement cell : cells) {
-            String actual = cell.getText().trim();
-            Assert.assertEquals(
-                actual, mainCategory,
-                "Mismatched category. Expected: " + mainCategory + " | Actual: " + actual
-            );
+        // p95 limits from perf-thresholds.properties (e.g. Authorize.search.p95=800)
+        PagePerf.assertThresholds("Authorize.search");
+        PagePerf.assertThresholds("Authorize.reset");
+        if (PagePerf.currentTest("Authorize.mainCategory").count() > 0) {
+            PagePerf.assertThresholds("Authorize.mainCategory");    // only when the dropdown posts back
         }
     }
 
     @Test
     public void validateClearSelectionShowsAllCategories() {
-        WebDriverWait wait = uiWait();
+        Waits wait = waits();
 
         // Filters are already reset; ensure default on main category explicitly
         selectDefaultMainCategory();
 
         // Click Search
-        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(getDriver());
         ap.clicksearchButton();
 
         // Read Main Category values
-        wait.until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-        List<WebElement> cells = driver.findElements(GRID_MAINCAT_CELLS);
-
-        Set<String> uniqueCategories = new HashSet<>();
-        for (WebElement cell : cells) {
-            String value = cell.getText().trim();
-            if (!value.isEmpty()) uniqueCategories.add(value);
-        }
+        wait.present(GRID_ROWS);
+        Set<String> uniqueCategories = ap.snapshotGrid().distinct(AuthorizePolicyPage.COL_MAIN_CATEGORY);
 
         Assert.assertTrue(
             uniqueCategories.size() > 1,
@@ -208,19 +254,19 @@ public class MainCategoryFilterValidationTest extends BaseTest {
 
     @Test
     public void validateResetClearsAllFiltersAndReloadsAllPolicies() {
-        WebDriverWait wait = uiWait();
+        Waits wait = waits();
 
         // 1) Apply ALL filters (non-default values)
-        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(getDriver());
 
         // Main Category (non-default; pick any valid option in your env)
         ap.selectMainCategory("Life"); // change if needed
 
         // Wait for ASP.NET postback to refresh Sub Category
-        wait.until(ExpectedConditions.presenceOfElementLocated(DDL_SUB_CATEGORY));
+        wait.present(DDL_SUB_CATEGORY);
 
         // Sub Category: pick first non-default if available
-        Select subCat = new Select(driver.findElement(DDL_SUB_CATEGORY));
+        Select subCat = new Select(getDriver().findElement(DDL_SUB_CATEGORY));
         if (subCat.getOptions().size() > 1) {
             for (WebElement opt : subCat.getOptions()) {
                 String t = opt.getText().trim();
@@ -232,7 +278,7 @@ public class MainCategoryFilterValidationTest extends BaseTest {
         }
 
         // Status: prefer "Approved"; else first non-default
-        Select status = new Select(driver.findElement(DDL_STATUS));
+        Select status = new Select(getDriver().findElement(DDL_STATUS));
         boolean pickedApproved = false;
         for (WebElement opt : status.getOptions()) {
             if (opt.getText().trim().equalsIgnoreCase("Approved")) {
@@ -253,22 +299,22 @@ public class MainCategoryFilterValidationTest extends BaseTest {
 
         // 2) Click Search and wait for grid
         ap.clicksearchButton();
-        wait.until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
+        wait.present(GRID_ROWS);
 
         // Capture row count before reset (optional diagnostic)
-        int filteredCount = driver.findElements(GRID_ROWS).size();
+        int filteredCount = ap.snapshotGrid().rowCount();
 
         // 3) Click Reset (should clear filters and reload)
         ap.clickResetButton();
 
         // 4) Verify filters reset to defaults (wait until each shows default)
-        wait.until(driver1 -> {
+        wait.until("main category reset to default", driver1 -> {
             String txt = new Select(driver1.findElement(DDL_MAIN_CATEGORY))
                 .getFirstSelectedOption().getText().trim();
             return txt.equalsIgnoreCase("Select Main Category") || txt.isEmpty();
         });
 
-        String mainCatText = new Select(driver.findElement(DDL_MAIN_CATEGORY))
+        String mainCatText = new Select(getDriver().findElement(DDL_MAIN_CATEGORY))
             .getFirstSelectedOption().getText().trim();
         Assert.assertTrue(
             mainCatText.equalsIgnoreCase("Select Main Category") || mainCatText.isEmpty(),
@@ -276,11 +322,11 @@ public class MainCategoryFilterValidationTest extends BaseTest {
         );
 
         // Sub Category default → "All"
-        wait.until(driver1 ->
+        wait.until("sub category reset to All", driver1 ->
             new Select(driver1.findElement(DDL_SUB_CATEGORY))
                 .getFirstSelectedOption().getText().trim().equalsIgnoreCase("All")
         );
-        String subCatText = new Select(driver.findElement(DDL_SUB_CATEGORY))
+        String subCatText = new Select(getDriver().findElement(DDL_SUB_CATEGORY))
             .getFirstSelectedOption().getText().trim();
         Assert.assertTrue(
             subCatText.equalsIgnoreCase("All"),
@@ -288,11 +334,11 @@ public class MainCategoryFilterValidationTest extends BaseTest {
         );
 
         // Status default → "All"
-        wait.until(driver1 ->
+        wait.until("status reset to All", driver1 ->
             new Select(driver1.findElement(DDL_STATUS))
                 .getFirstSelectedOption().getText().trim().equalsIgnoreCase("All")
         );
-        String statusText = new Select(driver.findElement(DDL_STATUS))
+        String statusText = new Select(getDriver().findElement(DDL_STATUS))
             .getFirstSelectedOption().getText().trim();
         Assert.assertTrue(
             statusText.equalsIgnoreCase("All"),
@@ -300,14 +346,8 @@ public class MainCategoryFilterValidationTest extends BaseTest {
         );
 
         // 5) Validate grid shows full/unfiltered list (ideally > previously filtered count)
-        wait.until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-        List<WebElement> mainCatCells = driver.findElements(GRID_MAINCAT_CELLS);
-
-        Set<String> uniqueCategories = new HashSet<>();
-        for (WebElement cell : mainCatCells) {
-            String value = cell.getText().trim();
-            if (!value.isEmpty()) uniqueCategories.add(value);
-        }
+        wait.present(GRID_ROWS);
+        Set<String> uniqueCategories = ap.snapshotGrid().distinct(AuthorizePolicyPage.COL_MAIN_CATEGORY);
 
         Assert.assertTrue(
             uniqueCategories.size() > 1,
@@ -317,14 +357,14 @@ public class MainCategoryFilterValidationTest extends BaseTest {
 
     @Test
     public void validatePaginationResetsToFirstPageAfterReset() {
-        WebDriverWait wait = uiWait();
+        Waits wait = waits();
 
         // 1) We're already on Authorized with defaults due to @BeforeMethod
-        wait.until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-        wait.until(ExpectedConditions.presenceOfElementLocated(PAGER_CONTAINER));
+        wait.present(GRID_ROWS);
+        wait.present(PAGER_CONTAINER);
 
         // 2) Move to a later page (prefer page 3; else 2)
-        AuthorizePolicyPage ap = new AuthorizePolicyPage(driver);
+        AuthorizePolicyPage ap = new AuthorizePolicyPage(getDriver());
         boolean moved = ap.goToPageIfExists(3);
         if (!moved) {
             ap.goToPageIfExists(2);
@@ -334,16 +374,17 @@ public class MainCategoryFilterValidationTest extends BaseTest {
         ap.clickResetButton();
 
         // 4) Wait for first page to render again
-        wait.until(ExpectedConditions.presenceOfElementLocated(GRID_ROWS));
-        wait.until(ExpectedConditions.presenceOfElementLocated(PAGER_CONTAINER));
+        wait.present(GRID_ROWS);
+        wait.present(PAGER_CONTAINER);
 
         // 5) Validate: current page is 1 (shown as a <span>1</span>) and not a link
-        Assert.assertTrue(
-                ap.isCurrentPage(1),
+        GridSnapshot grid = ap.snapshotGrid();
+        Assert.assertEquals(
+                grid.getCurrentPage(), 1,
                 "Pagination did not reset to first page after Reset (span '1' not present)."
         );
         Assert.assertFalse(
-                ap.hasPageLink(1),
+                grid.hasPageLink(1),
                 "Page 1 appears as a link instead of current page after Reset."
         );
     }
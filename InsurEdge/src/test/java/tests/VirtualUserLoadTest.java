@@ -0,0 +1,62 @@
+package tests;
+
+import base.BaseTest;
+import base.BrowserProfile;
+import data.PolicySource;
+import load.Journey;
+import load.Journeys;
+import load.LoadRunner;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import pages.CreatePolicyPage;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Load mode: the page objects' journeys run by N concurrent virtual users (see load.LoadRunner).
+ * Opt-in and usually run on its own, against the stand-in:
+ *
+ *   mvn test -Dsurefire.suiteXmlFiles=testng-load.xml -Dload.users=10 -Dstandin.mode=replay
+ *
+ * Besides the -Dload.* settings of LoadRunner:
+ *   load.journey        lifecycle | search                       (default lifecycle)
+ *   load.maxErrorRate   fail above this share of failed steps     (default 0.01)
+ *   load.report         JSON results file                        (default target/load-report.json)
+ */
+public class VirtualUserLoadTest extends BaseTest {
+
+    /** Headless like the virtual users (-Dload.profile). */
+    @Override
+    public BrowserProfile browserProfile() {
+        return BrowserProfile.named(LoadRunner.PROFILE);
+    }
+
+    @Test
+    public void runVirtualUsers() {
+        if (LoadRunner.USERS <= 0) {
+            throw new SkipException("Load mode is opt-in: run with -Dload.users=N");
+        }
+        // Policies over the Main Categories Create Policy offers; searches over the filter sheet's
+        Journeys.openCreatePolicy(getDriver());
+        List<String> options = new CreatePolicyPage(getDriver()).getMainCategoryOptions();
+        List<String> policyCategories = options.subList(Math.min(1, options.size()), options.size());
+        Journey journey = Journeys.named(System.getProperty("load.journey", "lifecycle"),
+                baseUrl, username, password,
+                PolicySource.generated(policyCategories, Long.getLong("seed.random", 1L)),
+                PolicySource.filterCategories());
+
+        BrowserProfile profile = browserProfile();
+        LoadRunner.Report report = new LoadRunner(() -> newBrowser(profile)).run(journey);
+        Reporter.log(report.toString(), true);
+        report.write(Paths.get(System.getProperty("load.report", "target/load-report.json")));
+
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+        Assert.assertTrue(report.iterations() > 0, "No journey completed in steady state: " + report.failures());
+        Assert.assertTrue(report.errorRate() <= maxErrorRate,
+                String.format("Error rate %.2f%% above %.2f%%: %s",
+                        report.errorRate() * 100, maxErrorRate * 100, report.failures()));
+    }
+}